@@ -0,0 +1,61 @@
+package benchmarks;
+
+import model.Card;
+import model.Deck;
+import model.ShoeConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuffling and dealing a shoe
+ * 
+ * @author Group 12
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    
+    @Param({"1", "6", "8"})
+    public int decks;
+    
+    private Deck deck;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        deck = new Deck(new ShoeConfig(decks, 0.75), 42L);
+    }
+    
+    @Benchmark
+    public Deck shuffle() {
+        deck.shuffle();
+        return deck;
+    }
+    
+    /**
+     * Reset the shoe and deal every card as a Card object
+     */
+    @Benchmark
+    public void dealShoe(Blackhole blackhole) {
+        deck.reset();
+        for (int i = deck.remaining(); i > 0; i--) {
+            Card card = deck.deal();
+            blackhole.consume(card);
+        }
+    }
+    
+    /**
+     * Reset the shoe and deal every card as an ordinal
+     */
+    @Benchmark
+    public void dealShoeOrdinals(Blackhole blackhole) {
+        deck.reset();
+        for (int i = deck.remaining(); i > 0; i--) {
+            blackhole.consume(deck.dealOrdinal());
+        }
+    }
+}
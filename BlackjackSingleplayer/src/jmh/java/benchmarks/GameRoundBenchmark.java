@@ -0,0 +1,68 @@
+package benchmarks;
+
+import model.Card;
+import model.GameEngine;
+import model.GameResult;
+import model.Rank;
+import model.ShoeConfig;
+import org.openjdk.jmh.annotations.*;
+import strategy.StrategyFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A complete GameEngine round (bet, deal, hit/stand, dealer, settle)
+ * at every table size
+ * 
+ * @author Group 12
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameRoundBenchmark {
+    private static final int STARTING_BALANCE = 1_000_000_000;
+    private static final int BET = 10;
+    
+    @Param({"1", "2", "3", "4", "5", "6", "7"})
+    public int seats;
+    
+    private GameEngine engine;
+    private String[] playerIds;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new GameEngine(StrategyFactory.getDefaultStrategy(), new ShoeConfig(6, 0.75));
+        playerIds = new String[seats];
+        for (int i = 0; i < seats; i++) {
+            playerIds[i] = "seat" + i;
+            engine.addPlayer(playerIds[i], STARTING_BALANCE);
+        }
+    }
+    
+    @Benchmark
+    public Map<String, GameResult> playRound() {
+        engine.startRound();
+        for (String playerId : playerIds) {
+            engine.processBet(playerId, BET);
+        }
+        engine.dealCards();
+        
+        Card dealerUpCard = engine.getDealerHand().get(0);
+        // Draw to 17 against a 7 through Ace, stand on 12 against a 2 through 6
+        int standOn = dealerUpCard.rank() == Rank.ACE || dealerUpCard.baseValue() >= 7 ? 17 : 12;
+        while (!engine.allPlayersFinished()) {
+            String playerId = engine.getCurrentPlayer();
+            if (engine.getPlayerHandValue(playerId).bestTotal() < standOn) {
+                engine.processHit(playerId);
+            } else {
+                engine.processStand(playerId);
+            }
+        }
+        
+        engine.playDealerTurn();
+        return engine.determineResults();
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import model.Card;
+import model.CardInPlay;
+import model.CardTotal;
+import model.Deck;
+import model.Hand;
+import model.HandValue;
+import model.ShoeConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import strategy.BlackjackStrategy;
+import strategy.HandEvaluationTable;
+import strategy.StrategyFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every way the code base evaluates a hand, over the same set of
+ * random 2-5 card hands
+ * 
+ * @author Group 12
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandEvaluatorBenchmark {
+    private static final int HANDS = 1024;
+    
+    private final List<List<Card>> cardLists = new ArrayList<>(HANDS);
+    private final Hand[] hands = new Hand[HANDS];
+    private final int[] hardTotals = new int[HANDS];
+    private final int[] aceCounts = new int[HANDS];
+    private final CardTotal cardTotal = new CardTotal();
+    private BlackjackStrategy strategy;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        strategy = StrategyFactory.getDefaultStrategy();
+        Deck deck = new Deck(new ShoeConfig(6, 0.75), 7L);
+        SplittableRandom random = new SplittableRandom(7L);
+        for (int i = 0; i < HANDS; i++) {
+            List<Card> cards = new ArrayList<>();
+            Hand hand = new Hand();
+            for (int c = 2 + random.nextInt(4); c > 0; c--) {
+                Card card = deck.deal();
+                cards.add(card);
+                hand.add(new CardInPlay(card, true));
+            }
+            HandValue value = HandValue.of(cards);
+            cardLists.add(cards);
+            hands[i] = hand;
+            hardTotals[i] = value.hardTotal();
+            aceCounts[i] = value.aceCount();
+        }
+    }
+    
+    private int nextIndex() {
+        next = (next + 1) & (HANDS - 1);
+        return next;
+    }
+    
+    /**
+     * Build a HandValue from a plain card list, as the views and GameEngine callers do
+     */
+    @Benchmark
+    public int handValueOf() {
+        return HandValue.of(cardLists.get(nextIndex())).bestTotal();
+    }
+    
+    @Benchmark
+    public int strategyCalculateHandValue() {
+        return strategy.calculateHandValue(hands[nextIndex()]);
+    }
+    
+    @Benchmark
+    public boolean strategyIsBlackjack() {
+        return strategy.isBlackjack(hands[nextIndex()]);
+    }
+    
+    @Benchmark
+    public int cardTotal() {
+        return cardTotal.compute(hands[nextIndex()]);
+    }
+    
+    @Benchmark
+    public int tableLookup() {
+        int i = nextIndex();
+        return HandEvaluationTable.lookup(hardTotals[i], aceCounts[i]);
+    }
+    
+    @Benchmark
+    public void dealerStands(Blackhole blackhole) {
+        int i = nextIndex();
+        blackhole.consume(HandEvaluationTable.dealerStands(hardTotals[i], aceCounts[i], true));
+    }
+}
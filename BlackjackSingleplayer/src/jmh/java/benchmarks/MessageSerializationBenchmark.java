@@ -0,0 +1,168 @@
+package benchmarks;
+
+import model.GameEngine;
+import model.ShoeConfig;
+import network.GameUpdateMessage;
+import network.PlayerInfo;
+import network.StateDelta;
+import network.StateSnapshot;
+import network.TableState;
+import network.WireCodec;
+import org.openjdk.jmh.annotations.*;
+import strategy.StrategyFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of the messages DesignatedHost sends: Java serialization,
+ * using a fresh stream per message (what a newly joined client pays) and a
+ * long-lived reset() stream (the steady-state cost on an open connection),
+ * against the WireCodec binary protocol. Covers the full snapshot a client
+ * gets on join and the one-card delta a hit produces.
+ * 
+ * @author Group 12
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageSerializationBenchmark {
+    
+    @Param({"1", "4", "7"})
+    public int seats;
+    
+    private GameUpdateMessage snapshot;
+    private GameUpdateMessage hitDelta;
+    private GameUpdateMessage turnChanged;
+    private byte[] serializedSnapshot;
+    private ByteArrayOutputStream streamBuffer;
+    private ObjectOutputStream stream;
+    private WireCodec hostCodec;
+    private WireCodec clientCodec;
+    private byte[] encodedSnapshot;
+    private byte[] encodedHitDelta;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GameEngine engine = new GameEngine(StrategyFactory.getDefaultStrategy(), new ShoeConfig(6, 0.75));
+        for (int i = 0; i < seats; i++) {
+            engine.addPlayer("player-" + i, 10000);
+        }
+        engine.startRound();
+        for (String playerId : engine.getPlayerIds()) {
+            engine.processBet(playerId, 100);
+        }
+        engine.dealCards();
+        
+        // Same messages as DesignatedHost: a snapshot after the deal, then the delta for one hit
+        List<PlayerInfo> players = new ArrayList<>();
+        for (String playerId : engine.getPlayerIds()) {
+            players.add(new PlayerInfo(playerId, playerId));
+        }
+        TableState replicated = new TableState();
+        replicated.diff(engine);
+        snapshot = new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_SNAPSHOT, replicated.snapshot(
+            new StateSnapshot.Table(players, engine.getCurrentPlayer(), StateSnapshot.Phase.PLAYING,
+                engine.getStrategy().getVariantName(), engine.getSpectators())));
+        engine.processHit(engine.getCurrentPlayer());
+        StateDelta delta = replicated.diff(engine);
+        hitDelta = new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_DELTA, delta);
+        turnChanged = new GameUpdateMessage(GameUpdateMessage.MessageType.TURN_CHANGED, engine.getCurrentPlayer());
+        serializedSnapshot = serialize(snapshot);
+        
+        streamBuffer = new ByteArrayOutputStream(4096);
+        stream = new ObjectOutputStream(streamBuffer);
+        
+        // Both sides learn the seats from a PLAYERS_LIST, as on a live table
+        hostCodec = new WireCodec();
+        clientCodec = new WireCodec();
+        clientCodec.decodeUpdate(hostCodec.encodeUpdate(
+            new GameUpdateMessage(GameUpdateMessage.MessageType.PLAYERS_LIST, players)));
+        encodedSnapshot = hostCodec.encodeUpdate(snapshot);
+        encodedHitDelta = hostCodec.encodeUpdate(hitDelta);
+    }
+    
+    private static byte[] serialize(Object message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        }
+        return bytes.toByteArray();
+    }
+    
+    @Benchmark
+    public byte[] serializeSnapshot() throws IOException {
+        return serialize(snapshot);
+    }
+    
+    @Benchmark
+    public byte[] serializeHitDelta() throws IOException {
+        return serialize(hitDelta);
+    }
+    
+    @Benchmark
+    public byte[] serializeTurnChanged() throws IOException {
+        return serialize(turnChanged);
+    }
+    
+    @Benchmark
+    public int writeSnapshotOnOpenStream() throws IOException {
+        streamBuffer.reset();
+        stream.reset();
+        stream.writeObject(snapshot);
+        stream.flush();
+        return streamBuffer.size();
+    }
+    
+    @Benchmark
+    public Object deserializeSnapshot() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serializedSnapshot))) {
+            return in.readObject();
+        }
+    }
+    
+    @Benchmark
+    public byte[] encodeSnapshot() {
+        return hostCodec.encodeUpdate(snapshot);
+    }
+    
+    @Benchmark
+    public byte[] encodeHitDelta() {
+        return hostCodec.encodeUpdate(hitDelta);
+    }
+    
+    @Benchmark
+    public byte[] encodeTurnChanged() {
+        return hostCodec.encodeUpdate(turnChanged);
+    }
+    
+    @Benchmark
+    public Object decodeSnapshot() throws IOException {
+        return clientCodec.decodeUpdate(encodedSnapshot);
+    }
+    
+    @Benchmark
+    public Object decodeHitDelta() throws IOException {
+        return clientCodec.decodeUpdate(encodedHitDelta);
+    }
+    
+    @TearDown(Level.Trial)
+    public void report() throws IOException {
+        report("STATE_SNAPSHOT", serializedSnapshot.length, encodedSnapshot.length);
+        report("STATE_DELTA (hit)", serialize(hitDelta).length, encodedHitDelta.length);
+        report("TURN_CHANGED", serialize(turnChanged).length, hostCodec.encodeUpdate(turnChanged).length);
+    }
+    
+    private void report(String message, int serializedBytes, int wireBytes) {
+        System.out.println("[BENCH] " + seats + " seats: " + message + " is "
+            + serializedBytes + " bytes serialized, " + wireBytes + " bytes on the wire");
+    }
+}
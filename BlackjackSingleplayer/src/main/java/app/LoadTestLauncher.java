@@ -0,0 +1,179 @@
+package app;
+
+import loadtest.LoadTest;
+import loadtest.LoadTestMetrics;
+import loadtest.NetworkScenario;
+import network.Heartbeat;
+import network.InboundMetrics;
+import network.OutboundMetrics;
+import network.ServerMode;
+import network.WireStats;
+import simulation.BasicHitStandPolicy;
+import simulation.ChartPolicy;
+import simulation.PlayerPolicy;
+import strategy.BasicStrategyCharts;
+import strategy.BlackjackStrategy;
+import strategy.StrategyFactory;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command line entry point for the headless bot swarm load test
+ * Starts in-process hosts and connects bots to them over TCP, e.g.:
+ *   java -cp Blackjack.jar app.LoadTestLauncher --bots 500 --tables 100 --duration 120
+ * 
+ * Options:
+ *   --bots N        bots to connect (default 7)
+ *   --tables N      hosts to spread the bots over (default 1)
+ *   --duration S    seconds to run (default 60)
+ *   --think-ms A[-B] think time before each command, fixed or a random range (default 0)
+ *   --pause-ms N    pause between rounds at each table (default 0)
+ *   --bet N         chips bet per round (default 10)
+ *   --variant NAME  rule variant played at every table (default: the default variant)
+ *   --policy P      "chart" (basic strategy) or "simple" hit/stand decisions (default chart)
+ *   --report-every S seconds between progress lines (default 10)
+ *   --server MODE   "blocking" or "nio" host engine (default: blackjack.server.mode, else blocking)
+ *   --scenario FILE connect the bots through a FaultProxy playing this NetworkScenario (default: direct)
+ * 
+ * @author Group 12
+ */
+public class LoadTestLauncher {
+    
+    public static void main(String[] args) throws InterruptedException {
+        // Bots play flat out, hundreds of rounds a second per table, far past the
+        // per-connection limits meant for people; set before the host reads them
+        System.getProperties().putIfAbsent("blackjack.inbound.framesPerSecond", "20000");
+        System.getProperties().putIfAbsent("blackjack.inbound.commandsPerSecond", "10000");
+        
+        int bots = 7;
+        int tables = 1;
+        int durationSeconds = 60;
+        int minThink = 0;
+        int maxThink = 0;
+        int pause = 0;
+        int bet = 10;
+        String variant = StrategyFactory.getDefaultStrategy().getVariantName();
+        String policyName = "chart";
+        int reportEvery = 10;
+        ServerMode serverMode = ServerMode.fromSystemProperty();
+        NetworkScenario scenario = null;
+        
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (i + 1 >= args.length) {
+                    usage("Missing value for " + arg);
+                    return;
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--bots" -> bots = Integer.parseInt(value);
+                    case "--tables" -> tables = Integer.parseInt(value);
+                    case "--duration" -> durationSeconds = Integer.parseInt(value);
+                    case "--think-ms" -> {
+                        int dash = value.indexOf('-');
+                        minThink = Integer.parseInt(dash < 0 ? value : value.substring(0, dash));
+                        maxThink = dash < 0 ? minThink : Integer.parseInt(value.substring(dash + 1));
+                    }
+                    case "--pause-ms" -> pause = Integer.parseInt(value);
+                    case "--bet" -> bet = Integer.parseInt(value);
+                    case "--variant" -> variant = value;
+                    case "--policy" -> policyName = value;
+                    case "--report-every" -> reportEvery = Integer.parseInt(value);
+                    case "--server" -> {
+                        try {
+                            serverMode = ServerMode.valueOf(value.toUpperCase());
+                        } catch (IllegalArgumentException e) {
+                            usage("Unknown server mode '" + value + "', use blocking or nio");
+                            return;
+                        }
+                    }
+                    case "--scenario" -> {
+                        try {
+                            scenario = NetworkScenario.load(Path.of(value));
+                        } catch (IOException e) {
+                            usage("Cannot read scenario " + value + ": " + e.getMessage());
+                            return;
+                        } catch (IllegalArgumentException e) {
+                            usage("Bad scenario " + e.getMessage());
+                            return;
+                        }
+                    }
+                    default -> {
+                        usage("Unknown option " + arg);
+                        return;
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage("Not a number: " + e.getMessage());
+            return;
+        }
+        
+        if (!StrategyFactory.getAvailableVariants().contains(variant)) {
+            usage("Unknown variant '" + variant + "', available: " + StrategyFactory.getAvailableVariants());
+            return;
+        }
+        if (!policyName.equals("chart") && !policyName.equals("simple")) {
+            usage("Unknown policy '" + policyName + "', use chart or simple");
+            return;
+        }
+        
+        BlackjackStrategy strategy = StrategyFactory.getStrategy(variant);
+        PlayerPolicy policy = policyName.equals("chart")
+            ? new ChartPolicy(BasicStrategyCharts.forStrategy(strategy, 1))
+            : new BasicHitStandPolicy();
+        
+        LoadTest loadTest;
+        try {
+            loadTest = new LoadTest(strategy, policy, bots, tables, bet, minThink, maxThink, pause, serverMode, scenario);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+            return;
+        }
+        
+        System.out.println("[LOADTEST] " + bots + " bots on " + tables + " tables for " + durationSeconds
+            + "s, think " + minThink + "-" + maxThink + "ms, variant: " + variant + ", policy: " + policyName
+            + ", server: " + serverMode + (scenario != null ? ", network: " + scenario : ""));
+        loadTest.start();
+        long startedAt = System.nanoTime();
+        long endAt = startedAt + durationSeconds * 1_000_000_000L;
+        
+        LoadTestMetrics metrics = loadTest.getMetrics();
+        while (System.nanoTime() < endAt) {
+            Thread.sleep(Math.min(reportEvery * 1000L, Math.max(1, (endAt - System.nanoTime()) / 1_000_000)));
+            double elapsed = (System.nanoTime() - startedAt) / 1e9;
+            System.out.printf("[LOADTEST] %5.0fs rounds=%d commands=%d latency %s%n",
+                elapsed, metrics.getRounds(), metrics.getSent(), metrics.getAllCommands().summary());
+        }
+        
+        double elapsed = (System.nanoTime() - startedAt) / 1e9;
+        loadTest.stop();
+        System.out.println();
+        System.out.println("=== Load test: " + bots + " bots, " + tables + " tables ===");
+        System.out.println(metrics.report(elapsed, tables));
+        System.out.println();
+        System.out.println("=== Wire encoding (payload bytes; each broadcast is encoded once) ===");
+        System.out.println(WireStats.report());
+        System.out.println();
+        System.out.println("=== Outbound queues ===");
+        System.out.println(OutboundMetrics.report());
+        System.out.println();
+        System.out.println("=== Heartbeats ===");
+        System.out.println(Heartbeat.report());
+        System.out.println();
+        System.out.println("=== Inbound limits ===");
+        System.out.println(InboundMetrics.report());
+        if (scenario != null) {
+            System.out.println();
+            System.out.println("=== Network ===");
+            System.out.println(loadTest.getNetworkReport());
+        }
+    }
+    
+    private static void usage(String error) {
+        System.err.println("[LOADTEST] " + error);
+        System.err.println("Usage: LoadTestLauncher [--bots N] [--tables N] [--duration S] [--think-ms A[-B]] "
+            + "[--pause-ms N] [--bet N] [--variant NAME] [--policy chart|simple] [--report-every S] [--server blocking|nio] [--scenario FILE]");
+    }
+}
@@ -0,0 +1,109 @@
+package app;
+
+import loadtest.FaultProxy;
+import loadtest.NetworkScenario;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Command line entry point for the fault injection proxy
+ * Put it in front of a running host and point clients at it instead, e.g.:
+ *   java -cp Blackjack.jar app.ProxyLauncher --target 127.0.0.1:51234 --listen 40000 --scenario scenarios/home-wifi.txt
+ * 
+ * Options:
+ *   --target HOST:PORT host to forward to (required)
+ *   --scenario FILE    NetworkScenario to play (required)
+ *   --listen PORT      port clients connect to (default: any free port, printed on start)
+ *   --duration S       seconds to run before exiting (default: until killed)
+ * 
+ * @author Group 12
+ */
+public class ProxyLauncher {
+    
+    public static void main(String[] args) throws InterruptedException {
+        String target = null;
+        String scenarioFile = null;
+        int listenPort = 0;
+        int durationSeconds = 0;
+        
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (i + 1 >= args.length) {
+                    usage("Missing value for " + arg);
+                    return;
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--target" -> target = value;
+                    case "--scenario" -> scenarioFile = value;
+                    case "--listen" -> listenPort = Integer.parseInt(value);
+                    case "--duration" -> durationSeconds = Integer.parseInt(value);
+                    default -> {
+                        usage("Unknown option " + arg);
+                        return;
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage("Not a number: " + e.getMessage());
+            return;
+        }
+        
+        if (target == null || scenarioFile == null) {
+            usage("--target and --scenario are required");
+            return;
+        }
+        int colon = target.lastIndexOf(':');
+        if (colon < 0) {
+            usage("Target must be HOST:PORT");
+            return;
+        }
+        String targetHost = target.substring(0, colon);
+        int targetPort;
+        try {
+            targetPort = Integer.parseInt(target.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            usage("Not a port: " + target.substring(colon + 1));
+            return;
+        }
+        
+        NetworkScenario scenario;
+        try {
+            scenario = NetworkScenario.load(Path.of(scenarioFile));
+        } catch (IOException e) {
+            usage("Cannot read scenario " + scenarioFile + ": " + e.getMessage());
+            return;
+        } catch (IllegalArgumentException e) {
+            usage("Bad scenario " + e.getMessage());
+            return;
+        }
+        
+        FaultProxy proxy = new FaultProxy(targetHost, targetPort, listenPort, scenario);
+        try {
+            proxy.start();
+        } catch (IOException e) {
+            usage("Cannot listen on port " + listenPort + ": " + e.getMessage());
+            return;
+        }
+        System.out.println("[PROXY] Listening on port " + proxy.getPort() + ", forwarding to " + target
+            + " with " + scenario);
+        
+        // Report totals however the run ends (duration reached or Ctrl+C)
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            proxy.close();
+            System.out.println(FaultProxy.report(scenario, List.of(proxy)));
+        }));
+        if (durationSeconds > 0) {
+            Thread.sleep(durationSeconds * 1000L);
+            System.exit(0);
+        }
+        Thread.currentThread().join();
+    }
+    
+    private static void usage(String error) {
+        System.err.println("[PROXY] " + error);
+        System.err.println("Usage: ProxyLauncher --target HOST:PORT --scenario FILE [--listen PORT] [--duration S]");
+    }
+}
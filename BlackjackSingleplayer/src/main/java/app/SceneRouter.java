@@ -14,6 +14,7 @@ import view.MenuPageView;
 import view.TutorialView;
 import view.MultiplayerTableView;
 import view.GameLobbyView;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
@@ -36,7 +37,12 @@ public class SceneRouter {
         stage.setOnCloseRequest(event -> {
             if (activeHost != null) {
                 System.out.println("[APP] Window closing - shutting down host");
-                activeHost.shutdown();
+                // Keep the window open, without blocking it, until the port mapping
+                // and API listing are removed; the app exits once it closes
+                event.consume();
+                DesignatedHost closing = activeHost;
+                activeHost = null;
+                closing.shutdown().whenComplete((ignored, error) -> Platform.runLater(stage::close));
             }
         });
     }
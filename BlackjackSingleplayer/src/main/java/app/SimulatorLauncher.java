@@ -0,0 +1,157 @@
+package app;
+
+import model.ShoeConfig;
+import simulation.BasicHitStandPolicy;
+import simulation.ChartPolicy;
+import simulation.MonteCarloSimulator;
+import simulation.PlayerPolicy;
+import simulation.SimulationStats;
+import strategy.BasicStrategyCharts;
+import strategy.BlackjackStrategy;
+import strategy.StrategyFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command line entry point for the headless Monte Carlo simulator
+ * Runs without JavaFX, e.g.:
+ *   java -cp Blackjack.jar app.SimulatorLauncher --hands 1000000000 --threads 16
+ * 
+ * Options:
+ *   --hands N      hands to play per variant, at least 1 (default 10,000,000)
+ *   --variant NAME only simulate this variant (default: all registered variants)
+ *   --threads N    worker threads, at least 1 (default: all cores)
+ *   --bet N        chips bet per hand, at least 1 (default 10)
+ *   --decks N      decks in the shoe, 1-8 (default 1)
+ *   --penetration F fraction of the shoe dealt before reshuffling, 0.25-0.95 (default 0.75)
+ *   --policy P     "chart" plays each variant's cached basic strategy chart,
+ *                  "simple" a fixed hit/stand policy (default chart)
+ * 
+ * @author Group 12
+ */
+public class SimulatorLauncher {
+    
+    public static void main(String[] args) {
+        long hands = 10_000_000L;
+        String variant = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int bet = 10;
+        int decks = ShoeConfig.DEFAULT.getDeckCount();
+        double penetration = ShoeConfig.DEFAULT.getPenetration();
+        String policyName = "chart";
+        
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (i + 1 >= args.length) {
+                    usage("Missing value for " + arg);
+                    return;
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--hands" -> hands = Long.parseLong(value.replace("_", "").replace(",", ""));
+                    case "--variant" -> variant = value;
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--bet" -> bet = Integer.parseInt(value);
+                    case "--decks" -> decks = Integer.parseInt(value);
+                    case "--penetration" -> penetration = Double.parseDouble(value);
+                    case "--policy" -> policyName = value;
+                    default -> {
+                        usage("Unknown option " + arg);
+                        return;
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage("Not a number: " + e.getMessage());
+            return;
+        }
+        
+        // Every option is checked before any work starts
+        if (hands < 1) {
+            usage("Hands must be at least 1");
+            return;
+        }
+        if (threads < 1) {
+            usage("Threads must be at least 1");
+            return;
+        }
+        if (bet < 1) {
+            usage("Bet must be at least 1");
+            return;
+        }
+        
+        List<String> variants = new ArrayList<>();
+        if (variant != null) {
+            if (!StrategyFactory.getAvailableVariants().contains(variant)) {
+                usage("Unknown variant '" + variant + "', available: " + StrategyFactory.getAvailableVariants());
+                return;
+            }
+            variants.add(variant);
+        } else {
+            variants.addAll(StrategyFactory.getAvailableVariants());
+        }
+        
+        ShoeConfig shoeConfig;
+        try {
+            // Checks decks (1-8) and penetration
+            shoeConfig = new ShoeConfig(decks, penetration);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+            return;
+        }
+        
+        if (!policyName.equals("chart") && !policyName.equals("simple")) {
+            usage("Unknown policy '" + policyName + "', use chart or simple");
+            return;
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        System.out.println("[SIM] " + hands + " hands per variant on " + pool.getParallelism()
+            + " threads, shoe: " + shoeConfig + ", policy: " + policyName);
+        
+        for (String name : variants) {
+            BlackjackStrategy strategy = StrategyFactory.getStrategy(name);
+            PlayerPolicy policy = policyName.equals("chart")
+                ? new ChartPolicy(BasicStrategyCharts.forStrategy(strategy, shoeConfig.getDeckCount()))
+                : new BasicHitStandPolicy();
+            MonteCarloSimulator simulator = new MonteCarloSimulator(pool, policy, bet);
+            long start = System.nanoTime();
+            SimulationStats stats = simulator.simulate(strategy, shoeConfig, hands);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            printReport(strategy, stats, seconds);
+        }
+        pool.shutdown();
+    }
+    
+    private static void printReport(BlackjackStrategy strategy, SimulationStats stats, double seconds) {
+        System.out.println();
+        System.out.println("=== " + strategy.getVariantName() + " ===");
+        System.out.println(strategy.getRulesDescription());
+        System.out.printf("Hands played:  %,d in %.1fs (%,.0f hands/s)%n",
+            stats.getHands(), seconds, stats.getHands() / seconds);
+        System.out.printf("House edge:    %.4f%% ± %.4f%% (95%% CI)%n",
+            stats.getHouseEdge() * 100, stats.getHouseEdgeMargin() * 100);
+        System.out.printf("Variance:      %.4f (std dev %.4f per hand)%n",
+            stats.getVariance(), Math.sqrt(stats.getVariance()));
+        printRate("Win rate:", stats, stats.getWins());
+        printRate("Push rate:", stats, stats.getPushes());
+        printRate("Loss rate:", stats, stats.getLosses());
+        printRate("Blackjacks:", stats, stats.getBlackjacks());
+    }
+    
+    private static void printRate(String label, SimulationStats stats, long count) {
+        System.out.printf("%-14s %.4f%% ± %.4f%%%n", label, stats.rate(count) * 100, stats.rateMargin(count) * 100);
+    }
+    
+    /**
+     * Print the error and the usage text, then exit with status 2 so
+     * scripts can tell a bad command line from a failed run
+     */
+    private static void usage(String error) {
+        System.err.println("[SIM] " + error);
+        System.err.println("Usage: SimulatorLauncher [--hands N] [--variant NAME] [--threads N] [--bet N] [--decks N] [--penetration F] [--policy chart|simple]");
+        System.exit(2);
+    }
+}
@@ -3,6 +3,7 @@ package controller;
 import app.SceneRouter;
 import network.ApiClient;
 import network.ApiClient.GameInfo;
+import javafx.application.Platform;
 import view.GameLobbyView;
 
 import java.util.LinkedHashMap;
@@ -41,9 +42,13 @@ public class GameLobbyController {
 
     /**
      * Refresh the list of available games from API
+     * The request runs on a virtual thread; the list is shown on the FX thread
      */
     private void refreshGamesList() {
-        List<GameInfo> games = apiClient.listGames();
+        apiClient.listGamesAsync().thenAccept(games -> Platform.runLater(() -> showGames(games)));
+    }
+    
+    private void showGames(List<GameInfo> games) {
         System.out.println("[LOBBY] Refreshing games list from API. Found " + games.size() + " game(s).");
         
         Map<String, String> displayGames = new LinkedHashMap<>();
@@ -72,13 +77,14 @@ public class GameLobbyController {
         
         // Check if it's a 6-character game code
         if (input.length() == 6 && input.matches("[A-Z0-9]+")) {
-            GameInfo game = apiClient.getGame(input);
-            if (game != null) {
-                System.out.println("[LOBBY] Game code found: " + input + " -> " + game.getConnectionString());
-                connectToAddress(game.getConnectionString());
-            } else {
-                view.setStatus("Game code not found: " + input);
-            }
+            apiClient.getGameAsync(input).thenAccept(game -> Platform.runLater(() -> {
+                if (game != null) {
+                    System.out.println("[LOBBY] Game code found: " + input + " -> " + game.getConnectionString());
+                    connectToAddress(game.getConnectionString());
+                } else {
+                    view.setStatus("Game code not found: " + input);
+                }
+            }));
             return;
         }
         
@@ -4,12 +4,14 @@ import app.SceneRouter;
 import command.*;
 import model.Card;
 import network.BlackjackPeer;
+import network.CommandResult;
 import network.DesignatedHost;
 import network.GameUpdateMessage;
 import strategy.BlackjackStrategy;
 import strategy.StrategyFactory;
 import view.MultiplayerTableView;
 
+import javafx.application.Platform;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +45,12 @@ public class MultiplayerTableController {
             view.setGameCode(gameCode);
             // Then set connection info which will use the game code
             view.setConnectionInfo(host.getConnectionString());
+            // Switch to the public address if UPnP maps the port
+            host.getPublicAddress().thenAccept(publicIP -> {
+                if (publicIP != null) {
+                    Platform.runLater(() -> view.setConnectionInfo(publicIP + ":" + host.getPort()));
+                }
+            });
         } else {
             // Client just shows they're connected
             view.setGameCode("Connected");
@@ -58,19 +66,21 @@ public class MultiplayerTableController {
         // Strategy selector: Only host can change strategy
         if (isHost && host != null) {
             view.getStrategySelector().setOnStrategyChange(strategy -> {
-                host.getGameEngine().setStrategy(strategy);
-                // Broadcast strategy change to all clients
-                host.broadcast(new GameUpdateMessage(
-                    GameUpdateMessage.MessageType.STRATEGY_CHANGED, 
-                    strategy.getVariantName()
-                ));
+                // Applied on the table's event loop, then broadcast to all clients
+                host.changeStrategy(strategy);
                 System.out.println("[HOST] Strategy changed to: " + strategy.getVariantName());
             });
         } else {
             // Non-host players see the selector but cannot change it
             view.getStrategySelector().disable();
+            if (peer.getStrategyName() != null) {
+                view.getStrategySelector().setStrategy(peer.getStrategyName());
+            }
         }
 
+        // The join snapshot may already be here; start from what it says
+        roundInProgress = peer.isRoundInProgress();
+
         // Listen for game updates
         peer.addUpdateListener(this::handleGameUpdate);
 
@@ -82,7 +92,7 @@ public class MultiplayerTableController {
         // Disconnect from game
         peer.disconnect();
         
-        // If this player is the host, shutdown server (unregisters from API)
+        // If this player is the host, shutdown server (unregisters from API in the background)
         if (isHost && host != null) {
             host.shutdown();
         }
@@ -109,8 +119,14 @@ public class MultiplayerTableController {
             }
             
             SetBetCommand cmd = new SetBetCommand(peer.getUserId(), amount);
-            peer.sendCommand(cmd);
-            view.showMessage("Bet placed: $" + amount);
+            // The result arrives on the JavaFX thread, after the updates the bet caused
+            peer.sendCommand(cmd).thenAccept(result -> {
+                if (result.isAccepted()) {
+                    view.showMessage("Bet placed: $" + amount);
+                } else {
+                    view.showMessage("Bet rejected: " + result.error());
+                }
+            });
         } catch (Exception e) {
             view.showMessage("Error: " + e.getMessage());
         }
@@ -119,8 +135,7 @@ public class MultiplayerTableController {
     private void handleHit() {
         try {
             HitCommand cmd = new HitCommand(peer.getUserId());
-            peer.sendCommand(cmd);
-            view.showMessage("Hit!");
+            peer.sendCommand(cmd).thenAccept(result -> showIfRejected("Hit", result));
         } catch (Exception e) {
             view.showMessage("Error: " + e.getMessage());
         }
@@ -129,13 +144,22 @@ public class MultiplayerTableController {
     private void handleStand() {
         try {
             StandCommand cmd = new StandCommand(peer.getUserId());
-            peer.sendCommand(cmd);
-            view.showMessage("Standing...");
+            peer.sendCommand(cmd).thenAccept(result -> showIfRejected("Stand", result));
         } catch (Exception e) {
             view.showMessage("Error: " + e.getMessage());
         }
     }
 
+    /**
+     * An accepted hit or stand is already shown by its broadcast
+     * (PLAYER_HIT, PLAYER_STAND, ROUND_ENDED), so only a NACK needs a message
+     */
+    private void showIfRejected(String action, CommandResult result) {
+        if (!result.isAccepted()) {
+            view.showMessage(action + " rejected: " + result.error());
+        }
+    }
+
     private void handleStartRound() {
         if (isHost && host != null) {
             try {
@@ -149,123 +173,130 @@ public class MultiplayerTableController {
         }
     }
 
+    /**
+     * Runs on the JavaFX thread: ClientPeer dispatches each frame from the
+     * host, with every update in it, as a single Platform.runLater task
+     */
     private void handleGameUpdate(GameUpdateMessage message) {
-        javafx.application.Platform.runLater(() -> {
-            switch (message.getType()) {
-                case PLAYERS_LIST:
-                    // Received list of existing players
-                    view.showMessage("Connected! Loading players...");
-                    updateUI();
-                    break;
-                    
-                case PLAYER_JOINED:
-                    view.showMessage( message.getData() + " joined the game!");
-                    peer.requestGameState();
-                    updateUI();
-                    break;
-
-                case PLAYER_LEFT:
-                    view.showMessage(message.getData() + " left the game");
-                    view.removePlayer((String) message.getData());
-                    break;
-
-                case BET_PLACED:
-                    view.showMessage(message.getData() + " placed their bet");
-                    break;
-
-                case ROUND_STARTED:
-                    roundInProgress = true;
-                    view.showMessage("Round started! Place your bets.");
-                    view.setTurnIndicator("BETTING PHASE - All players place bets!");
-                    peer.requestGameState();
-                    updateUI();
-                    break;
-
-                case PLAYER_HIT:
-                    view.showMessage(message.getData() + " drew a card (HIT)");
-                    peer.requestGameState();
-                    updateUI();
-                    break;
-
-                case PLAYER_STAND:
-                    view.showMessage(message.getData() + " stands");
-                    break;
+        switch (message.getType()) {
+            case PLAYERS_LIST:
+                // Received list of existing players
+                view.showMessage("Connected! Loading players...");
+                updateUI();
+                break;
                 
-                case TURN_CHANGED:
-                    // Turn has changed - update UI to reflect whose turn
-                    updateUI();
-                    break;
-
-                case DEALER_TURN:
-                    view.showMessage("Dealer's turn...");
-                    view.setTurnIndicator("DEALER'S TURN");
-                    peer.requestGameState();
-                    updateUI();
-                    break;
-
-                case ROUND_ENDED:
-                    roundInProgress = false;
-                    @SuppressWarnings("unchecked")
-                    Map<String, model.GameResult> results = 
-                        (Map<String, model.GameResult>) message.getData();
-                    
-                    if (results.containsKey(peer.getUserId())) {
-                        model.GameResult result = results.get(peer.getUserId());
-                        String emoji = getResultEmoji(result);
-                        view.showMessage(emoji + " Round ended! You: " + result);
-                        view.setTurnIndicator(emoji + " Result: " + result);
-                    } else {
-                        view.showMessage("Round ended! Check results.");
-                        view.setTurnIndicator("Round Over");
-                    }
-                    peer.requestGameState();
-                    updateUI();
-                    break;
-                    
-                case SPECTATOR_MODE:
-                    view.showMessage("⏸️ You joined mid-game. You'll play in the next round!");
-                    view.setTurnIndicator("SPECTATING - Waiting for next round...");
-                    updateUI();
-                    break;
-
-                case GAME_STATE_UPDATE:
-                    updateUI();
-                    break;
-                    
-                case HOST_DISCONNECTED:
-                    // Host has disconnected - show error and return to menu (only for non-host players)
-                    if (!isHost) {
-                        javafx.scene.control.Alert alert = new javafx.scene.control.Alert(
-                            javafx.scene.control.Alert.AlertType.ERROR
-                        );
-                        alert.setTitle("Host Disconnected");
-                        alert.setHeaderText("Connection Lost");
-                        alert.setContentText("The host has disconnected from the game. Returning to menu...");
-                        alert.showAndWait();
-                    }
-                    
-                    // Return to menu
-                    peer.disconnect();
-                    router.showMenu();
-                    break;
-                    
-                case STRATEGY_CHANGED:
-                    // Host has changed the game strategy - only update for non-host clients
-                    if (!isHost) {
-                        String strategyName = (String) message.getData();
-                        BlackjackStrategy newStrategy = StrategyFactory.getStrategy(strategyName);
-                        if (newStrategy != null) {
-                            view.getStrategySelector().setStrategy(strategyName);
-                            view.showMessage("⚙️ Strategy changed to: " + strategyName);
-                            System.out.println("[CLIENT] Strategy updated to: " + strategyName);
-                        }
+            case PLAYER_JOINED:
+                view.showMessage( message.getData() + " joined the game!");
+                updateUI();
+                break;
+
+            case PLAYER_LEFT:
+                view.showMessage(message.getData() + " left the game");
+                view.removePlayer((String) message.getData());
+                break;
+
+            case BET_PLACED:
+                view.showMessage(message.getData() + " placed their bet");
+                break;
+
+            case ROUND_STARTED:
+                roundInProgress = true;
+                view.showMessage("Round started! Place your bets.");
+                view.setTurnIndicator("BETTING PHASE - All players place bets!");
+                updateUI();
+                break;
+
+            case PLAYER_HIT:
+                view.showMessage(message.getData() + " drew a card (HIT)");
+                updateUI();
+                break;
+
+            case PLAYER_STAND:
+                view.showMessage(message.getData() + " stands");
+                break;
+            
+            case TURN_CHANGED:
+                // Turn has changed - update UI to reflect whose turn
+                updateUI();
+                break;
+
+            case DEALER_TURN:
+                view.showMessage("Dealer's turn...");
+                view.setTurnIndicator("DEALER'S TURN");
+                updateUI();
+                break;
+
+            case ROUND_ENDED:
+                roundInProgress = false;
+                @SuppressWarnings("unchecked")
+                Map<String, model.GameResult> results = 
+                    (Map<String, model.GameResult>) message.getData();
+                
+                if (results.containsKey(peer.getUserId())) {
+                    model.GameResult result = results.get(peer.getUserId());
+                    String emoji = getResultEmoji(result);
+                    view.showMessage(emoji + " Round ended! You: " + result);
+                    view.setTurnIndicator(emoji + " Result: " + result);
+                } else {
+                    view.showMessage("Round ended! Check results.");
+                    view.setTurnIndicator("Round Over");
+                }
+                updateUI();
+                break;
+                
+            case SPECTATOR_MODE:
+                view.showMessage("⏸️ You joined mid-game. You'll play in the next round!");
+                view.setTurnIndicator("SPECTATING - Waiting for next round...");
+                updateUI();
+                break;
+
+            case STATE_SNAPSHOT:
+                // Full table on join or resync: phase and strategy come with it
+                roundInProgress = peer.isRoundInProgress();
+                if (!isHost && peer.getStrategyName() != null) {
+                    view.getStrategySelector().setStrategy(peer.getStrategyName());
+                }
+                updateUI();
+                break;
+
+            case GAME_STATE_UPDATE:
+            case STATE_DELTA:
+                updateUI();
+                break;
+                
+            case HOST_DISCONNECTED:
+                // Host has disconnected - show error and return to menu (only for non-host players)
+                if (!isHost) {
+                    javafx.scene.control.Alert alert = new javafx.scene.control.Alert(
+                        javafx.scene.control.Alert.AlertType.ERROR
+                    );
+                    alert.setTitle("Host Disconnected");
+                    alert.setHeaderText("Connection Lost");
+                    alert.setContentText("The host has disconnected from the game. Returning to menu...");
+                    alert.showAndWait();
+                }
+                
+                // Return to menu
+                peer.disconnect();
+                router.showMenu();
+                break;
+                
+            case STRATEGY_CHANGED:
+                // Host has changed the game strategy - only update for non-host clients
+                if (!isHost) {
+                    String strategyName = (String) message.getData();
+                    BlackjackStrategy newStrategy = StrategyFactory.getStrategy(strategyName);
+                    if (newStrategy != null) {
+                        view.getStrategySelector().setStrategy(strategyName);
+                        view.showMessage("⚙️ Strategy changed to: " + strategyName);
+                        System.out.println("[CLIENT] Strategy updated to: " + strategyName);
                     }
-                    break;
+                }
+                break;
 
-                default:
-                    break;
-            }
-        });
+            default:
+                break;
+        }
     }
     
     private String getResultEmoji(model.GameResult result) {
@@ -0,0 +1,255 @@
+package loadtest;
+
+import command.Command;
+import command.HitCommand;
+import command.SetBetCommand;
+import command.StandCommand;
+import model.Card;
+import model.HandValue;
+import network.ClientPeer;
+import network.CommandResult;
+import network.GameUpdateMessage;
+import network.StateSnapshot;
+import network.TableState;
+import simulation.PlayerPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless player that bets, hits and stands on its own
+ * 
+ * Wraps a ClientPeer whose updates are handled directly on the listener
+ * thread (no JavaFX). Each command's round trip is measured from sending it
+ * to receiving the host's ACK; a NACK is counted as a rejection, except
+ * one for going over the host's rate limit, which is sent again after a
+ * growing pause.
+ * 
+ * @author Group 12
+ */
+public class BotClient {
+    private static final long RESPONSE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long MIN_BACKOFF_MILLIS = 10;
+    private static final long MAX_BACKOFF_MILLIS = 500;
+    
+    private final ClientPeer peer;
+    private final PlayerPolicy policy;
+    private final int betSize;
+    private final int minThinkMillis;
+    private final int maxThinkMillis;
+    private final ScheduledExecutorService scheduler;
+    private final LoadTestMetrics metrics;
+    private final Runnable onRoundEnded;
+    
+    // Only touched on the peer's listener thread
+    private final TableState table = new TableState();
+    private List<Card> hand = new ArrayList<>();
+    private Card dealerUpCard;
+    private int balance = Integer.MAX_VALUE;
+    private boolean myTurn;
+    private boolean betPlaced;
+    private long backoffMillis = MIN_BACKOFF_MILLIS;
+    
+    // Written by the sending thread, read by the listener thread
+    private volatile GameUpdateMessage.MessageType awaitedResponse;
+    private volatile long sentAtNanos;
+    private volatile boolean awaitingTurnChange;
+    
+    public BotClient(String userId, PlayerPolicy policy, int betSize, int minThinkMillis, int maxThinkMillis,
+                     ScheduledExecutorService scheduler, LoadTestMetrics metrics, Runnable onRoundEnded) {
+        this.peer = new ClientPeer(userId);
+        this.policy = policy;
+        this.betSize = betSize;
+        this.minThinkMillis = minThinkMillis;
+        this.maxThinkMillis = maxThinkMillis;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.onRoundEnded = onRoundEnded;
+        
+        peer.setUpdateDispatcher(Runnable::run);
+        peer.addUpdateListener(this::onUpdate);
+    }
+    
+    public void connect(String hostAddress, int port) {
+        peer.connectToHost(hostAddress, port);
+    }
+    
+    public CompletableFuture<Void> disconnect() {
+        return peer.disconnect();
+    }
+    
+    public boolean isConnected() {
+        return peer.isConnected();
+    }
+    
+    public String getUserId() {
+        return peer.getUserId();
+    }
+    
+    private void onUpdate(GameUpdateMessage message) {
+        checkResponseTimeout();
+        
+        switch (message.getType()) {
+            case ROUND_STARTED -> startBetting();
+            case STATE_SNAPSHOT, STATE_DELTA -> {
+                if (!table.apply(message) && peer.isConnected()) {
+                    peer.requestResync();
+                }
+                if (message.getData() instanceof StateSnapshot snapshot) {
+                    // Joined or resynced mid-hand: the snapshot says whose turn it is
+                    myTurn = getUserId().equals(snapshot.getTable().currentTurn());
+                    if (awaitedResponse == null) {
+                        awaitingTurnChange = false;
+                        if (missedBetting(snapshot)) {
+                            startBetting();
+                        }
+                    }
+                }
+                readState();
+                actIfMyTurn();
+            }
+            case TURN_CHANGED -> {
+                myTurn = getUserId().equals(message.getData());
+                awaitingTurnChange = false;
+                actIfMyTurn();
+            }
+            case ROUND_ENDED -> {
+                myTurn = false;
+                if (onRoundEnded != null) {
+                    onRoundEnded.run();
+                }
+            }
+            case HOST_DISCONNECTED -> metrics.recordDisconnect();
+            default -> {
+                // Other updates don't affect the bot
+            }
+        }
+    }
+    
+    private void startBetting() {
+        hand = new ArrayList<>();
+        dealerUpCard = null;
+        myTurn = false;
+        betPlaced = false;
+        awaitingTurnChange = false;
+        int bet = Math.min(betSize, balance);
+        if (bet > 0) {
+            betPlaced = true;
+            sendAfterThinking(new SetBetCommand(getUserId(), bet), GameUpdateMessage.MessageType.BET_PLACED);
+        }
+    }
+    
+    /**
+     * True when the table is taking bets from us but the ROUND_STARTED that
+     * asked for ours was dropped along with the rest of a backed-up queue
+     */
+    private boolean missedBetting(StateSnapshot snapshot) {
+        StateSnapshot.Table info = snapshot.getTable();
+        return info.phase() == StateSnapshot.Phase.BETTING
+            && !info.spectators().contains(getUserId())
+            && table.getPlayerBets().getOrDefault(getUserId(), 0) == 0;
+    }
+    
+    private void readState() {
+        hand = table.getHand(getUserId());
+        List<Card> dealer = table.getDealerHand();
+        dealerUpCard = dealer.isEmpty() ? null : dealer.get(0);
+        Integer myBalance = table.getBalance(getUserId());
+        if (myBalance != null) {
+            balance = myBalance;
+        }
+    }
+    
+    /**
+     * Play one decision once it is our turn and the dealt cards have arrived
+     * After a hit we wait for the following TURN_CHANGED so we never act twice
+     * on the same hand
+     */
+    private void actIfMyTurn() {
+        if (!myTurn || !betPlaced || awaitingTurnChange || awaitedResponse != null
+                || hand.size() < 2 || dealerUpCard == null) {
+            return;
+        }
+        
+        awaitingTurnChange = true;
+        if (policy.shouldHit(HandValue.of(hand), dealerUpCard)) {
+            sendAfterThinking(new HitCommand(getUserId()), GameUpdateMessage.MessageType.PLAYER_HIT);
+        } else {
+            sendAfterThinking(new StandCommand(getUserId()), GameUpdateMessage.MessageType.PLAYER_STAND);
+        }
+    }
+    
+    private void sendAfterThinking(Command command, GameUpdateMessage.MessageType response) {
+        int thinkMillis = maxThinkMillis > minThinkMillis
+            ? ThreadLocalRandom.current().nextInt(minThinkMillis, maxThinkMillis + 1)
+            : minThinkMillis;
+        // Awaited from now on, so a snapshot arriving while we think doesn't act twice
+        awaitedResponse = response;
+        sentAtNanos = System.nanoTime();
+        if (thinkMillis <= 0) {
+            send(command, response);
+        } else {
+            scheduler.schedule(() -> send(command, response), thinkMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void send(Command command, GameUpdateMessage.MessageType response) {
+        if (!peer.isConnected()) {
+            awaitedResponse = null;
+            return;
+        }
+        awaitedResponse = response;
+        sentAtNanos = System.nanoTime();
+        try {
+            peer.sendCommand(command).thenAccept(result -> onResult(result, command, response));
+            metrics.recordSent();
+        } catch (IllegalStateException e) {
+            awaitedResponse = null;
+        }
+    }
+    
+    /**
+     * ACK or NACK for our last command, on the listener thread
+     */
+    private void onResult(CommandResult result, Command command, GameUpdateMessage.MessageType response) {
+        if (awaitedResponse != response) {
+            // Already given up on it
+            return;
+        }
+        if (result.isRateLimited() && peer.isConnected()) {
+            // Nothing was applied: still awaiting the same response, so the same command goes again
+            scheduler.schedule(() -> send(command, response), backoffMillis, TimeUnit.MILLISECONDS);
+            backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+            metrics.recordRetry();
+            return;
+        }
+        backoffMillis = MIN_BACKOFF_MILLIS;
+        awaitedResponse = null;
+        if (result.isAccepted()) {
+            metrics.recordCommand(response, result.roundTripNanos());
+        } else {
+            // Commands still in flight at disconnect are NACKed locally; not a rejection
+            if (peer.isConnected()) {
+                metrics.recordRejected();
+            }
+            awaitingTurnChange = false;
+        }
+        // The result follows the updates the command caused, which may have made it our turn
+        actIfMyTurn();
+    }
+    
+    /**
+     * Every command is answered, but give up on a reply after a while
+     * (e.g. a stalled connection) rather than waiting forever
+     */
+    private void checkResponseTimeout() {
+        if (awaitedResponse != null && System.nanoTime() - sentAtNanos > RESPONSE_TIMEOUT_NANOS) {
+            awaitedResponse = null;
+            awaitingTurnChange = false;
+            metrics.recordTimeout();
+        }
+    }
+}
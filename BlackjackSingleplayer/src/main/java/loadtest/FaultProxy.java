@@ -0,0 +1,305 @@
+package loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TCP proxy that makes a local connection behave like a bad home one
+ * 
+ * Sits between ClientPeer and DesignatedHost: clients connect to the
+ * proxy, which opens a connection to the host for each of them and
+ * forwards bytes both ways under the conditions of a NetworkScenario.
+ * Each direction of each connection has a reader that timestamps what it
+ * reads (now + latency + random jitter, never earlier than the previous
+ * chunk, so bytes are never reordered) and a writer that sends it when
+ * due, paced to the bandwidth cap. Stalls hold every writer; disconnects
+ * close both sides of randomly chosen connections.
+ * 
+ * @author Group 12
+ */
+public class FaultProxy implements AutoCloseable {
+    private static final int READ_BYTES = 16 * 1024;
+    // Paced writes go out in packet-sized pieces so a big read isn't one burst
+    private static final int PACKET_BYTES = 1460;
+    
+    private final String targetHost;
+    private final int targetPort;
+    private final int listenPort;
+    private final NetworkScenario scenario;
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Link> links = ConcurrentHashMap.newKeySet();
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder cutConnections = new LongAdder();
+    private final LongAdder forwardedBytes = new LongAdder();
+    private ServerSocket listener;
+    private volatile boolean running;
+    private volatile Conditions conditions = new Conditions(0, 0, 0);
+    private volatile long stalledUntilNanos;
+    
+    /**
+     * Conditions currently in force; latency and jitter in nanoseconds
+     */
+    private record Conditions(long latencyNanos, long jitterNanos, long bytesPerSecond) {}
+    
+    /**
+     * @param listenPort port to accept clients on, 0 for any free one
+     */
+    public FaultProxy(String targetHost, int targetPort, int listenPort, NetworkScenario scenario) {
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        this.listenPort = listenPort;
+        this.scenario = scenario;
+    }
+    
+    /**
+     * Start accepting clients and start the scenario's clock
+     * @return the port clients should connect to
+     */
+    public int start() throws IOException {
+        listener = new ServerSocket(listenPort);
+        running = true;
+        threads.execute(this::acceptClients);
+        threads.execute(this::runScenario);
+        return listener.getLocalPort();
+    }
+    
+    public int getPort() {
+        return listener.getLocalPort();
+    }
+    
+    private void acceptClients() {
+        while (running) {
+            try {
+                Socket client = listener.accept();
+                Socket host;
+                try {
+                    host = new Socket(targetHost, targetPort);
+                } catch (IOException e) {
+                    System.err.println("[PROXY] Cannot reach " + targetHost + ":" + targetPort + ": " + e.getMessage());
+                    closeQuietly(client);
+                    continue;
+                }
+                client.setTcpNoDelay(true);
+                host.setTcpNoDelay(true);
+                connections.increment();
+                Link link = new Link(client, host);
+                links.add(link);
+                link.start();
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("[PROXY] Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Apply each step of the scenario when its time comes
+     */
+    private void runScenario() {
+        long startedAt = System.nanoTime();
+        try {
+            for (NetworkScenario.Step step : scenario.getSteps()) {
+                sleepUntil(startedAt + TimeUnit.MILLISECONDS.toNanos(step.atMillis()));
+                if (!running) {
+                    return;
+                }
+                apply(step);
+            }
+        } catch (InterruptedException e) {
+            // Closed
+        }
+    }
+    
+    private void apply(NetworkScenario.Step step) {
+        Conditions current = conditions;
+        long nanos = TimeUnit.MILLISECONDS.toNanos(step.value());
+        switch (step.setting()) {
+            case LATENCY -> conditions = new Conditions(nanos, current.jitterNanos(), current.bytesPerSecond());
+            case JITTER -> conditions = new Conditions(current.latencyNanos(), nanos, current.bytesPerSecond());
+            case BANDWIDTH -> conditions = new Conditions(current.latencyNanos(), current.jitterNanos(), step.value());
+            case STALL -> stalledUntilNanos = System.nanoTime() + nanos;
+            case DISCONNECT -> disconnect(step.value());
+        }
+        System.out.println("[PROXY] " + step.setting().name().toLowerCase() + " " + step.value()
+            + (step.setting() == NetworkScenario.Setting.BANDWIDTH ? " B/s"
+                : step.setting() == NetworkScenario.Setting.DISCONNECT ? "%" : "ms"));
+    }
+    
+    /**
+     * Close both sides of a random share of the open connections
+     */
+    private void disconnect(long percent) {
+        List<Link> open = new ArrayList<>(links);
+        Collections.shuffle(open);
+        int count = (int) Math.round(open.size() * percent / 100.0);
+        for (Link link : open.subList(0, count)) {
+            cutConnections.increment();
+            link.close();
+        }
+    }
+    
+    /**
+     * One client's connection through the proxy
+     */
+    private final class Link {
+        private final Socket client;
+        private final Socket host;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        
+        Link(Socket client, Socket host) {
+            this.client = client;
+            this.host = host;
+        }
+        
+        void start() throws IOException {
+            pipe(client.getInputStream(), host.getOutputStream());
+            pipe(host.getInputStream(), client.getOutputStream());
+        }
+        
+        /**
+         * Forward one direction: a reader that stamps chunks with when they
+         * are due, and a writer that sends them then
+         */
+        private void pipe(InputStream in, OutputStream out) {
+            BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+            threads.execute(() -> {
+                byte[] buffer = new byte[READ_BYTES];
+                long lastDue = 0;
+                try {
+                    int read;
+                    while ((read = in.read(buffer)) >= 0) {
+                        Conditions now = conditions;
+                        long jitter = now.jitterNanos() > 0 ? ThreadLocalRandom.current().nextLong(now.jitterNanos()) : 0;
+                        long due = Math.max(System.nanoTime() + now.latencyNanos() + jitter, lastDue);
+                        lastDue = due;
+                        queue.add(new Chunk(Arrays.copyOf(buffer, read), due));
+                    }
+                } catch (IOException e) {
+                    // Closed by the other side, or cut
+                }
+                queue.add(Chunk.END);
+            });
+            threads.execute(() -> {
+                long nextFree = 0;
+                try {
+                    while (true) {
+                        Chunk chunk = queue.take();
+                        if (chunk == Chunk.END) {
+                            break;
+                        }
+                        sleepUntil(chunk.dueNanos());
+                        for (int offset = 0; offset < chunk.data().length; offset += PACKET_BYTES) {
+                            sleepUntil(stalledUntilNanos);
+                            int length = Math.min(PACKET_BYTES, chunk.data().length - offset);
+                            long rate = conditions.bytesPerSecond();
+                            if (rate > 0) {
+                                long sendAt = Math.max(System.nanoTime(), nextFree);
+                                sleepUntil(sendAt);
+                                nextFree = sendAt + length * 1_000_000_000L / rate;
+                            }
+                            out.write(chunk.data(), offset, length);
+                            forwardedBytes.add(length);
+                        }
+                        out.flush();
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // Closed
+                }
+                close();
+            });
+        }
+        
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                links.remove(this);
+                closeQuietly(client);
+                closeQuietly(host);
+            }
+        }
+    }
+    
+    private record Chunk(byte[] data, long dueNanos) {
+        static final Chunk END = new Chunk(new byte[0], 0);
+    }
+    
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long wait = nanoTime - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+    
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+    
+    public long getConnections() {
+        return connections.sum();
+    }
+    
+    public long getCutConnections() {
+        return cutConnections.sum();
+    }
+    
+    public long getForwardedBytes() {
+        return forwardedBytes.sum();
+    }
+    
+    /**
+     * Stop accepting and close every connection
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (listener != null) {
+            try {
+                listener.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+        for (Link link : links) {
+            link.close();
+        }
+        threads.shutdownNow();
+    }
+    
+    /**
+     * Totals over several proxies, e.g. one per load test table
+     */
+    public static String report(NetworkScenario scenario, List<FaultProxy> proxies) {
+        long accepted = 0;
+        long cut = 0;
+        long bytes = 0;
+        for (FaultProxy proxy : proxies) {
+            accepted += proxy.getConnections();
+            cut += proxy.getCutConnections();
+            bytes += proxy.getForwardedBytes();
+        }
+        return String.format("Scenario:         %s%n"
+            + "Proxied:          %d connections (%d cut by the scenario), %.1f KB forwarded",
+            scenario, accepted, cut, bytes / 1024.0);
+    }
+}
@@ -0,0 +1,57 @@
+package loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples (nanoseconds) and reports percentiles
+ * Every sample is kept, so percentiles are exact
+ * 
+ * @author Group 12
+ */
+public class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+    
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+    
+    public synchronized int getCount() {
+        return count;
+    }
+    
+    /**
+     * Sorted copy of the samples recorded so far
+     */
+    public synchronized long[] snapshot() {
+        long[] copy = Arrays.copyOf(samples, count);
+        Arrays.sort(copy);
+        return copy;
+    }
+    
+    /**
+     * Nearest-rank percentile of sorted samples, in milliseconds
+     */
+    public static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))] / 1_000_000.0;
+    }
+    
+    /**
+     * One-line summary: count, p50, p90, p99, p99.9 and max
+     */
+    public String summary() {
+        long[] sorted = snapshot();
+        return String.format("n=%-9d p50=%7.2fms p90=%7.2fms p99=%7.2fms p99.9=%7.2fms max=%7.2fms",
+            sorted.length,
+            percentileMillis(sorted, 50), percentileMillis(sorted, 90),
+            percentileMillis(sorted, 99), percentileMillis(sorted, 99.9),
+            percentileMillis(sorted, 100));
+    }
+}
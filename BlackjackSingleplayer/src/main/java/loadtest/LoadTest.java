@@ -0,0 +1,197 @@
+package loadtest;
+
+import network.DesignatedHost;
+import network.ServerMode;
+import simulation.PlayerPolicy;
+import strategy.BlackjackStrategy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a swarm of headless bots against in-process DesignatedHost tables
+ * 
+ * Each table gets its own host and a driver thread that plays the part of
+ * the hosting player: it starts a round, waits for ROUND_ENDED, pauses and
+ * starts the next one. Bots are spread evenly over the tables. With a
+ * NetworkScenario, each table's bots connect through a FaultProxy that
+ * plays it.
+ * 
+ * @author Group 12
+ */
+public class LoadTest {
+    private static final long ROUND_STALL_SECONDS = 30;
+    
+    private final BlackjackStrategy strategy;
+    private final PlayerPolicy policy;
+    private final int botCount;
+    private final int tableCount;
+    private final int betSize;
+    private final int minThinkMillis;
+    private final int maxThinkMillis;
+    private final int roundPauseMillis;
+    private final ServerMode serverMode;
+    private final NetworkScenario scenario;
+    private final LoadTestMetrics metrics = new LoadTestMetrics();
+    
+    private final List<DesignatedHost> hosts = new ArrayList<>();
+    private final List<FaultProxy> proxies = new ArrayList<>();
+    private final List<BotClient> bots = new ArrayList<>();
+    private final List<Thread> drivers = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    
+    public LoadTest(BlackjackStrategy strategy, PlayerPolicy policy, int botCount, int tableCount, int betSize,
+                    int minThinkMillis, int maxThinkMillis, int roundPauseMillis, ServerMode serverMode) {
+        this(strategy, policy, botCount, tableCount, betSize, minThinkMillis, maxThinkMillis, roundPauseMillis,
+            serverMode, null);
+    }
+    
+    /**
+     * @param scenario network conditions between bots and hosts, or null for a direct connection
+     */
+    public LoadTest(BlackjackStrategy strategy, PlayerPolicy policy, int botCount, int tableCount, int betSize,
+                    int minThinkMillis, int maxThinkMillis, int roundPauseMillis, ServerMode serverMode,
+                    NetworkScenario scenario) {
+        if (botCount < tableCount || tableCount < 1) {
+            throw new IllegalArgumentException("Need at least one table and one bot per table");
+        }
+        this.strategy = strategy;
+        this.policy = policy;
+        this.botCount = botCount;
+        this.tableCount = tableCount;
+        this.betSize = betSize;
+        this.minThinkMillis = minThinkMillis;
+        this.maxThinkMillis = maxThinkMillis;
+        this.roundPauseMillis = roundPauseMillis;
+        this.serverMode = serverMode;
+        this.scenario = scenario;
+    }
+    
+    /**
+     * Start the hosts, connect every bot and start dealing
+     */
+    public void start() {
+        running = true;
+        scheduler = Executors.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "bot-think");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        for (int t = 0; t < tableCount; t++) {
+            DesignatedHost host = new DesignatedHost("loadtest-host-" + t, "Load Test " + t, strategy, serverMode);
+            hosts.add(host);
+            int port = host.getPort();
+            if (scenario != null) {
+                FaultProxy proxy = new FaultProxy("localhost", port, 0, scenario);
+                try {
+                    port = proxy.start();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot start proxy for " + host.getHostId(), e);
+                }
+                proxies.add(proxy);
+            }
+            
+            Semaphore roundEnded = new Semaphore(0);
+            int seats = botCount / tableCount + (t < botCount % tableCount ? 1 : 0);
+            for (int s = 0; s < seats; s++) {
+                // The first bot at each table tells the driver when a round is over
+                Runnable onRoundEnded = s == 0 ? roundEnded::release : null;
+                BotClient bot = new BotClient("bot-" + t + "-" + s, policy, betSize, minThinkMillis, maxThinkMillis,
+                    scheduler, metrics, onRoundEnded);
+                bot.connect("localhost", port);
+                bots.add(bot);
+            }
+            
+            Thread driver = new Thread(() -> driveTable(host, seats, roundEnded), "table-driver-" + t);
+            driver.setDaemon(true);
+            drivers.add(driver);
+        }
+        
+        for (Thread driver : drivers) {
+            driver.start();
+        }
+    }
+    
+    /**
+     * Deal rounds at one table until the test is stopped
+     */
+    private void driveTable(DesignatedHost host, int seats, Semaphore roundEnded) {
+        try {
+            // Wait for the host to register every bot before the first deal
+            while (running && host.getConnectedClientCount() < seats) {
+                Thread.sleep(10);
+            }
+            
+            while (running) {
+                long startedAt = System.nanoTime();
+                host.startRound();
+                if (roundEnded.tryAcquire(ROUND_STALL_SECONDS, TimeUnit.SECONDS)) {
+                    metrics.recordRound(System.nanoTime() - startedAt);
+                } else {
+                    System.err.println("[LOADTEST] Round stalled at " + host.getHostId() + ", stopping this table");
+                    metrics.recordStalledRound();
+                    return;
+                }
+                if (roundPauseMillis > 0) {
+                    Thread.sleep(roundPauseMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            System.err.println("[LOADTEST] Driver for " + host.getHostId() + " failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Stop dealing, disconnect the bots and shut the hosts down
+     */
+    public void stop() {
+        running = false;
+        for (Thread driver : drivers) {
+            driver.interrupt();
+        }
+        List<CompletableFuture<Void>> stopping = new ArrayList<>();
+        for (BotClient bot : bots) {
+            stopping.add(bot.disconnect());
+        }
+        for (DesignatedHost host : hosts) {
+            stopping.add(host.shutdown());
+        }
+        // Not on the JavaFX thread, so wait for the teardown as before
+        CompletableFuture.allOf(stopping.toArray(CompletableFuture[]::new)).join();
+        for (FaultProxy proxy : proxies) {
+            proxy.close();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+    
+    /**
+     * Totals from the scenario's proxies, or null without a scenario
+     */
+    public String getNetworkReport() {
+        return scenario != null ? FaultProxy.report(scenario, proxies) : null;
+    }
+    
+    public LoadTestMetrics getMetrics() {
+        return metrics;
+    }
+    
+    public int getTableCount() {
+        return tableCount;
+    }
+    
+    public int getBotCount() {
+        return botCount;
+    }
+}
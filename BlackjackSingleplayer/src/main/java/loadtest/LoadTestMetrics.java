@@ -0,0 +1,105 @@
+package loadtest;
+
+import network.GameUpdateMessage;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared counters and latency recorders for one load test run
+ * 
+ * @author Group 12
+ */
+public class LoadTestMetrics {
+    private final Map<GameUpdateMessage.MessageType, LatencyRecorder> commandLatency =
+        new EnumMap<>(GameUpdateMessage.MessageType.class);
+    private final LatencyRecorder allCommands = new LatencyRecorder();
+    private final LatencyRecorder roundDuration = new LatencyRecorder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder stalledRounds = new LongAdder();
+    
+    public LoadTestMetrics() {
+        commandLatency.put(GameUpdateMessage.MessageType.BET_PLACED, new LatencyRecorder());
+        commandLatency.put(GameUpdateMessage.MessageType.PLAYER_HIT, new LatencyRecorder());
+        commandLatency.put(GameUpdateMessage.MessageType.PLAYER_STAND, new LatencyRecorder());
+    }
+    
+    public void recordCommand(GameUpdateMessage.MessageType response, long nanos) {
+        commandLatency.get(response).record(nanos);
+        allCommands.record(nanos);
+    }
+    
+    public void recordRound(long nanos) {
+        rounds.increment();
+        roundDuration.record(nanos);
+    }
+    
+    public void recordSent() {
+        sent.increment();
+    }
+    
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+    
+    public void recordRejected() {
+        rejected.increment();
+    }
+    
+    /**
+     * A command NACKed for going over the host's rate limit, to be sent again
+     */
+    public void recordRetry() {
+        retries.increment();
+    }
+    
+    public void recordDisconnect() {
+        disconnects.increment();
+    }
+    
+    public void recordStalledRound() {
+        stalledRounds.increment();
+    }
+    
+    public long getRounds() {
+        return rounds.sum();
+    }
+    
+    public long getSent() {
+        return sent.sum();
+    }
+    
+    public LatencyRecorder getAllCommands() {
+        return allCommands;
+    }
+    
+    /**
+     * Multi-line report of everything recorded so far
+     */
+    public String report(double elapsedSeconds, int tables) {
+        StringBuilder sb = new StringBuilder();
+        double minutes = elapsedSeconds / 60.0;
+        long roundCount = rounds.sum();
+        sb.append(String.format("Elapsed:          %.1fs%n", elapsedSeconds));
+        sb.append(String.format("Commands sent:    %d (%.1f/s)%n", sent.sum(), sent.sum() / elapsedSeconds));
+        sb.append(String.format("Rounds:           %d (%.1f/min total, %.1f/min per table)%n",
+            roundCount, roundCount / minutes, roundCount / minutes / tables));
+        sb.append("Round duration:   ").append(roundDuration.summary()).append(System.lineSeparator());
+        sb.append("Command latency:  ").append(allCommands.summary()).append(System.lineSeparator());
+        sb.append("  bet:            ")
+            .append(commandLatency.get(GameUpdateMessage.MessageType.BET_PLACED).summary()).append(System.lineSeparator());
+        sb.append("  hit:            ")
+            .append(commandLatency.get(GameUpdateMessage.MessageType.PLAYER_HIT).summary()).append(System.lineSeparator());
+        sb.append("  stand:          ")
+            .append(commandLatency.get(GameUpdateMessage.MessageType.PLAYER_STAND).summary()).append(System.lineSeparator());
+        sb.append(String.format("Rejected (NACK): %d, rate limited and retried: %d%n", rejected.sum(), retries.sum()));
+        sb.append(String.format("Timeouts:         %d, stalled rounds: %d, disconnects: %d",
+            timeouts.sum(), stalledRounds.sum(), disconnects.sum()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,184 @@
+package loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A timed script of network conditions for FaultProxy
+ * 
+ * A scenario file has one step per line: the time it takes effect (from
+ * the start of the run), a setting and its value. Blank lines and text
+ * after '#' are ignored, so files are easy to write by hand or generate
+ * from a shell script:
+ * 
+ *   # home Wi-Fi that drops out
+ *   0s    latency     40ms      # added in each direction
+ *   0s    jitter      15ms      # random extra delay, never reorders bytes
+ *   0s    bandwidth   2mbit     # per connection and direction; "off" for none
+ *   20s   stall       1500ms    # hold all traffic, like a burst of lost packets
+ *   40s   disconnect  25%       # cut a quarter of the open connections
+ * 
+ * Latency, jitter and bandwidth stay in force until changed; stall and
+ * disconnect happen once.
+ * 
+ * @author Group 12
+ */
+public final class NetworkScenario {
+    
+    public enum Setting {
+        LATENCY,
+        JITTER,
+        BANDWIDTH, // Bytes per second, 0 for unlimited
+        STALL,
+        DISCONNECT // Percent of open connections
+    }
+    
+    /**
+     * One line of the script; durations are in milliseconds
+     */
+    public record Step(long atMillis, Setting setting, long value) {}
+    
+    private final String name;
+    private final List<Step> steps;
+    
+    public NetworkScenario(String name, List<Step> steps) {
+        this.name = name;
+        List<Step> sorted = new ArrayList<>(steps);
+        sorted.sort(Comparator.comparingLong(Step::atMillis));
+        this.steps = List.copyOf(sorted);
+    }
+    
+    /**
+     * Read a scenario file
+     * @throws IllegalArgumentException naming the line if a step is malformed
+     */
+    public static NetworkScenario load(Path file) throws IOException {
+        return parse(file.getFileName().toString(), Files.readAllLines(file));
+    }
+    
+    public static NetworkScenario parse(String name, List<String> lines) {
+        List<Step> steps = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException(name + ":" + (i + 1) + ": expected '<time> <setting> <value>'");
+            }
+            try {
+                steps.add(parseStep(fields));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(name + ":" + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return new NetworkScenario(name, steps);
+    }
+    
+    private static Step parseStep(String[] fields) {
+        long at = parseMillis(fields[0]);
+        Setting setting;
+        try {
+            setting = Setting.valueOf(fields[1].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown setting '" + fields[1] + "'");
+        }
+        long value = switch (setting) {
+            case LATENCY, JITTER, STALL -> parseMillis(fields[2]);
+            case BANDWIDTH -> parseBandwidth(fields[2]);
+            case DISCONNECT -> parsePercent(fields[2]);
+        };
+        return new Step(at, setting, value);
+    }
+    
+    /**
+     * "250ms", "1.5s" or a bare number of milliseconds
+     */
+    static long parseMillis(String text) {
+        String value = text.toLowerCase(Locale.ROOT);
+        double scale = 1;
+        if (value.endsWith("ms")) {
+            value = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("s")) {
+            value = value.substring(0, value.length() - 1);
+            scale = 1000;
+        }
+        double millis = parseNumber(value, text) * scale;
+        if (millis < 0) {
+            throw new IllegalArgumentException("negative duration '" + text + "'");
+        }
+        return Math.round(millis);
+    }
+    
+    /**
+     * "512kbit", "2mbit", "64kB", "1MB" or "off", as bytes per second
+     */
+    static long parseBandwidth(String text) {
+        String value = text.toLowerCase(Locale.ROOT);
+        if (value.equals("off")) {
+            return 0;
+        }
+        String[][] units = {{"kbit", "125"}, {"mbit", "125000"}, {"kb", "1000"}, {"mb", "1000000"}};
+        for (String[] unit : units) {
+            if (value.endsWith(unit[0])) {
+                double rate = parseNumber(value.substring(0, value.length() - unit[0].length()), text);
+                if (rate <= 0) {
+                    throw new IllegalArgumentException("bandwidth must be positive or 'off'");
+                }
+                return Math.max(1, Math.round(rate * Long.parseLong(unit[1])));
+            }
+        }
+        throw new IllegalArgumentException("bandwidth '" + text + "' needs a unit: kbit, mbit, kB or MB");
+    }
+    
+    static long parsePercent(String text) {
+        String value = text.endsWith("%") ? text.substring(0, text.length() - 1) : text;
+        double percent = parseNumber(value, text);
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("percentage out of range '" + text + "'");
+        }
+        return Math.round(percent);
+    }
+    
+    private static double parseNumber(String value, String original) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a number '" + original + "'");
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Every step, earliest first
+     */
+    public List<Step> getSteps() {
+        return steps;
+    }
+    
+    /**
+     * Seconds from the start to the last step
+     */
+    public double getLengthSeconds() {
+        return steps.isEmpty() ? 0 : steps.get(steps.size() - 1).atMillis() / 1000.0;
+    }
+    
+    @Override
+    public String toString() {
+        return name + " (" + steps.size() + " steps over " + getLengthSeconds() + "s)";
+    }
+}
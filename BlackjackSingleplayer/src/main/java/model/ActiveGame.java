@@ -7,7 +7,7 @@ package model;
  */
 public class ActiveGame {
 
-    private final Deck deck = new Deck();
+    private final Deck deck;
     private final Hand playerHand = new Hand();
     private final Hand dealerHand = new Hand();
     private final Balance playerBalance = new Balance(10_000);
@@ -18,6 +18,14 @@ public class ActiveGame {
     private boolean playerTurn = false;
     private GameResult lastResult = GameResult.NONE;
 
+    public ActiveGame() {
+        this(ShoeConfig.DEFAULT);
+    }
+
+    public ActiveGame(ShoeConfig shoeConfig) {
+        this.deck = new Deck(shoeConfig);
+    }
+
     public void startNewRound(int betAmount) {
         if (isGameOver()) {
             throw new IllegalStateException("No funds left. Game over.");
@@ -41,6 +49,9 @@ public class ActiveGame {
         dealerHand.clear();
         lastResult = GameResult.NONE;
 
+        // shuffle between rounds once the cut card has come out (player and dealer)
+        deck.reshuffleIfNeeded(2);
+
         // deal initial cards: player, dealer, player, dealer(hidden)
         playerHand.add(new CardInPlay(deck.deal(), true));
         dealerHand.add(new CardInPlay(deck.deal(), true));
@@ -151,6 +162,10 @@ public class ActiveGame {
         return totalCalc.compute(dealerHand);
     }
 
+    public ShoeConfig getShoeConfig() {
+        return deck.getConfig();
+    }
+
     public int getBalance() {
         return playerBalance.amount();
     }
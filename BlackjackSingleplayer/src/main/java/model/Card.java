@@ -10,6 +10,23 @@ import java.io.Serializable;
 public class Card implements Serializable {
     private static final long serialVersionUID = 1L;
     
+    private static final int RANK_COUNT = Rank.values().length;
+    
+    /** Number of distinct cards (and ordinals) in a standard deck */
+    public static final int DECK_SIZE = Suit.values().length * RANK_COUNT;
+    
+    // Shared immutable instances, indexed by ordinal, so dealing never allocates
+    private static final Card[] BY_ORDINAL = new Card[DECK_SIZE];
+    
+    static {
+        for (Suit s : Suit.values()) {
+            for (Rank r : Rank.values()) {
+                Card card = new Card(s, r);
+                BY_ORDINAL[card.ordinal()] = card;
+            }
+        }
+    }
+    
     private final Suit suit;
     private final Rank rank;
 
@@ -17,6 +34,20 @@ public class Card implements Serializable {
         this.suit = suit;
         this.rank = rank;
     }
+    
+    /**
+     * Get the shared card for an ordinal (0-51)
+     */
+    public static Card fromOrdinal(int ordinal) {
+        return BY_ORDINAL[ordinal];
+    }
+    
+    /**
+     * Compact encoding of this card: suit * 13 + rank (0-51)
+     */
+    public int ordinal() {
+        return suit.ordinal() * RANK_COUNT + rank.ordinal();
+    }
 
     public Suit suit() {
         return suit;
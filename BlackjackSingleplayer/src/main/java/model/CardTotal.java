@@ -6,22 +6,10 @@ package model;
  */
 public class CardTotal {
 
+    /**
+     * Best total of the visible cards (Aces count 1 or 11)
+     */
     public int compute(Hand hand) {
-        int total = 0;
-        int aces = 0;
-
-        for (CardInPlay cip : hand.cards()) {
-            if (!cip.isVisible()) continue;
-            Card c = cip.card();
-            total += c.baseValue();
-            if (c.rank() == Rank.ACE) aces++;
-        }
-
-        // downgrade aces from 11 to 1 if busting
-        while (total > 21 && aces > 0) {
-            total -= 10;
-            aces--;
-        }
-        return total;
+        return hand.visibleValue().bestTotal();
     }
-}
\ No newline at end of file
+}
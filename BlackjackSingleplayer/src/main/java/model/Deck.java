@@ -1,40 +1,159 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 /**
  * MVC PATTERN: This is a Model (game entity)
+ * 
+ * A shoe of one or more decks (see ShoeConfig). Cards are stored as byte
+ * ordinals (see Card.ordinal()) and shuffled in place, so reset(), shuffle()
+ * and deal() do not allocate and deal() is O(1) for any number of decks.
+ * 
+ * The shoe is only reshuffled between rounds, once the cut card has been
+ * reached or when the cards left might not last the round (see
+ * reshuffleIfNeeded()).
  *
  * @author Bridjet Walker
  */
 public class Deck {
-    private final List<Card> cards = new ArrayList<>();
-    private final Random random = new Random();
+    // Value class (see Rank.valueClass()) of every card ordinal
+    private static final byte[] VALUE_CLASS = new byte[Card.DECK_SIZE];
+    
+    static {
+        for (int i = 0; i < Card.DECK_SIZE; i++) {
+            VALUE_CLASS[i] = (byte) Card.fromOrdinal(i).rank().valueClass();
+        }
+    }
+    
+    private final ShoeConfig config;
+    private final byte[] cards;
+    private final int cutCardPosition;
+    private final SplittableRandom random;
+    private final int[] valueCounts = new int[Rank.VALUE_CLASSES]; // undealt cards per value class
+    private int remaining; // cards[0..remaining) are still in the shoe, top at remaining - 1
 
     public Deck() {
+        this(ShoeConfig.DEFAULT);
+    }
+    
+    public Deck(ShoeConfig config) {
+        this(config, new SplittableRandom());
+    }
+    
+    /**
+     * Create a shoe with a fixed seed (reproducible shuffles)
+     */
+    public Deck(ShoeConfig config, long seed) {
+        this(config, new SplittableRandom(seed));
+    }
+    
+    private Deck(ShoeConfig config, SplittableRandom random) {
+        this.config = config;
+        this.cards = new byte[config.getCardCount()];
+        this.cutCardPosition = config.getCutCardPosition();
+        this.random = random;
         reset();
     }
 
+    /**
+     * Put every card back in the shoe and shuffle
+     */
     public final void reset() {
-        cards.clear();
-        for (Suit s : Suit.values()) {
-            for (Rank r : Rank.values()) {
-                cards.add(new Card(s, r));
-            }
+        Arrays.fill(valueCounts, 0);
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = (byte) (i % Card.DECK_SIZE);
+            valueCounts[VALUE_CLASS[cards[i]]]++;
         }
+        remaining = cards.length;
         shuffle();
     }
 
+    /**
+     * Shuffle the cards remaining in the shoe (Fisher-Yates, in place)
+     */
     public void shuffle() {
-        Collections.shuffle(cards, random);
+        for (int i = remaining - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+    
+    /**
+     * Check if the cut card has come out
+     */
+    public boolean needsReshuffle() {
+        return cards.length - remaining >= cutCardPosition;
+    }
+    
+    /**
+     * Reshuffle the whole shoe if the cut card has come out, or if the
+     * cards left might run out during a round of this many hands
+     * Call between rounds, never during a deal
+     * @param hands hands in the round, the dealer's included
+     * @return true if the shoe was reshuffled
+     */
+    public boolean reshuffleIfNeeded(int hands) {
+        if (needsReshuffle() || remaining < worstCaseCards(hands)) {
+            reset();
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Most cards a round of this many hands can take from what is left
+     * A hand stops drawing once it is over 21, so together the hands hold
+     * at most 21 points each (aces counted as one) plus one card each that
+     * takes them over; the most cards come from drawing the lowest first.
+     */
+    int worstCaseCards(int hands) {
+        int points = 21 * hands;
+        int cardsNeeded = hands;
+        for (int valueClass = 0; valueClass < Rank.VALUE_CLASSES; valueClass++) {
+            int value = valueClass + 1; // Ace counts 1, then 2-9, then ten-valued
+            int taken = Math.min(valueCounts[valueClass], points / value);
+            cardsNeeded += taken;
+            points -= taken * value;
+            if (taken < valueCounts[valueClass]) {
+                break; // Not even one more of this value fits, let alone a higher one
+            }
+        }
+        return cardsNeeded;
     }
 
     public Card deal() {
-        if (cards.size() < 15) { // auto reshuffle when low
-            reset();
+        return Card.fromOrdinal(dealOrdinal());
+    }
+    
+    /**
+     * Deal the top card as its ordinal, without looking up the Card
+     */
+    public int dealOrdinal() {
+        if (remaining == 0) {
+            // reshuffleIfNeeded() keeps enough cards for a round; a fresh shoe
+            // here would deal cards that are already on the table
+            throw new IllegalStateException("Shoe is out of cards");
         }
-        return cards.remove(cards.size() - 1);
+        int ordinal = cards[--remaining];
+        valueCounts[VALUE_CLASS[ordinal]]--;
+        return ordinal;
+    }
+    
+    public int remaining() {
+        return remaining;
+    }
+    
+    /**
+     * Undealt cards per value class (Ace, 2-9, ten-valued), see Rank.valueClass()
+     * @return a copy of the counts
+     */
+    public int[] getRemainingValueCounts() {
+        return valueCounts.clone();
+    }
+    
+    public ShoeConfig getConfig() {
+        return config;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package model;
 
 import strategy.BlackjackStrategy;
+import strategy.DealerOutcome;
+import strategy.DealerOutcomeCalculator;
+import strategy.HandEvaluationTable;
 import strategy.StrategyFactory;
 import java.util.*;
 
@@ -15,15 +18,18 @@ import java.util.*;
  * @author Group 12
  */
 public class GameEngine {
-    private final Deck deck;
+    private Deck deck;
     private final Map<String, Integer> playerBalances;
     private final Map<String, List<Card>> currentHands;
+    private final Map<String, HandValue> handValues; // Running value of each hand in currentHands
     private final Map<String, Integer> currentBets;
     private final List<Card> dealerHand;
+    private final HandValue dealerValue;
     private final Set<String> standingPlayers;
     private final Set<String> bustedPlayers;
     private final List<String> playerOrder; // Track join order for turns
     private final Set<String> spectators; // Players who joined mid-game
+    private final Set<String> sittingOut; // Seated but left out of rounds, e.g. while disconnected
     private BlackjackStrategy strategy; // STRATEGY PATTERN: Reference to Strategy interface
     
     private boolean roundInProgress;
@@ -34,15 +40,22 @@ public class GameEngine {
     }
     
     public GameEngine(BlackjackStrategy strategy) {
-        this.deck = new Deck();
+        this(strategy, ShoeConfig.DEFAULT);
+    }
+    
+    public GameEngine(BlackjackStrategy strategy, ShoeConfig shoeConfig) {
+        this.deck = new Deck(shoeConfig);
         this.playerBalances = new HashMap<>();
         this.currentHands = new HashMap<>();
+        this.handValues = new HashMap<>();
         this.currentBets = new HashMap<>();
         this.dealerHand = new ArrayList<>();
+        this.dealerValue = new HandValue();
         this.standingPlayers = new HashSet<>();
         this.bustedPlayers = new HashSet<>();
         this.playerOrder = new ArrayList<>();
         this.spectators = new HashSet<>();
+        this.sittingOut = new HashSet<>();
         this.strategy = strategy;
         this.roundInProgress = false;
         this.currentPlayerIndex = 0;
@@ -54,6 +67,7 @@ public class GameEngine {
     public void addPlayer(String playerId, int startingBalance) {
         playerBalances.put(playerId, startingBalance);
         currentHands.put(playerId, new ArrayList<>());
+        handValues.put(playerId, new HandValue());
         currentBets.put(playerId, 0);
         
         // If round is in progress, add as spectator
@@ -71,9 +85,11 @@ public class GameEngine {
     public void removePlayer(String playerId) {
         playerBalances.remove(playerId);
         currentHands.remove(playerId);
+        handValues.remove(playerId);
         currentBets.remove(playerId);
         standingPlayers.remove(playerId);
         spectators.remove(playerId);
+        sittingOut.remove(playerId);
         
         // Remove from player order and adjust current turn if needed
         int removedIndex = playerOrder.indexOf(playerId);
@@ -130,8 +146,10 @@ public class GameEngine {
         // Clear previous hands and bets
         for (String playerId : currentHands.keySet()) {
             currentHands.get(playerId).clear();
+            handValues.get(playerId).clear();
         }
         dealerHand.clear();
+        dealerValue.clear();
         standingPlayers.clear();
         bustedPlayers.clear();
         currentBets.replaceAll((k, v) -> 0); // Reset all bets to 0
@@ -158,31 +176,40 @@ public class GameEngine {
         
         // Check if all players have placed bets
         for (String playerId : currentBets.keySet()) {
-            if (currentBets.get(playerId) == 0) {
+            if (currentBets.get(playerId) == 0 && !sittingOut.contains(playerId)) {
                 throw new IllegalStateException("All players must place bets before dealing");
             }
         }
         
-        // Shuffle deck
-        deck.shuffle();
+        // No card of this round is out yet, so the shoe can still be reshuffled:
+        // once the cut card has come out, or if it might not last every hand
+        // (players who joined during betting are dealt in too)
+        deck.reshuffleIfNeeded(currentHands.size() + 1);
         
         // Deal initial cards (2 to each player, 2 to dealer)
+        List<String> dealtIn = new ArrayList<>();
         for (String playerId : currentHands.keySet()) {
-            currentHands.get(playerId).add(deck.deal());
+            if (sittingOut.contains(playerId)) {
+                standingPlayers.add(playerId); // No hand this round, so no turn
+            } else {
+                dealtIn.add(playerId);
+            }
+        }
+        for (String playerId : dealtIn) {
+            dealToPlayer(playerId);
         }
-        dealerHand.add(deck.deal());
+        dealToDealer();
         
-        for (String playerId : currentHands.keySet()) {
-            currentHands.get(playerId).add(deck.deal());
+        for (String playerId : dealtIn) {
+            dealToPlayer(playerId);
         }
-        dealerHand.add(deck.deal());
+        dealToDealer();
         
         // Check for dealer blackjack (instant win for dealer)
-        if (dealerHand.size() == 2 && calculateHandValue(dealerHand) == 21) {
+        if (dealerValue.isBlackjack()) {
             // Dealer has blackjack - all players with non-blackjack lose immediately
             for (String playerId : currentHands.keySet()) {
-                List<Card> hand = currentHands.get(playerId);
-                if (hand.size() == 2 && calculateHandValue(hand) == 21) {
+                if (handValues.get(playerId).isBlackjack()) {
                     // Player also has blackjack - push
                     standingPlayers.add(playerId);
                 } else {
@@ -191,6 +218,11 @@ public class GameEngine {
                 }
             }
         }
+        
+        // The first seat may be sitting out
+        if (currentPlayerIndex < playerOrder.size() && standingPlayers.contains(playerOrder.get(currentPlayerIndex))) {
+            advanceToNextPlayer();
+        }
     }
     
     /**
@@ -218,11 +250,10 @@ public class GameEngine {
             throw new IllegalStateException("Player has busted");
         }
         
-        List<Card> hand = currentHands.get(playerId);
-        hand.add(deck.deal());
+        dealToPlayer(playerId);
         
         // Check for bust
-        if (calculateHandValue(hand) > 21) {
+        if (handValues.get(playerId).isBust()) {
             standingPlayers.add(playerId);
             bustedPlayers.add(playerId);
             advanceToNextPlayer(); // Auto-advance turn when busted
@@ -259,37 +290,45 @@ public class GameEngine {
     
     /**
      * Play dealer's turn (hits on 16 or less, stands on 17+)
+     * Soft 17 is hit or stood according to the current strategy
      */
     public void playDealerTurn() {
-        int dealerValue = calculateHandValue(dealerHand);
-        while (dealerValue < 17) {
-            dealerHand.add(deck.deal());
-            dealerValue = calculateHandValue(dealerHand);
+        boolean hitsSoft17 = strategy.dealerHitsOnSoft17();
+        while (!HandEvaluationTable.dealerStands(dealerValue.hardTotal(), dealerValue.aceCount(), hitsSoft17)) {
+            dealToDealer();
         }
     }
     
     /**
-     * Calculate hand value (handles Ace as 1 or 11)
+     * Exact probabilities of the dealer's final total given the up-card and
+     * the cards that have not been seen yet (the shoe plus the hole card)
+     * Only available while players are acting, before the dealer draws
      */
-    private int calculateHandValue(List<Card> hand) {
-        int value = 0;
-        int aces = 0;
-        
-        for (Card card : hand) {
-            int cardValue = card.baseValue();
-            if (cardValue == 11) {
-                aces++;
-            }
-            value += cardValue;
+    public DealerOutcome getDealerOutcome() {
+        if (!roundInProgress || dealerHand.size() != 2) {
+            throw new IllegalStateException("Dealer outcome is only available while players are acting");
         }
-        
-        // Adjust for Aces
-        while (value > 21 && aces > 0) {
-            value -= 10;
-            aces--;
-        }
-        
-        return value;
+        int[] unseen = deck.getRemainingValueCounts();
+        unseen[dealerHand.get(1).rank().valueClass()]++; // hole card is still unknown
+        return DealerOutcomeCalculator.calculate(dealerHand.get(0).rank(), unseen, strategy);
+    }
+    
+    /**
+     * Deal the next card to a player and update the hand's running value
+     */
+    private void dealToPlayer(String playerId) {
+        Card card = deck.deal();
+        currentHands.get(playerId).add(card);
+        handValues.get(playerId).add(card);
+    }
+    
+    /**
+     * Deal the next card to the dealer and update the dealer's running value
+     */
+    private void dealToDealer() {
+        Card card = deck.deal();
+        dealerHand.add(card);
+        dealerValue.add(card);
     }
     
     /**
@@ -297,35 +336,39 @@ public class GameEngine {
      */
     public Map<String, GameResult> determineResults() {
         Map<String, GameResult> results = new HashMap<>();
-        int dealerValue = calculateHandValue(dealerHand);
-        boolean dealerBust = dealerValue > 21;
+        int dealerTotal = dealerValue.bestTotal();
+        boolean dealerBust = dealerValue.isBust();
+        boolean dealerBlackjack = dealerValue.isBlackjack();
         
         for (String playerId : currentHands.keySet()) {
-            List<Card> hand = currentHands.get(playerId);
-            int playerValue = calculateHandValue(hand);
+            if (currentHands.get(playerId).isEmpty()) {
+                continue; // Sat this round out
+            }
+            HandValue hand = handValues.get(playerId);
+            int playerTotal = hand.bestTotal();
             int bet = currentBets.get(playerId);
             
             GameResult result;
             
-            if (playerValue > 21) {
+            if (hand.isBust()) {
                 result = GameResult.DEALER_WIN; // Player bust
                 // Bet already deducted
-            } else if (hand.size() == 2 && playerValue == 21 && !(dealerHand.size() == 2 && dealerValue == 21)) {
-                // Blackjack (pays 3:2 = bet + 1.5x bet)
+            } else if (hand.isBlackjack() && !dealerBlackjack) {
+                // Blackjack (pays 3:2 = bet + 1.5x bet, or 6:5 depending on strategy)
                 result = GameResult.PLAYER_BLACKJACK;
-                int payout = bet + bet + (bet / 2); // Return bet + 1.5x bet
+                int payout = bet + (int) (bet * strategy.getBlackjackPayoutMultiplier()); // Return bet + winnings
                 playerBalances.put(playerId, playerBalances.get(playerId) + payout);
-            } else if (hand.size() == 2 && playerValue == 21 && dealerHand.size() == 2 && dealerValue == 21) {
+            } else if (hand.isBlackjack() && dealerBlackjack) {
                 // Both have blackjack - push
                 result = GameResult.PUSH;
                 playerBalances.put(playerId, playerBalances.get(playerId) + bet); // Return bet
             } else if (dealerBust) {
                 result = GameResult.PLAYER_WIN;
-                playerBalances.put(playerId, playerBalances.get(playerId) + bet * 2);
-            } else if (playerValue > dealerValue) {
+                playerBalances.put(playerId, playerBalances.get(playerId) + winPayout(bet));
+            } else if (playerTotal > dealerTotal) {
                 result = GameResult.PLAYER_WIN;
-                playerBalances.put(playerId, playerBalances.get(playerId) + bet * 2);
-            } else if (playerValue == dealerValue) {
+                playerBalances.put(playerId, playerBalances.get(playerId) + winPayout(bet));
+            } else if (playerTotal == dealerTotal) {
                 result = GameResult.PUSH;
                 playerBalances.put(playerId, playerBalances.get(playerId) + bet); // Return bet
             } else {
@@ -340,6 +383,13 @@ public class GameEngine {
         return results;
     }
     
+    /**
+     * Amount returned to a player for a regular win (bet + winnings)
+     */
+    private int winPayout(int bet) {
+        return bet + (int) (bet * strategy.getWinPayoutMultiplier());
+    }
+    
     // Getters
     public Map<String, Integer> getPlayerBalances() {
         return new HashMap<>(playerBalances);
@@ -365,6 +415,36 @@ public class GameEngine {
         return new ArrayList<>(currentHands.getOrDefault(playerId, new ArrayList<>()));
     }
     
+    /**
+     * Read-only view of a player's live hand, for callers that only compare
+     * it (null if the player is unknown)
+     */
+    public List<Card> getPlayerHandView(String playerId) {
+        List<Card> hand = currentHands.get(playerId);
+        return hand != null ? Collections.unmodifiableList(hand) : null;
+    }
+    
+    /**
+     * Read-only view of the dealer's live hand
+     */
+    public List<Card> getDealerHandView() {
+        return Collections.unmodifiableList(dealerHand);
+    }
+    
+    /**
+     * Get the running value of a player's hand (null if the player is unknown)
+     */
+    public HandValue getPlayerHandValue(String playerId) {
+        return handValues.get(playerId);
+    }
+    
+    /**
+     * Get the running value of the dealer's hand
+     */
+    public HandValue getDealerHandValue() {
+        return dealerValue;
+    }
+    
     public boolean isRoundInProgress() {
         return roundInProgress;
     }
@@ -414,12 +494,50 @@ public class GameEngine {
         if (!roundInProgress) {
             return false;
         }
-        for (Integer bet : currentBets.values()) {
-            if (bet == 0) {
+        boolean anyBet = false;
+        for (Map.Entry<String, Integer> bet : currentBets.entrySet()) {
+            if (sittingOut.contains(bet.getKey())) {
+                continue;
+            }
+            if (bet.getValue() == 0) {
                 return false;
             }
+            anyBet = true;
         }
-        return true;
+        return anyBet;
+    }
+    
+    /**
+     * Keep a player's seat and balance but play on without them
+     * A bet not yet dealt on is returned, a hand already dealt stands as it
+     * is, and later rounds leave them out until sitIn
+     */
+    public void sitOut(String playerId) {
+        if (!playerBalances.containsKey(playerId) || !sittingOut.add(playerId) || !roundInProgress) {
+            return;
+        }
+        if (dealerHand.isEmpty()) {
+            int bet = currentBets.get(playerId);
+            playerBalances.put(playerId, playerBalances.get(playerId) + bet);
+            currentBets.put(playerId, 0);
+        } else if (!standingPlayers.contains(playerId)) {
+            boolean wasTheirTurn = isPlayersTurn(playerId);
+            standingPlayers.add(playerId);
+            if (wasTheirTurn) {
+                advanceToNextPlayer();
+            }
+        }
+    }
+    
+    /**
+     * Deal a player back in; if cards are already out they wait for the next round
+     */
+    public void sitIn(String playerId) {
+        sittingOut.remove(playerId);
+    }
+    
+    public boolean isSittingOut(String playerId) {
+        return sittingOut.contains(playerId);
     }
     
     /**
@@ -474,6 +592,25 @@ public class GameEngine {
         return strategy;
     }
     
+    /**
+     * Get the shoe configuration of this table
+     */
+    public ShoeConfig getShoeConfig() {
+        return deck.getConfig();
+    }
+    
+    /**
+     * Change the shoe configuration (can only be done between rounds)
+     * Replaces the shoe with a freshly shuffled one
+     */
+    public void setShoeConfig(ShoeConfig shoeConfig) {
+        if (roundInProgress) {
+            throw new IllegalStateException("Cannot change the shoe during an active round");
+        }
+        this.deck = new Deck(shoeConfig);
+        System.out.println("[GAME] Shoe changed to: " + shoeConfig);
+    }
+    
     /**
      * Change the game strategy (can only be done between rounds)
      */
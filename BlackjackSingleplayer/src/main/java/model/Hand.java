@@ -5,14 +5,24 @@ import java.util.Collections;
 import java.util.List;
 /**
  * MVC PATTERN: This is a Model (game entity)
+ * 
+ * Keeps running values of all cards and of the visible cards, so totals
+ * never need to walk the card list. Visibility changes must go through
+ * revealAll() for the visible value to stay in sync.
  *
  * @author Bridjet Walker
  */
 public class Hand {
     private final List<CardInPlay> cards = new ArrayList<>();
+    private final HandValue value = new HandValue();
+    private final HandValue visibleValue = new HandValue();
 
     public void add(CardInPlay cip) {
         cards.add(cip);
+        value.add(cip.card());
+        if (cip.isVisible()) {
+            visibleValue.add(cip.card());
+        }
     }
 
     public List<CardInPlay> cards() {
@@ -21,11 +31,28 @@ public class Hand {
 
     public void clear() {
         cards.clear();
+        value.clear();
+        visibleValue.clear();
     }
 
     public void revealAll() {
         for (CardInPlay c : cards) {
             c.setVisible(true);
         }
+        visibleValue.copyFrom(value);
+    }
+    
+    /**
+     * Value of every card in the hand, hidden or not
+     */
+    public HandValue value() {
+        return value;
+    }
+    
+    /**
+     * Value of the face-up cards only
+     */
+    public HandValue visibleValue() {
+        return visibleValue;
     }
-}
\ No newline at end of file
+}
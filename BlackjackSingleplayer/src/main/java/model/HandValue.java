@@ -0,0 +1,116 @@
+package model;
+
+import strategy.HandEvaluationTable;
+import java.util.Collection;
+
+/**
+ * Running value of a set of cards, updated in O(1) as cards are added
+ * Aces are counted as 1 in the hard total; one of them counts as 11
+ * whenever that does not bust the hand (a soft hand).
+ * 
+ * Only the model package can add cards, so values handed out by Hand and
+ * GameEngine are read-only for views, strategies and simulators.
+ * 
+ * MVC PATTERN: This is a Model (derived game state)
+ * 
+ * @author Group 12
+ */
+public final class HandValue {
+    private int hardTotal;
+    private int aceCount;
+    private int cardCount;
+    private int bestTotal;
+    private boolean soft;
+    private boolean bust;
+    private boolean blackjack;
+    
+    /**
+     * Value of a list of cards (for callers that only have the cards)
+     */
+    public static HandValue of(Collection<Card> cards) {
+        HandValue value = new HandValue();
+        for (Card card : cards) {
+            value.add(card);
+        }
+        return value;
+    }
+    
+    void add(Card card) {
+        Rank rank = card.rank();
+        if (rank == Rank.ACE) {
+            aceCount++;
+            hardTotal += 1;
+        } else {
+            hardTotal += rank.value();
+        }
+        cardCount++;
+        updateFlags();
+    }
+    
+    void clear() {
+        hardTotal = 0;
+        aceCount = 0;
+        cardCount = 0;
+        updateFlags();
+    }
+    
+    void copyFrom(HandValue other) {
+        hardTotal = other.hardTotal;
+        aceCount = other.aceCount;
+        cardCount = other.cardCount;
+        updateFlags();
+    }
+    
+    private void updateFlags() {
+        int entry = HandEvaluationTable.lookup(hardTotal, aceCount);
+        bestTotal = HandEvaluationTable.bestTotal(entry);
+        soft = HandEvaluationTable.isSoft(entry);
+        bust = HandEvaluationTable.isBust(entry);
+        blackjack = cardCount == 2 && bestTotal == 21;
+    }
+    
+    /**
+     * Total with every Ace counted as 1
+     */
+    public int hardTotal() {
+        return hardTotal;
+    }
+    
+    public int aceCount() {
+        return aceCount;
+    }
+    
+    public int cardCount() {
+        return cardCount;
+    }
+    
+    /**
+     * Highest total that does not bust if possible (Ace as 1 or 11)
+     */
+    public int bestTotal() {
+        return bestTotal;
+    }
+    
+    /**
+     * True if an Ace is being counted as 11
+     */
+    public boolean isSoft() {
+        return soft;
+    }
+    
+    public boolean isBust() {
+        return bust;
+    }
+    
+    /**
+     * True for 21 with exactly two cards
+     */
+    public boolean isBlackjack() {
+        return blackjack;
+    }
+    
+    @Override
+    public String toString() {
+        return (soft ? "soft " : "") + bestTotal;
+    }
+}
@@ -9,6 +9,9 @@ public enum Rank {
     SEVEN(7), EIGHT(8), NINE(9), TEN(10),
     JACK(10), QUEEN(10), KING(10), ACE(11);
 
+    /** Number of distinct card values: Ace, 2-9 and the ten-valued cards */
+    public static final int VALUE_CLASSES = 10;
+
     private final int value;
 
     Rank(int value) {
@@ -19,6 +22,14 @@ public enum Rank {
         return value;
     }
     
+    /**
+     * Index of this rank's value: Ace = 0, 2-9 = 1-8, ten-valued cards = 9
+     * (ranks that play identically share an index, e.g. for shoe compositions)
+     */
+    public int valueClass() {
+        return this == ACE ? 0 : value - 1;
+    }
+    
     /**
      * Get the display symbol for this rank
      */
@@ -0,0 +1,76 @@
+package model;
+
+/**
+ * Shoe configuration for a table: number of decks and cut card penetration
+ * 
+ * MVC PATTERN: This is a Model (value object)
+ * 
+ * @author Group 12
+ */
+public final class ShoeConfig {
+    public static final int MIN_DECKS = 1;
+    public static final int MAX_DECKS = 8;
+    public static final double MIN_PENETRATION = 0.25;
+    public static final double MAX_PENETRATION = 0.95;
+    
+    /** Single deck, cut card placed after three quarters of the cards */
+    public static final ShoeConfig DEFAULT = new ShoeConfig(1, 0.75);
+    
+    private final int deckCount;
+    private final double penetration;
+    
+    /**
+     * @param deckCount number of 52-card decks in the shoe (1-8)
+     * @param penetration fraction of the shoe dealt before the cut card comes out
+     */
+    public ShoeConfig(int deckCount, double penetration) {
+        if (deckCount < MIN_DECKS || deckCount > MAX_DECKS) {
+            throw new IllegalArgumentException("Deck count must be between " + MIN_DECKS + " and " + MAX_DECKS);
+        }
+        if (!(penetration >= MIN_PENETRATION && penetration <= MAX_PENETRATION)) {
+            throw new IllegalArgumentException("Penetration must be between " + MIN_PENETRATION + " and " + MAX_PENETRATION);
+        }
+        this.deckCount = deckCount;
+        this.penetration = penetration;
+    }
+    
+    public int getDeckCount() {
+        return deckCount;
+    }
+    
+    public double getPenetration() {
+        return penetration;
+    }
+    
+    /**
+     * Total number of cards in the shoe
+     */
+    public int getCardCount() {
+        return deckCount * Card.DECK_SIZE;
+    }
+    
+    /**
+     * Number of cards dealt when the cut card is reached
+     */
+    public int getCutCardPosition() {
+        return (int) Math.round(getCardCount() * penetration);
+    }
+    
+    @Override
+    public String toString() {
+        return deckCount + (deckCount == 1 ? " deck" : " decks") + ", " + Math.round(penetration * 100) + "% penetration";
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ShoeConfig)) return false;
+        ShoeConfig other = (ShoeConfig) obj;
+        return deckCount == other.deckCount && Double.compare(penetration, other.penetration) == 0;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * deckCount + Double.hashCode(penetration);
+    }
+}
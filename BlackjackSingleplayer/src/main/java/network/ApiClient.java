@@ -10,6 +10,9 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonArray;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * HTTP client for matchmaking API
@@ -18,6 +21,9 @@ import java.util.List;
  * @author Group 12
  */
 public class ApiClient {
+    // Blocking requests made on behalf of the UI run here, one virtual thread per call
+    private static final ExecutorService ASYNC = Executors.newVirtualThreadPerTaskExecutor();
+    
     private final String apiUrl;
     private final HttpClient httpClient;
     private final Gson gson;
@@ -62,18 +68,19 @@ public class ApiClient {
                     true,
                     json.get("gameCode").getAsString(),
                     json.get("sessionId").getAsString(),
+                    json.has("hostToken") ? json.get("hostToken").getAsString() : null,
                     null
                 );
             } else {
                 JsonObject json = gson.fromJson(response.body(), JsonObject.class);
                 String error = json.has("error") ? json.get("error").getAsString() : "Unknown error";
                 System.err.println("[API] Registration failed: " + error);
-                return new RegisterResponse(false, null, null, error);
+                return new RegisterResponse(false, null, null, null, error);
             }
             
         } catch (Exception e) {
             System.err.println("[API] Error registering game: " + e.getMessage());
-            return new RegisterResponse(false, null, null, e.getMessage());
+            return new RegisterResponse(false, null, null, null, e.getMessage());
         }
     }
     
@@ -123,6 +130,13 @@ public class ApiClient {
         }
     }
     
+    /**
+     * List games without blocking the caller
+     */
+    public CompletableFuture<List<GameInfo>> listGamesAsync() {
+        return CompletableFuture.supplyAsync(this::listGames, ASYNC);
+    }
+    
     /**
      * Get connection info for a specific game
      */
@@ -162,6 +176,13 @@ public class ApiClient {
         }
     }
     
+    /**
+     * Look up a game without blocking the caller (completes with null if not found)
+     */
+    public CompletableFuture<GameInfo> getGameAsync(String gameCode) {
+        return CompletableFuture.supplyAsync(() -> getGame(gameCode), ASYNC);
+    }
+    
     /**
      * Notify API that a player joined
      */
@@ -224,6 +245,41 @@ public class ApiClient {
         }
     }
     
+    /**
+     * Update the address players are given for a game, e.g. once the host's
+     * public IP is known (player count and session are kept)
+     * The server only accepts this with the hostToken the game was registered with
+     */
+    public boolean updateGameAddress(String gameCode, String hostToken, String address, int port) {
+        try {
+            JsonObject payload = new JsonObject();
+            payload.addProperty("hostToken", hostToken);
+            payload.addProperty("address", address);
+            payload.addProperty("port", port);
+            
+            HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(apiUrl + "/games/" + gameCode.toUpperCase() + "/address"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(payload.toString()))
+                .build();
+            
+            HttpResponse<String> response = httpClient.send(request,
+                HttpResponse.BodyHandlers.ofString());
+            
+            if (response.statusCode() == 200) {
+                System.out.println("[API] Address updated for " + gameCode + ": " + address + ":" + port);
+                return true;
+            } else {
+                System.err.println("[API] Failed to update address for: " + gameCode);
+                return false;
+            }
+            
+        } catch (Exception e) {
+            System.err.println("[API] Error updating address: " + e.getMessage());
+            return false;
+        }
+    }
+    
     /**
      * Unregister a game (when host closes)
      */
@@ -258,12 +314,14 @@ public class ApiClient {
         public final boolean success;
         public final String gameCode;
         public final String sessionId;
+        public final String hostToken; // Proves to the server that later updates come from this host
         public final String error;
         
-        public RegisterResponse(boolean success, String gameCode, String sessionId, String error) {
+        public RegisterResponse(boolean success, String gameCode, String sessionId, String hostToken, String error) {
             this.success = success;
             this.gameCode = gameCode;
             this.sessionId = sessionId;
+            this.hostToken = hostToken;
             this.error = error;
         }
     }
@@ -11,21 +11,17 @@ import java.util.*;
  */
 public class BlackjackPeer extends ClientPeer {
     private Object localGameState;
-    private Map<String, List<Card>> playerHands;
-    private Map<String, Integer> playerBalances;
-    private Map<String, Integer> playerBets;
+    private final TableState tableState; // Hands, balances, bets and dealer hand, replicated from the host
     private Map<String, String> playerDisplayNames; // Map userId to displayName
-    private List<Card> dealerHand;
     private String currentTurnPlayer; // Track whose turn it is
     private boolean isSpectating; // Track if this player is spectating
+    private boolean roundInProgress; // From the snapshot, then ROUND_STARTED / ROUND_ENDED
+    private String strategyName; // Rule variant in use, from the snapshot or STRATEGY_CHANGED
     
     public BlackjackPeer(String userId) {
         super(userId);
-        this.playerHands = new HashMap<>();
-        this.playerBalances = new HashMap<>();
-        this.playerBets = new HashMap<>();
+        this.tableState = new TableState();
         this.playerDisplayNames = new HashMap<>();
-        this.dealerHand = new ArrayList<>();
         this.currentTurnPlayer = null;
         this.isSpectating = false;
         
@@ -53,12 +49,14 @@ public class BlackjackPeer extends ClientPeer {
      */
     private void updateLocalState(GameUpdateMessage message) {
         switch (message.getType()) {
-            case GAME_STATE_UPDATE:
-                // Full state update
-                if (message.getData() instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> state = (Map<String, Object>) message.getData();
-                    updateFromFullState(state);
+            case STATE_SNAPSHOT:
+            case STATE_DELTA:
+                // Snapshot on join, then deltas in sequence; ask again if one was missed
+                if (!tableState.apply(message) && isConnected()) {
+                    requestResync();
+                }
+                if (message.getData() instanceof StateSnapshot snapshot) {
+                    loadTable(snapshot.getTable());
                 }
                 break;
                 
@@ -69,8 +67,6 @@ public class BlackjackPeer extends ClientPeer {
                     List<PlayerInfo> players = (List<PlayerInfo>) message.getData();
                     for (PlayerInfo player : players) {
                         if (!player.getUserId().equals(getUserId())) {
-                            playerBalances.put(player.getUserId(), 10000);
-                            playerHands.put(player.getUserId(), new ArrayList<>());
                             playerDisplayNames.put(player.getUserId(), player.getDisplayName());
                         }
                     }
@@ -80,34 +76,23 @@ public class BlackjackPeer extends ClientPeer {
             case PLAYER_JOINED:
                 if (message.getData() instanceof PlayerInfo) {
                     PlayerInfo joinedPlayer = (PlayerInfo) message.getData();
-                    playerBalances.put(joinedPlayer.getUserId(), 10000);
-                    playerHands.put(joinedPlayer.getUserId(), new ArrayList<>());
                     playerDisplayNames.put(joinedPlayer.getUserId(), joinedPlayer.getDisplayName());
                 }
                 break;
                 
-            case PLAYER_LEFT:
-                String leftPlayer = (String) message.getData();
-                playerBalances.remove(leftPlayer);
-                playerHands.remove(leftPlayer);
-                break;
-                
             case ROUND_STARTED:
-                // Clear hands for new round
-                for (String playerId : playerHands.keySet()) {
-                    playerHands.get(playerId).clear();
-                }
-                dealerHand.clear();
                 // No longer spectating once new round starts
                 isSpectating = false;
+                roundInProgress = true;
                 break;
                 
-            case DEALER_TURN:
-                if (message.getData() instanceof List) {
-                    @SuppressWarnings("unchecked")
-                    List<Card> cards = (List<Card>) message.getData();
-                    dealerHand = new ArrayList<>(cards);
-                }
+            case ROUND_ENDED:
+                roundInProgress = false;
+                currentTurnPlayer = null;
+                break;
+                
+            case STRATEGY_CHANGED:
+                strategyName = (String) message.getData();
                 break;
                 
             case TURN_CHANGED:
@@ -127,32 +112,28 @@ public class BlackjackPeer extends ClientPeer {
     }
     
     /**
-     * Update from a full game state snapshot
+     * Replace the table-level state with what a snapshot says
      */
-    @SuppressWarnings("unchecked")
-    private void updateFromFullState(Map<String, Object> state) {
-        if (state.containsKey("playerHands")) {
-            this.playerHands = (Map<String, List<Card>>) state.get("playerHands");
-        }
-        if (state.containsKey("playerBalances")) {
-            this.playerBalances = (Map<String, Integer>) state.get("playerBalances");
-        }
-        if (state.containsKey("playerBets")) {
-            this.playerBets = (Map<String, Integer>) state.get("playerBets");
-        }
-        if (state.containsKey("dealerHand")) {
-            this.dealerHand = (List<Card>) state.get("dealerHand");
+    private void loadTable(StateSnapshot.Table table) {
+        playerDisplayNames.clear();
+        for (PlayerInfo player : table.players()) {
+            if (!player.getUserId().equals(getUserId())) {
+                playerDisplayNames.put(player.getUserId(), player.getDisplayName());
+            }
         }
+        currentTurnPlayer = table.currentTurn();
+        roundInProgress = table.phase() != StateSnapshot.Phase.WAITING;
+        strategyName = table.strategy();
+        isSpectating = table.spectators().contains(getUserId());
     }
     
     /**
      * Request full game state from host
-     * The host automatically broadcasts state updates, so this is handled passively
+     * The host replies with a single STATE_SNAPSHOT, so one round trip is
+     * enough to converge; deltas keep the state current after that
      */
     public void requestGameState() {
-        // Game state updates are automatically broadcast by the host
-        // after each command execution, so no explicit request is needed
-        System.out.println("[PEER] Waiting for next game state broadcast from host");
+        requestResync();
     }
     
     // Getters for local game state
@@ -161,23 +142,24 @@ public class BlackjackPeer extends ClientPeer {
     }
     
     public Map<String, List<Card>> getPlayerHands() {
-        return new HashMap<>(playerHands);
+        return tableState.getPlayerHands();
     }
     
     public Map<String, Integer> getPlayerBalances() {
-        return new HashMap<>(playerBalances);
+        return tableState.getPlayerBalances();
     }
     
     public List<Card> getDealerHand() {
-        return new ArrayList<>(dealerHand);
+        return tableState.getDealerHand();
     }
     
     public List<Card> getMyHand() {
-        return playerHands.getOrDefault(getUserId(), new ArrayList<>());
+        return new ArrayList<>(tableState.getHand(getUserId()));
     }
     
     public int getMyBalance() {
-        return playerBalances.getOrDefault(getUserId(), 0);
+        Integer balance = tableState.getBalance(getUserId());
+        return balance != null ? balance : 0;
     }
     
     public Map<String, String> getPlayerDisplayNames() {
@@ -193,10 +175,21 @@ public class BlackjackPeer extends ClientPeer {
     }
     
     public Map<String, Integer> getPlayerBets() {
-        return new HashMap<>(playerBets);
+        return tableState.getPlayerBets();
     }
     
     public boolean isSpectating() {
         return isSpectating;
     }
+    
+    public boolean isRoundInProgress() {
+        return roundInProgress;
+    }
+    
+    /**
+     * Variant name of the table's rules, or null before the first snapshot
+     */
+    public String getStrategyName() {
+        return strategyName;
+    }
 }
@@ -0,0 +1,258 @@
+package network;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server engine with a blocking ServerSocket and one virtual thread per
+ * client, blocked reading that client's frames
+ * 
+ * STRATEGY PATTERN: Concrete Strategy for the host's transport
+ * 
+ * @author Group 12
+ */
+class BlockingServerEngine implements ServerEngine {
+    private final int port;
+    // Accept loop and client readers, one virtual thread each; joined on shutdown
+    private final ExecutorService tasks;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private ServerSocket serverSocket;
+    private ConnectionHandler handler;
+    private volatile boolean running;
+    
+    BlockingServerEngine(int port) {
+        this.port = port;
+        this.tasks = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("host-" + port + "-", 0).factory());
+    }
+    
+    @Override
+    public void start(ConnectionHandler handler) throws IOException {
+        this.handler = handler;
+        serverSocket = new ServerSocket(port);
+        running = true;
+        runTask(this::acceptConnections);
+    }
+    
+    /**
+     * Accept incoming client connections
+     */
+    private void acceptConnections() {
+        while (running) {
+            try {
+                Socket clientSocket = serverSocket.accept();
+                clientSocket.setTcpNoDelay(true);
+                System.out.println("[HOST] New client connection from " + clientSocket.getInetAddress());
+                
+                // Each client gets its own virtual thread, which blocks cheaply on reads
+                openSockets.add(clientSocket);
+                if (!runTask(() -> handleClientConnection(clientSocket))) {
+                    openSockets.remove(clientSocket);
+                    clientSocket.close();
+                }
+                
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("[HOST] Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Handshake, then read frames until the client goes away
+     */
+    private void handleClientConnection(Socket socket) {
+        ClientPeer client = null;
+        Connection connection = null;
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            
+            // Read the client's user ID and display name
+            WireCodec.Hello hello = WireCodec.decodeHello(MessageFraming.readFrame(in));
+            System.out.println("[HOST] Client identified as: " + hello.userId() + " (" + hello.displayName() + ")");
+            
+            connection = new Connection(socket);
+            if (!runTask(connection::writeFrames)) {
+                return;
+            }
+            client = handler.onConnect(connection, hello);
+            connection.client = client;
+            
+            // Listen for commands from this client; replies are written by the connection's writer
+            while (running && !socket.isClosed()) {
+                handler.onMessage(client, MessageFraming.readFrame(in));
+            }
+            
+        } catch (EOFException | SocketException e) {
+            // Client disconnected
+        } catch (Exception e) {
+            if (running) {
+                System.err.println("[HOST] Error handling client: " + e.getMessage());
+            }
+        } finally {
+            openSockets.remove(socket);
+            if (connection != null) {
+                connection.close();
+            }
+            closeQuietly(socket);
+            if (client != null) {
+                handler.onDisconnect(client);
+            }
+        }
+    }
+    
+    /**
+     * Run a task on its own virtual thread, tracked for shutdown
+     * Returns false if the engine is already shutting down
+     */
+    private boolean runTask(Runnable task) {
+        try {
+            tasks.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        running = false;
+        try {
+            if (serverSocket != null && !serverSocket.isClosed()) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("[HOST] Error closing server socket: " + e.getMessage());
+        }
+        // Closing the sockets unblocks every reader, including clients still handshaking
+        for (Socket socket : openSockets) {
+            closeQuietly(socket);
+        }
+        
+        tasks.shutdown();
+        try {
+            if (!tasks.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("[HOST] Connection tasks still running after shutdown, interrupting them");
+                tasks.shutdownNow();
+                tasks.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            tasks.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public int getPort() {
+        return port;
+    }
+    
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+    
+    /**
+     * Blocking connection; frames are queued and written by the
+     * connection's own writer thread, so senders never block on the socket
+     */
+    private class Connection implements PeerConnection {
+        private final Socket socket;
+        private final OutputStream out;
+        private final OutboundQueue outbound = new OutboundQueue();
+        private volatile ClientPeer client;
+        
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+        
+        @Override
+        public void sendFrame(OutboundFrame frame) {
+            if (socket.isClosed()) {
+                return;
+            }
+            switch (outbound.offer(frame)) {
+                case STATE_DROPPED -> {
+                    if (client != null) {
+                        handler.onStateDropped(client);
+                    }
+                }
+                case OVERFLOW -> {
+                    System.err.println("[HOST] Disconnecting slow client " + getRemoteAddress()
+                        + ": " + outbound.size() + " frames queued");
+                    OutboundMetrics.recordEviction();
+                    close();
+                }
+                case QUEUED -> {
+                    // Writer picks it up
+                }
+            }
+        }
+        
+        /**
+         * Writer loop; flushes once the queue runs dry so bursts share packets
+         */
+        void writeFrames() {
+            try {
+                OutboundFrame frame;
+                while ((frame = outbound.take()) != null) {
+                    frame.writeTo(out);
+                    if (outbound.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    System.err.println("[HOST] Failed to send to " + getRemoteAddress() + ": " + e.getMessage());
+                }
+                close();
+            } catch (InterruptedException e) {
+                close();
+            }
+        }
+        
+        @Override
+        public void close() {
+            // The reader sees the closed socket and reports the disconnect
+            outbound.close();
+            closeQuietly(socket);
+        }
+        
+        @Override
+        public boolean isOpen() {
+            return !socket.isClosed();
+        }
+        
+        @Override
+        public int getQueuedFrames() {
+            return outbound.size();
+        }
+        
+        @Override
+        public long getDroppedFrames() {
+            return outbound.getDroppedFrames();
+        }
+        
+        @Override
+        public String getRemoteAddress() {
+            return String.valueOf(socket.getRemoteSocketAddress());
+        }
+    }
+}
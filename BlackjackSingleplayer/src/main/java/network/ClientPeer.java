@@ -5,6 +5,16 @@ import java.io.*;
 import java.net.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 /**
@@ -14,33 +24,68 @@ import java.util.function.Consumer;
  * @author Javier Vargas, Group 12
  */
 public class ClientPeer {
+    private static final long LISTENER_JOIN_MILLIS = 2000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 10000;
+    private static final long MAX_RESUME_BACKOFF_MILLIS = 1000;
     private final String userId;
     private String displayName;
-    private Socket socket;
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
+    private volatile Socket socket;
+    private DataOutputStream out;
+    private DataInputStream in;
+    // Held while writing a frame or swapping in a new socket
+    private final Object sendLock = new Object();
+    private String hostAddress;
+    private int hostPort;
+    // Issued by the host on join; presented to resume after a dropped connection
+    private volatile String sessionToken;
+    private long sessionGraceMillis;
+    // Newest broadcast received; only touched by the listener thread
+    private long lastSequence;
+    // Reconnecting: commands stay pending and are sent again once the host resumes us
+    private volatile boolean resuming;
+    // Set on the host side instead of socket/in/out
+    private PeerConnection connection;
+    // Set instead of socket/in/out when the host is in this JVM
+    private LoopbackConnection loopback;
+    private final Queue<List<GameUpdateMessage>> localUpdates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean localDrainScheduled = new AtomicBoolean();
+    // Seat table for decoding (client side) or the host's shared one (server side)
+    private final WireCodec codec;
     private Thread listenerThread;
-    private boolean connected;
+    private volatile boolean connected;
     private final List<Consumer<GameUpdateMessage>> updateListeners;
+    // Commands sent and not yet answered, by sequence number; several may be in flight
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final Map<Long, PendingCommand> pendingCommands = new ConcurrentHashMap<>();
+    // Server side: when this client was last heard from, and its last heartbeat round trip
+    private volatile long lastHeardNanos = System.nanoTime();
+    private volatile long roundTripNanos = -1;
+    private volatile boolean leaving;
+    // Server side: rate limits on what this client sends; null for the host's own player
+    private final InboundLimiter inbound;
+    // Listeners run on the JavaFX thread unless a headless client swaps this out
+    private Executor updateDispatcher = task -> javafx.application.Platform.runLater(task);
     
     public ClientPeer(String userId) {
         this.userId = userId;
         this.displayName = userId; // Default to userId
+        this.codec = new WireCodec();
         this.updateListeners = new ArrayList<>();
         this.connected = false;
+        this.inbound = null;
     }
     
     /**
      * Constructor for server-side client peer (created by DesignatedHost)
      */
-    public ClientPeer(String userId, Socket socket, ObjectInputStream in, ObjectOutputStream out) {
+    public ClientPeer(String userId, PeerConnection connection, WireCodec codec) {
         this.userId = userId;
         this.displayName = userId; // Default to userId
-        this.socket = socket;
-        this.in = in;
-        this.out = out;
+        this.connection = connection;
+        this.codec = codec;
         this.updateListeners = new ArrayList<>();
         this.connected = true;
+        this.inbound = connection instanceof LoopbackConnection ? null : new InboundLimiter();
     }
     
     /**
@@ -49,28 +94,17 @@ public class ClientPeer {
     public void connectToHost(String hostAddress, int port) {
         try {
             System.out.println("[CLIENT] Connecting to " + hostAddress + ":" + port);
-            
-            // Create socket with connection timeout
-            socket = new Socket();
-            socket.connect(new InetSocketAddress(hostAddress, port), 10000); // 10 second timeout
-            // No read timeout - wait indefinitely for game updates
-            
-            out = new ObjectOutputStream(socket.getOutputStream());
-            out.flush();
-            in = new ObjectInputStream(socket.getInputStream());
+            this.hostAddress = hostAddress;
+            this.hostPort = port;
             
             // Send our user ID and display name to the host
-            out.writeObject(userId);
-            out.writeObject(displayName);
-            out.flush();
+            openSocket(CONNECT_TIMEOUT_MILLIS, WireCodec.encodeHello(userId, displayName));
             
             connected = true;
             System.out.println("[CLIENT] Connected successfully");
             
-            // Start listening for updates from the host
-            listenerThread = new Thread(this::listenForUpdates);
-            listenerThread.setDaemon(true);
-            listenerThread.start();
+            // Listen for updates from the host on a virtual thread
+            listenerThread = Thread.ofVirtual().name("peer-" + userId).start(this::listenForUpdates);
             
         } catch (SocketTimeoutException e) {
             System.err.println("[CLIENT] Connection timeout - host may be unreachable or behind firewall");
@@ -85,11 +119,38 @@ public class ClientPeer {
     }
     
     /**
-     * Connect to a local host (for when host is also a player)
+     * Open a socket to the host and send the handshake on it
+     */
+    private void openSocket(int connectTimeoutMillis, byte[] hello) throws IOException {
+        Socket newSocket = new Socket();
+        try {
+            newSocket.connect(new InetSocketAddress(hostAddress, hostPort), connectTimeoutMillis);
+            // The host pings several times per timeout, so a read this long means it is gone
+            newSocket.setSoTimeout((int) Heartbeat.TIMEOUT_MILLIS);
+            newSocket.setTcpNoDelay(true);
+            
+            DataOutputStream newOut = new DataOutputStream(new BufferedOutputStream(newSocket.getOutputStream()));
+            MessageFraming.writeFrame(newOut, hello);
+            synchronized (sendLock) {
+                socket = newSocket;
+                out = newOut;
+                in = new DataInputStream(new BufferedInputStream(newSocket.getInputStream()));
+            }
+        } catch (IOException e) {
+            newSocket.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Connect to a host in this JVM (for when host is also a player)
+     * Commands and updates are handed over in memory, with no socket or encoding
      */
     public void connectToHost(DesignatedHost host) {
         try {
-            connectToHost("localhost", host.getPort());
+            loopback = host.connectLocal(this);
+            connected = true;
+            System.out.println("[CLIENT] Connected to local host in-process");
         } catch (Exception e) {
             System.err.println("[CLIENT] Failed to connect to local host: " + e.getMessage());
         }
@@ -99,35 +160,45 @@ public class ClientPeer {
      * Listen for game updates from the host
      */
     private void listenForUpdates() {
-        while (connected && !socket.isClosed()) {
+        while (connected) {
             try {
-                Object obj = in.readObject();
-                if (obj instanceof GameUpdateMessage) {
-                    GameUpdateMessage update = (GameUpdateMessage) obj;
-                    // Notify all listeners on JavaFX thread
-                    javafx.application.Platform.runLater(() -> {
-                        for (Consumer<GameUpdateMessage> listener : updateListeners) {
-                            listener.accept(update);
-                        }
-                    });
+                byte[] payload = MessageFraming.readFrame(in);
+                if (WireCodec.isPing(payload)) {
+                    // Answered straight from this thread, never queued behind the listeners
+                    send(WireCodec.encodePong(WireCodec.decodePing(payload)));
+                    continue;
+                }
+                // Decoded here, in arrival order, so the seat table stays in step with the host
+                List<GameUpdateMessage> updates = codec.decodeUpdates(payload);
+                lastSequence = Math.max(lastSequence, WireCodec.frameSequence(payload));
+                for (GameUpdateMessage update : updates) {
+                    if (update.getData() instanceof SessionInfo session) {
+                        onSession(session);
+                    }
+                }
+                // Notify all listeners on the dispatcher (JavaFX thread by default), one
+                // task per frame so a batch is handled in one go and never half-rendered
+                updateDispatcher.execute(() -> notifyListeners(updates));
+            } catch (SocketTimeoutException e) {
+                // Not even a heartbeat within the timeout: the host or the network is down
+                if (!connected) {
+                    break;
+                }
+                System.err.println("[CLIENT] No heartbeat from host for " + Heartbeat.TIMEOUT_MILLIS + "ms");
+                closeSocket();
+                if (!resumeSession()) {
+                    notifyHostDisconnected();
+                    break;
                 }
             } catch (EOFException | SocketException e) {
                 // Connection closed - only notify if we didn't initiate the disconnect
-                if (connected) {
-                    System.err.println("[CLIENT] Host disconnected");
-                    connected = false;
-                    // Notify listeners of host disconnect
-                    javafx.application.Platform.runLater(() -> {
-                        GameUpdateMessage disconnectMsg = new GameUpdateMessage(
-                            GameUpdateMessage.MessageType.HOST_DISCONNECTED,
-                            "Host has disconnected from the game"
-                        );
-                        for (Consumer<GameUpdateMessage> listener : updateListeners) {
-                            listener.accept(disconnectMsg);
-                        }
-                    });
+                if (!connected) {
+                    break;
+                }
+                if (!resumeSession()) {
+                    notifyHostDisconnected();
+                    break;
                 }
-                break;
             } catch (Exception e) {
                 System.err.println("[CLIENT] Error receiving update: " + e.getMessage());
                 connected = false;
@@ -136,37 +207,298 @@ public class ClientPeer {
         }
     }
     
+    /**
+     * Reconnect after the connection dropped and ask the host to resume our
+     * session from the last broadcast we received
+     * @return false if there is no session, or the host could not be
+     *         reached before it gives the seat away
+     */
+    private boolean resumeSession() {
+        if (sessionToken == null) {
+            return false;
+        }
+        resuming = true;
+        System.err.println("[CLIENT] Connection lost, resuming session");
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sessionGraceMillis);
+        long backoffMillis = 50;
+        while (connected) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                break;
+            }
+            try {
+                closeSocket();
+                openSocket((int) Math.min(remainingMillis, CONNECT_TIMEOUT_MILLIS),
+                    WireCodec.encodeHello(userId, displayName, sessionToken, lastSequence));
+                if (!connected) {
+                    closeSocket(); // Disconnected while we were reconnecting
+                    break;
+                }
+                System.out.println("[CLIENT] Reconnected, resuming after broadcast " + lastSequence);
+                return true; // Commands go out again once the host confirms the session
+            } catch (IOException e) {
+                try {
+                    Thread.sleep(Math.min(backoffMillis, remainingMillis));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RESUME_BACKOFF_MILLIS);
+            }
+        }
+        resuming = false;
+        return false;
+    }
+    
+    /**
+     * The host told us which session this connection belongs to (listener thread)
+     */
+    private void onSession(SessionInfo session) {
+        sessionToken = session.token();
+        sessionGraceMillis = session.graceMillis();
+        if (!resuming) {
+            return; // Joining for the first time
+        }
+        if (session.resumed()) {
+            // In order, with the same numbers: the host answers the ones it
+            // already applied from its log and applies the rest
+            synchronized (sendLock) {
+                resuming = false;
+                for (PendingCommand pending : new TreeMap<>(pendingCommands).values()) {
+                    if (pending.payload() != null) {
+                        writeQuietly(pending.payload());
+                    }
+                }
+            }
+        } else {
+            resuming = false;
+            System.err.println("[CLIENT] Session expired, rejoined as a new player");
+            updateDispatcher.execute(() -> failPendingCommands("Session expired"));
+        }
+    }
+    
+    private record PendingCommand(CompletableFuture<CommandResult> result, long sentAtNanos, byte[] payload) {}
+    
+    private void notifyListeners(List<GameUpdateMessage> updates) {
+        for (GameUpdateMessage update : updates) {
+            if (update.getData() instanceof CommandResult result) {
+                completeCommand(result);
+            }
+            for (Consumer<GameUpdateMessage> listener : updateListeners) {
+                listener.accept(update);
+            }
+        }
+    }
+    
+    /**
+     * Runs on the dispatcher, in order with the updates, so whoever waits
+     * on a command sees the state it produced
+     */
+    private void completeCommand(CommandResult result) {
+        PendingCommand pending = pendingCommands.remove(result.sequence());
+        if (pending != null) {
+            pending.result().complete(result.withRoundTrip(System.nanoTime() - pending.sentAtNanos()));
+        }
+    }
+    
+    /**
+     * Answer every command still in flight with a NACK, since no reply will come
+     */
+    private void failPendingCommands(String reason) {
+        for (Long sequence : pendingCommands.keySet()) {
+            completeCommand(CommandResult.nack(sequence, reason));
+        }
+    }
+    
+    private void notifyHostDisconnected() {
+        System.err.println("[CLIENT] Host disconnected");
+        connected = false;
+        // Notify listeners of host disconnect
+        updateDispatcher.execute(() -> {
+            failPendingCommands("Host disconnected");
+            notifyListeners(List.of(new GameUpdateMessage(
+                GameUpdateMessage.MessageType.HOST_DISCONNECTED,
+                "Host has disconnected from the game"
+            )));
+        });
+    }
+    
+    /**
+     * Updates from an in-process host, called on the table's event loop
+     * Queued so the table never waits on listeners; drained by one
+     * dispatcher task however many arrive in the meantime
+     */
+    void deliverLocal(List<GameUpdateMessage> updates) {
+        localUpdates.offer(updates);
+        if (localDrainScheduled.compareAndSet(false, true)) {
+            updateDispatcher.execute(this::drainLocalUpdates);
+        }
+    }
+    
+    private void drainLocalUpdates() {
+        localDrainScheduled.set(false);
+        List<GameUpdateMessage> updates;
+        while ((updates = localUpdates.poll()) != null) {
+            notifyListeners(updates);
+        }
+    }
+    
+    int getPendingLocalUpdates() {
+        return localUpdates.size();
+    }
+    
+    /**
+     * The in-process host closed our connection
+     */
+    void onLocalHostClosed() {
+        if (connected) {
+            notifyHostDisconnected();
+        }
+    }
+    
     /**
      * Disconnect from host
+     * Returns at once; waiting for the listener to exit happens on its own thread
+     * 
+     * @return completes once the listener has exited
      */
-    public void disconnect() {
+    public CompletableFuture<Void> disconnect() {
+        boolean wasConnected = connected;
         connected = false;
+        resuming = false;
+        if (wasConnected && socket != null) {
+            // So the host frees our seat now instead of holding it for a reconnect
+            synchronized (sendLock) {
+                writeQuietly(WireCodec.encodeBye());
+            }
+        }
+        if (connection != null) {
+            connection.close();
+        }
+        if (loopback != null) {
+            loopback.disconnect();
+        }
+        closeSocket();
+        
+        // Closing the socket ends the listener's blocking read; wait for it to exit
+        Thread listener = listenerThread;
+        if (listener == null || listener == Thread.currentThread()) {
+            failPendingCommandsLater();
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        Thread.ofVirtual().name("peer-" + userId + "-disconnect").start(() -> {
+            try {
+                listener.join(LISTENER_JOIN_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            failPendingCommandsLater();
+            stopped.complete(null);
+        });
+        return stopped;
+    }
+    
+    private void failPendingCommandsLater() {
+        // Server-side peers never have pending commands, nor a JavaFX thread to run this on
+        if (!pendingCommands.isEmpty()) {
+            updateDispatcher.execute(() -> failPendingCommands("Disconnected"));
+        }
+    }
+    
+    private void closeSocket() {
         try {
             if (socket != null && !socket.isClosed()) {
                 socket.close();
             }
-            if (listenerThread != null) {
-                listenerThread.interrupt();
-            }
         } catch (IOException e) {
             System.err.println("[CLIENT] Error disconnecting: " + e.getMessage());
         }
     }
     
     /**
-     * Send a command to the host
+     * Send a command to the host without waiting for the previous one
+     * @return completes on the update dispatcher with the host's ACK, or a
+     *         NACK giving the reason it was rejected (also used if the
+     *         connection is lost first)
+     * @throws IllegalStateException if not connected
      */
-    public void sendCommand(Command command) {
+    public CompletableFuture<CommandResult> sendCommand(Command command) {
+        checkConnected();
+        long sequence = nextSequence.incrementAndGet();
+        CompletableFuture<CommandResult> result = new CompletableFuture<>();
+        try {
+            if (loopback != null) {
+                pendingCommands.put(sequence, new PendingCommand(result, System.nanoTime(), null));
+                loopback.sendCommand(command, sequence);
+            } else {
+                byte[] payload = WireCodec.encodeCommand(command, sequence);
+                pendingCommands.put(sequence, new PendingCommand(result, System.nanoTime(), payload));
+                send(payload);
+            }
+        } catch (RuntimeException e) {
+            pendingCommands.remove(sequence);
+            throw e;
+        }
+        return result;
+    }
+    
+    /**
+     * Number of commands sent and not yet answered
+     */
+    public int getPendingCommandCount() {
+        return pendingCommands.size();
+    }
+    
+    /**
+     * Ask the host for a full state snapshot, e.g. after a missed delta
+     */
+    public void requestResync() {
+        if (loopback != null) {
+            checkConnected();
+            loopback.requestResync();
+            return;
+        }
+        send(WireCodec.encodeResyncRequest());
+    }
+    
+    private void checkConnected() {
+        if (!connected) {
+            throw new IllegalStateException("Not connected to a host");
+        }
+    }
+    
+    private void send(byte[] payload) {
         if (!connected || out == null) {
             throw new IllegalStateException("Not connected to a host");
         }
         
         try {
-            out.writeObject(command);
-            out.flush();
+            // UI, bot and listener threads may all send; never interleave two frames
+            synchronized (sendLock) {
+                if (resuming) {
+                    return; // Commands are sent again once the session is resumed
+                }
+                MessageFraming.writeFrame(out, payload);
+            }
         } catch (IOException e) {
             System.err.println("[CLIENT] Failed to send command: " + e.getMessage());
+            if (sessionToken != null) {
+                return; // The listener notices too, reconnects and sends pending commands again
+            }
             connected = false;
+            updateDispatcher.execute(() -> failPendingCommands("Connection lost"));
+        }
+    }
+    
+    /**
+     * Write a frame, ignoring a broken connection (caller holds sendLock)
+     */
+    private void writeQuietly(byte[] payload) {
+        try {
+            MessageFraming.writeFrame(out, payload);
+        } catch (IOException e) {
+            // The listener notices the broken connection
         }
     }
     
@@ -174,14 +506,103 @@ public class ClientPeer {
      * Receive a game update from the host (called by server-side)
      */
     public void receiveGameUpdate(GameUpdateMessage update) {
-        if (out != null) {
-            try {
-                out.writeObject(update);
-                out.flush();
-            } catch (IOException e) {
-                System.err.println("[CLIENT] Failed to send update: " + e.getMessage());
-            }
+        if (connection != null) {
+            connection.sendFrame(OutboundFrame.forUpdate(update, codec.encodeUpdate(update)));
+        }
+    }
+    
+    /**
+     * Receive several game updates as one frame (called by server-side)
+     */
+    public void receiveGameUpdates(List<GameUpdateMessage> updates) {
+        receiveGameUpdates(updates, 0);
+    }
+    
+    /**
+     * Receive game updates as one frame numbered with the broadcast sequence
+     * they bring this client up to, e.g. a snapshot (called by server-side)
+     */
+    void receiveGameUpdates(List<GameUpdateMessage> updates, long sequence) {
+        if (connection == null || updates.isEmpty()) {
+            return;
+        }
+        if (updates.size() == 1 && sequence == 0) {
+            receiveGameUpdate(updates.get(0));
+            return;
         }
+        List<byte[]> payloads = new ArrayList<>(updates.size());
+        for (GameUpdateMessage update : updates) {
+            payloads.add(codec.encodeUpdate(update));
+        }
+        connection.sendFrame(OutboundFrame.of(updates, WireCodec.encodeBatch(sequence, payloads)));
+    }
+    
+    /**
+     * Send an already encoded update (called by server-side broadcasts,
+     * which encode once for every client)
+     */
+    void receiveFrame(OutboundFrame frame) {
+        if (connection != null) {
+            connection.sendFrame(frame);
+        }
+    }
+    
+    /**
+     * Note that this client was just heard from (server-side only)
+     */
+    void markHeard() {
+        lastHeardNanos = System.nanoTime();
+    }
+    
+    /**
+     * How long since this client last sent anything (server-side only)
+     */
+    long getSilentNanos() {
+        return System.nanoTime() - lastHeardNanos;
+    }
+    
+    void recordRoundTrip(long nanos) {
+        roundTripNanos = nanos;
+    }
+    
+    /**
+     * Latest heartbeat round trip, or -1 before the first one (server-side only)
+     */
+    public long getRoundTripNanos() {
+        return roundTripNanos;
+    }
+    
+    /**
+     * The client said goodbye before closing (server-side only)
+     */
+    void markLeaving() {
+        leaving = true;
+    }
+    
+    boolean isLeaving() {
+        return leaving;
+    }
+    
+    /**
+     * Limits on what this client may send, or null for a local client
+     * (server-side only)
+     */
+    InboundLimiter getInbound() {
+        return inbound;
+    }
+    
+    /**
+     * True for the host's own player, connected in-process (server-side only)
+     */
+    boolean isLocal() {
+        return connection instanceof LoopbackConnection;
+    }
+    
+    /**
+     * Frames waiting to be written to this client (server-side only)
+     */
+    public int getQueuedFrames() {
+        return connection != null ? connection.getQueuedFrames() : 0;
     }
     
     /**
@@ -191,6 +612,15 @@ public class ClientPeer {
         updateListeners.add(listener);
     }
     
+    /**
+     * Set where update listeners are run. Defaults to the JavaFX application
+     * thread; headless clients (bots, tools) can run them on any executor,
+     * e.g. Runnable::run to stay on the listener thread
+     */
+    public void setUpdateDispatcher(Executor updateDispatcher) {
+        this.updateDispatcher = updateDispatcher;
+    }
+    
     /**
      * Remove a listener
      */
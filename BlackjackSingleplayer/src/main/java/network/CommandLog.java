@@ -0,0 +1,64 @@
+package network;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recent command results per player, so a retried command is answered
+ * again instead of being applied twice
+ * 
+ * A command's sequence number is its idempotency key: a client resends
+ * an unanswered command with the same number, and if the host already
+ * applied it the stored result is replayed. Numbers older than what is
+ * remembered are rejected as stale. Only used on the table's event loop.
+ * 
+ * @author Group 12
+ */
+final class CommandLog {
+    // Results kept per player; far more than a client ever has in flight
+    private static final int REMEMBERED = 64;
+    
+    private final Map<String, LinkedHashMap<Long, CommandResult>> results = new HashMap<>();
+    private final Map<String, Long> highest = new HashMap<>();
+    
+    /**
+     * The result to send again if this command was already handled, or
+     * null if it is new
+     */
+    CommandResult previous(String userId, long sequence) {
+        LinkedHashMap<Long, CommandResult> recent = results.get(userId);
+        CommandResult result = recent != null ? recent.get(sequence) : null;
+        if (result != null) {
+            return result;
+        }
+        if (sequence <= highest.getOrDefault(userId, 0L)) {
+            return CommandResult.nack(sequence, "Stale command");
+        }
+        return null;
+    }
+    
+    void record(String userId, CommandResult result) {
+        LinkedHashMap<Long, CommandResult> recent = results.computeIfAbsent(userId, id -> new LinkedHashMap<>());
+        recent.put(result.sequence(), result);
+        if (recent.size() > REMEMBERED) {
+            recent.remove(recent.keySet().iterator().next());
+        }
+        highest.merge(userId, result.sequence(), Math::max);
+    }
+    
+    /**
+     * Newest sequence number handled for a player, 0 if none
+     */
+    long highest(String userId) {
+        return highest.getOrDefault(userId, 0L);
+    }
+    
+    /**
+     * Start over for a player, e.g. when a new session joins under their ID
+     */
+    void forget(String userId) {
+        results.remove(userId);
+        highest.remove(userId);
+    }
+}
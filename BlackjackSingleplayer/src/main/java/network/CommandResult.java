@@ -0,0 +1,44 @@
+package network;
+
+import java.io.Serializable;
+
+/**
+ * The host's answer to one command: an ACK, or a NACK with the reason it
+ * was rejected
+ * 
+ * Matched to the command by the sequence number the client gave it. The
+ * host sends it only to that client, right after the broadcast the
+ * command caused, so the client's state already reflects an accepted
+ * command when its result arrives. The round trip is filled in by the
+ * client on arrival (0 as sent).
+ * 
+ * @param sequence       the command's sequence number on its connection
+ * @param error          why the command was rejected, or null if it was applied
+ * @param roundTripNanos time from sending the command to this result
+ * 
+ * @author Group 12
+ */
+public record CommandResult(long sequence, String error, long roundTripNanos) implements Serializable {
+    // NACK reason for a command over its connection's rate limit; nothing was applied, so it may be sent again
+    public static final String RATE_LIMITED = "Too many commands";
+    
+    public static CommandResult ack(long sequence) {
+        return new CommandResult(sequence, null, 0);
+    }
+    
+    public static CommandResult nack(long sequence, String error) {
+        return new CommandResult(sequence, error != null ? error : "Rejected", 0);
+    }
+    
+    public boolean isAccepted() {
+        return error == null;
+    }
+    
+    public boolean isRateLimited() {
+        return RATE_LIMITED.equals(error);
+    }
+    
+    CommandResult withRoundTrip(long nanos) {
+        return new CommandResult(sequence, error, nanos);
+    }
+}
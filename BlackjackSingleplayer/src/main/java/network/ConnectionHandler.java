@@ -0,0 +1,34 @@
+package network;
+
+import java.io.IOException;
+
+/**
+ * Callbacks from a ServerEngine to the table it serves
+ * 
+ * @author Group 12
+ */
+interface ConnectionHandler {
+    /**
+     * A client finished its handshake (a WireCodec HELLO frame, which may
+     * ask to resume a session)
+     * @return the peer representing this client in later callbacks
+     */
+    ClientPeer onConnect(PeerConnection connection, WireCodec.Hello hello);
+    
+    /**
+     * A frame arrived from a connected client
+     * @throws IOException if the payload is malformed; the engine then drops the client
+     */
+    void onMessage(ClientPeer client, byte[] payload) throws IOException;
+    
+    /**
+     * A client fell behind and its queued broadcasts were dropped; it
+     * needs a fresh snapshot. May be called on any thread.
+     */
+    void onStateDropped(ClientPeer client);
+    
+    /**
+     * A connected client went away, called exactly once per client
+     */
+    void onDisconnect(ClientPeer client);
+}
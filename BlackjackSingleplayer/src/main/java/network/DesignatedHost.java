@@ -1,15 +1,24 @@
 package network;
 
 import command.Command;
+import command.HitCommand;
+import command.SetBetCommand;
+import command.StandCommand;
 import model.GameEngine;
 import strategy.BlackjackStrategy;
 import strategy.StrategyFactory;
 import org.bitlet.weupnp.GatewayDevice;
-import org.bitlet.weupnp.GatewayDiscover;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Designated host that validates and executes commands
@@ -19,15 +28,42 @@ import java.util.concurrent.CopyOnWriteArrayList;
  */
 public class DesignatedHost {
     private final GameEngine gameEngine;
+    private final TableEventLoop eventLoop;
     private final List<ClientPeer> connectedClients;
     private final String hostId;
     private String displayName;
-    private ServerSocket serverSocket;
-    private Thread acceptThread;
-    private boolean running;
+    // Transport for client connections (blocking or NIO)
+    private final ServerEngine server;
+    // API notifications, one virtual thread each; joined on shutdown
+    private final ExecutorService tasks;
+    // Seat table for the wire protocol; only used on the event loop
+    private final WireCodec codec = new WireCodec();
+    // What clients were last sent, diffed against the engine after each change
+    private final TableState replicated = new TableState();
+    // Recent ACK/NACKs per player, replayed when a command is retried
+    private final CommandLog commandLog = new CommandLog();
+    // Remote players' sessions and seats held after a drop, plus recent broadcasts to replay
+    private final Sessions sessions = new Sessions();
+    // Players in this JVM, connected without a socket
+    private final Set<LoopbackConnection> localConnections = ConcurrentHashMap.newKeySet();
+    // Clients that fell behind and have a catch-up snapshot on its way, so drops before it is sent share it
+    private final Set<ClientPeer> snapshotsDue = ConcurrentHashMap.newKeySet();
+    // Broadcasts from the current table task, sent as one frame when it ends
+    private final List<GameUpdateMessage> pendingUpdates = new ArrayList<>();
+    private final List<byte[]> pendingPayloads = new ArrayList<>();
+    private volatile boolean running;
+    private CompletableFuture<Void> stopped; // Set by the first shutdown()
+    // Phase and turn as of the last broadcast, read by network threads to turn commands away early
+    private volatile TurnSnapshot turn = new TurnSnapshot(StateSnapshot.Phase.WAITING, null);
+    // Pings remote clients and closes the ones that stopped answering
+    private ScheduledFuture<?> heartbeat;
     private final int port;
     private String gameCode;
     private ApiClient apiClient;
+    // Port mapping runs in the background; completes with the public IP, or null without one
+    private final CompletableFuture<String> publicAddress = new CompletableFuture<>();
+    // Guards the mapping against a shutdown that races with its creation
+    private final Object portMappingLock = new Object();
     private GatewayDevice gateway;
     private boolean upnpEnabled = false;
     
@@ -36,13 +72,20 @@ public class DesignatedHost {
     }
     
     public DesignatedHost(String hostId, String displayName, BlackjackStrategy strategy) {
+        this(hostId, displayName, strategy, ServerMode.fromSystemProperty());
+    }
+    
+    public DesignatedHost(String hostId, String displayName, BlackjackStrategy strategy, ServerMode serverMode) {
         this.hostId = hostId;
         this.displayName = displayName != null ? displayName : hostId;
         this.gameEngine = new GameEngine(strategy);
+        this.eventLoop = new TableEventLoop("table-" + hostId);
         this.connectedClients = new CopyOnWriteArrayList<>();
         this.port = findAvailablePort();
+        this.server = serverMode.createEngine(port);
+        this.tasks = Executors.newVirtualThreadPerTaskExecutor();
         this.running = false;
-        System.out.println("[HOST] Game created with strategy: " + strategy.getVariantName());
+        System.out.println("[HOST] Game created with strategy: " + strategy.getVariantName() + " (" + serverMode + " server)");
         startServer();
     }
     
@@ -59,147 +102,411 @@ public class DesignatedHost {
     
     /**
      * Start the server and listen for connections
+     * Local connections are accepted right away; UPnP runs in the background
      */
     private void startServer() {
         try {
-            serverSocket = new ServerSocket(port);
+            server.start(new Connections());
             running = true;
+            heartbeat = Heartbeat.schedule(this::checkConnections);
             
             String localAddress = InetAddress.getLocalHost().getHostAddress();
             System.out.println("[HOST] Server started on LOCAL: " + localAddress + ":" + port);
             
-            // Try UPnP port mapping
-            setupUPnP();
-            
-            // Start accepting connections in a background thread
-            acceptThread = new Thread(this::acceptConnections);
-            acceptThread.setDaemon(true);
-            acceptThread.start();
+            // Try UPnP port mapping without holding up game creation
+            Thread.ofVirtual().name("upnp-" + port).start(() -> publicAddress.complete(setupUPnP()));
             
         } catch (IOException e) {
             System.err.println("[HOST] Failed to start server: " + e.getMessage());
             e.printStackTrace();
+            publicAddress.complete(null);
         }
     }
     
     /**
-     * Accept incoming client connections
+     * Bridges the server engine's callbacks onto the table's lifecycle
      */
-    private void acceptConnections() {
-        while (running) {
-            try {
-                Socket clientSocket = serverSocket.accept();
-                System.out.println("[HOST] New client connection from " + clientSocket.getInetAddress());
-                
-                // Handle this client in a separate thread
-                Thread clientThread = new Thread(() -> handleClientConnection(clientSocket));
-                clientThread.setDaemon(true);
-                clientThread.start();
-                
-            } catch (IOException e) {
-                if (running) {
-                    System.err.println("[HOST] Error accepting connection: " + e.getMessage());
+    private class Connections implements ConnectionHandler {
+        @Override
+        public ClientPeer onConnect(PeerConnection connection, WireCodec.Hello hello) {
+            ClientPeer client = new ClientPeer(hello.userId(), connection, codec);
+            client.setDisplayName(hello.displayName());
+            if (hello.sessionToken() != null) {
+                resumeClient(client, hello.sessionToken(), hello.lastSequence());
+            } else {
+                registerClient(client);
+            }
+            return client;
+        }
+        
+        @Override
+        public void onMessage(ClientPeer client, byte[] payload) throws IOException {
+            // Any frame proves the client is alive, not only a PONG
+            client.markHeard();
+            // Over the connection's limit the frame never reaches the table,
+            // but it is still answered so a client never waits on a timeout
+            InboundLimiter inbound = client.getInbound();
+            boolean overLimit = !inbound.allowFrame();
+            if (overLimit) {
+                InboundMetrics.recordOverLimitFrame();
+                if (inbound.isFlooding()) {
+                    System.err.println("[HOST] " + client.getUserId() + " sent over " + InboundLimiter.MAX_DROPPED
+                        + " frames past its limit, disconnecting");
+                    InboundMetrics.recordFloodDisconnect();
+                    // Not a dropped connection: no seat is held for a flooder
+                    client.markLeaving();
+                    client.disconnect();
+                    return;
+                }
+            }
+            // BYE and PONG cost nothing to handle, so they are honoured over the limit
+            if (WireCodec.isBye(payload)) {
+                // Leaving on purpose: don't hold the seat when the socket closes
+                client.markLeaving();
+                return;
+            }
+            if (WireCodec.isPong(payload)) {
+                long roundTrip = System.nanoTime() - WireCodec.decodePong(payload);
+                client.recordRoundTrip(roundTrip);
+                Heartbeat.recordRoundTrip(roundTrip);
+                return;
+            }
+            if (WireCodec.isResyncRequest(payload)) {
+                if (!overLimit && inbound.allowResync()) {
+                    requestSnapshot(client);
+                } else {
+                    InboundMetrics.recordRateLimited(); // The snapshot already on its way covers it
                 }
+                return;
+            }
+            // Decoded on the network thread and bound to this connection's user,
+            // then queued for the table's event loop unless it can be refused here
+            WireCodec.CommandRequest request = WireCodec.decodeCommand(payload, client.getUserId());
+            String rejection = earlyRejection(request.command(), inbound, request.sequence(), overLimit);
+            if (rejection != null) {
+                // A COMMAND_RESULT mentions no seats, so it is safe to encode off the event loop
+                client.receiveGameUpdate(new GameUpdateMessage(GameUpdateMessage.MessageType.COMMAND_RESULT,
+                    CommandResult.nack(request.sequence(), rejection)));
+                return;
+            }
+            validateAndExecute(request.command(), client, request.sequence());
+        }
+        
+        /**
+         * Why a command can be refused without queueing it for the engine,
+         * or null if it should go to the event loop
+         * The turn is checked as of the last broadcast. A client only learns
+         * it may act from a broadcast, which goes out after the snapshot is
+         * published, so what is refused here is a command for a turn that has
+         * already passed. Commands sent again after a resume are left to the
+         * command log, which may already have accepted them.
+         */
+        private String earlyRejection(Command command, InboundLimiter inbound, long sequence, boolean overLimit) {
+            if (inbound.isReplay(sequence)) {
+                return null;
+            }
+            if (overLimit || !inbound.allowCommand(command)) {
+                InboundMetrics.recordRateLimited();
+                return CommandResult.RATE_LIMITED;
+            }
+            TurnSnapshot now = turn;
+            String rejection = null;
+            if (command instanceof HitCommand || command instanceof StandCommand) {
+                if (now.phase() != StateSnapshot.Phase.PLAYING || !command.getPlayerId().equals(now.currentPlayer())) {
+                    rejection = "Not your turn";
+                }
+            } else if (command instanceof SetBetCommand && now.phase() != StateSnapshot.Phase.BETTING) {
+                rejection = "Betting is closed";
+            }
+            if (rejection != null) {
+                InboundMetrics.recordEarlyReject();
+            }
+            return rejection;
+        }
+        
+        @Override
+        public void onStateDropped(ClientPeer client) {
+            if (!snapshotsDue.add(client)) {
+                return;
+            }
+            OutboundMetrics.recordSnapshotResend();
+            eventLoop.execute(() -> {
+                snapshotsDue.remove(client);
+                sendSnapshot(client);
+            });
+        }
+        
+        @Override
+        public void onDisconnect(ClientPeer client) {
+            unregisterClient(client);
+        }
+    }
+    
+    /**
+     * Runs on the heartbeat thread once per interval
+     * A client silent for longer than the timeout is closed, which removes
+     * it from the table (and passes its turn) like any other disconnect;
+     * every other remote client gets the same PING frame, encoded once
+     */
+    private void checkConnections() {
+        if (sessions.hasHeld()) {
+            eventLoop.execute(batched(this::releaseExpiredSeats));
+        }
+        OutboundFrame ping = null;
+        for (ClientPeer client : connectedClients) {
+            if (client.isLocal()) {
+                continue; // Same JVM: it can't go quiet without the host knowing
+            }
+            long silentNanos = client.getSilentNanos();
+            if (silentNanos > Heartbeat.TIMEOUT_NANOS) {
+                System.err.println("[HOST] " + client.getUserId() + " missed heartbeats for "
+                    + TimeUnit.NANOSECONDS.toMillis(silentNanos) + "ms, disconnecting");
+                Heartbeat.recordDeadConnection();
+                client.disconnect();
+                continue;
             }
+            if (ping == null) {
+                ping = OutboundFrame.control(WireCodec.encodePing(System.nanoTime()));
+            }
+            client.receiveFrame(ping);
         }
     }
     
     /**
-     * Handle a client connection
+     * Run a task on its own virtual thread, tracked for shutdown
+     * Returns false if the host is already shutting down
      */
-    private void handleClientConnection(Socket socket) {
+    private boolean runTask(Runnable task) {
         try {
-            ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
-            ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
-            
-            // Read the client's user ID and display name
-            String userId = (String) in.readObject();
-            String displayName = (String) in.readObject();
-            System.out.println("[HOST] Client identified as: " + userId + " (" + displayName + ")");
-            
-            // Create a ClientPeer for this connection
-            ClientPeer client = new ClientPeer(userId, socket, in, out);
-            client.setDisplayName(displayName);
-            registerClient(client);
-            
-            // Listen for commands from this client
-            while (running && !socket.isClosed()) {
-                try {
-                    Object obj = in.readObject();
-                    if (obj instanceof Command) {
-                        validateAndExecute((Command) obj);
-                    }
-                } catch (EOFException | SocketException e) {
-                    // Client disconnected
-                    break;
-                }
-            }
-            
-            // Client disconnected
-            unregisterClient(client);
-            socket.close();
-            
-        } catch (Exception e) {
-            System.err.println("[HOST] Error handling client: " + e.getMessage());
+            tasks.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
         }
     }
     
     /**
-     * Register a client peer connection
+     * Connect a player running in this JVM, such as the host's own player,
+     * through an in-process LoopbackConnection instead of a localhost socket
+     */
+    LoopbackConnection connectLocal(ClientPeer player) {
+        if (!running) {
+            throw new IllegalStateException("Host is not running");
+        }
+        LoopbackConnection connection = new LoopbackConnection(this, player);
+        ClientPeer hostSide = new ClientPeer(player.getUserId(), connection, codec);
+        hostSide.setDisplayName(player.getDisplayName());
+        connection.setHostSide(hostSide);
+        localConnections.add(connection);
+        System.out.println("[HOST] Client identified as: " + player.getUserId() + " (" + player.getDisplayName() + ", in-process)");
+        registerClient(hostSide);
+        return connection;
+    }
+    
+    void disconnectLocal(LoopbackConnection connection) {
+        localConnections.remove(connection);
+        unregisterClient(connection.getHostSide());
+    }
+    
+    /**
+     * Send a client a fresh snapshot (resync request)
+     */
+    void requestSnapshot(ClientPeer client) {
+        eventLoop.execute(() -> sendSnapshot(client));
+    }
+    
+    /**
+     * Register a client peer connection (applied on the table's event loop)
      */
     public void registerClient(ClientPeer client) {
-        connectedClients.add(client);
+        eventLoop.execute(batched(() -> addClient(client)));
+    }
+    
+    private void addClient(ClientPeer client) {
+        if (sessions.isHeld(client.getUserId())) {
+            // Back without its session token (e.g. restarted): the held seat goes first
+            removePlayer(client.getUserId());
+        }
+        try {
+            codec.seatOf(client.getUserId());
+        } catch (IllegalStateException e) {
+            System.err.println("[HOST] Rejecting " + client.getUserId() + ": " + e.getMessage());
+            client.disconnect();
+            return;
+        }
+        // A new session numbers its commands from the start again
+        commandLog.forget(client.getUserId());
         
         // Add player to game engine (will be marked as spectator if round in progress)
         gameEngine.addPlayer(client.getUserId(), 10000);
         
-        // Send existing players list to the new client
-        List<PlayerInfo> existingPlayers = new ArrayList<>();
-        existingPlayers.add(new PlayerInfo(hostId, getDisplayName())); // Always include host
-        for (ClientPeer existingClient : connectedClients) {
-            if (!existingClient.getUserId().equals(client.getUserId())) {
-                existingPlayers.add(new PlayerInfo(existingClient.getUserId(), existingClient.getDisplayName()));
-            }
+        // Existing clients learn about the new player (and its seat) first,
+        // then get the state change as a delta
+        GameUpdateMessage joined = new GameUpdateMessage(
+            GameUpdateMessage.MessageType.PLAYER_JOINED,
+            new PlayerInfo(client.getUserId(), client.getDisplayName())
+        );
+        broadcast(joined);
+        replicateState();
+        flushUpdates();
+        connectedClients.add(client);
+        
+        // The whole table in one snapshot (players, hands, balances, bets, turn,
+        // phase and strategy) so the new client can render straight away;
+        // everything after arrives as deltas and events
+        List<GameUpdateMessage> welcome = new ArrayList<>();
+        if (!client.isLocal()) {
+            welcome.add(new GameUpdateMessage(GameUpdateMessage.MessageType.SESSION, sessions.open(client)));
         }
-        client.receiveGameUpdate(new GameUpdateMessage(
-            GameUpdateMessage.MessageType.PLAYERS_LIST,
-            existingPlayers
-        ));
+        welcome.add(new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_SNAPSHOT, tableSnapshot()));
         
         // If player joined mid-round, notify them they're spectating
         if (gameEngine.isSpectator(client.getUserId())) {
-            client.receiveGameUpdate(new GameUpdateMessage(
+            welcome.add(new GameUpdateMessage(
                 GameUpdateMessage.MessageType.SPECTATOR_MODE,
                 "You joined mid-game. You'll play in the next round."
             ));
         }
+        client.receiveGameUpdates(welcome, sessions.lastSequence());
         
         // Notify API of player join (but NOT if this is the host connecting to themselves)
         if (gameCode != null && apiClient != null && !client.getUserId().equals(hostId)) {
-            apiClient.notifyPlayerJoin(gameCode);
+            // Off the event loop: the HTTP call must not hold up the table
+            String code = gameCode;
+            runTask(() -> apiClient.notifyPlayerJoin(code));
         }
+    }
+    
+    /**
+     * Reconnect a client to the session it had before its connection
+     * dropped (applied on the table's event loop)
+     */
+    void resumeClient(ClientPeer client, String sessionToken, long lastSequence) {
+        eventLoop.execute(batched(() -> resume(client, sessionToken, lastSequence)));
+    }
+    
+    private void resume(ClientPeer client, String sessionToken, long lastSequence) {
+        String userId = client.getUserId();
+        ClientPeer previous = sessions.clientOf(userId);
+        SessionInfo session = sessions.resume(client, sessionToken);
+        if (session == null) {
+            System.out.println("[HOST] No session to resume for " + userId + ", joining as a new player");
+            addClient(client);
+            return;
+        }
+        if (previous != null) {
+            // The old connection is half-open and hasn't timed out yet; its
+            // disconnect finds it already replaced and leaves the seat alone
+            connectedClients.remove(previous);
+            previous.disconnect();
+        }
+        connectedClients.add(client);
+        gameEngine.sitIn(userId);
+        // Commands it sends again must reach the command log, not be refused early
+        client.getInbound().setReplayedThrough(commandLog.highest(userId));
         
-        // Notify all clients of new player
-        broadcast(new GameUpdateMessage(
-            GameUpdateMessage.MessageType.PLAYER_JOINED,
-            new PlayerInfo(client.getUserId(), client.getDisplayName())
-        ));
+        // Only the broadcasts it missed, or the whole table if they are no longer kept;
+        // the same commands sent again get their recorded results
+        client.receiveGameUpdate(new GameUpdateMessage(GameUpdateMessage.MessageType.SESSION, session));
+        List<OutboundFrame> missed = sessions.since(lastSequence);
+        if (missed != null) {
+            for (OutboundFrame frame : missed) {
+                client.receiveFrame(frame);
+            }
+        } else {
+            sendSnapshot(client);
+        }
+        System.out.println("[HOST] " + userId + " resumed their session ("
+            + (missed != null ? missed.size() + " missed broadcasts replayed" : "snapshot") + ")");
     }
     
     /**
-     * Unregister a client peer connection
+     * Remove the players whose held seats were not reclaimed in time
+     */
+    private void releaseExpiredSeats() {
+        for (String userId : sessions.expire()) {
+            System.out.println("[HOST] " + userId + " did not reconnect within " + Sessions.GRACE_MILLIS + "ms, releasing their seat");
+            removePlayer(userId);
+        }
+    }
+    
+    /**
+     * Players whose connection dropped and whose seats are held for a reconnect
+     */
+    public int getHeldSeatCount() {
+        return sessions.getHeldCount();
+    }
+    
+    /**
+     * Unregister a client peer connection (applied on the table's event loop)
      */
     public void unregisterClient(ClientPeer client) {
-        String playerId = client.getUserId();
+        eventLoop.execute(batched(() -> removeClient(client)));
+    }
+    
+    private void removeClient(ClientPeer client) {
+        if (!connectedClients.remove(client)) {
+            return; // Rejected before it joined, or replaced by a resumed connection
+        }
+        // A dropped connection keeps its seat for a while; leaving on purpose or flooding doesn't
+        if (running && !client.isLeaving() && !isFlooder(client) && sessions.hold(client)) {
+            System.out.println("[HOST] " + client.getUserId() + " dropped, holding their seat for "
+                + Sessions.GRACE_MILLIS + "ms");
+            sitOut(client.getUserId());
+            return;
+        }
+        removePlayer(client.getUserId());
+    }
+    
+    private static boolean isFlooder(ClientPeer client) {
+        InboundLimiter inbound = client.getInbound();
+        return inbound != null && inbound.isOverLimit();
+    }
+    
+    /**
+     * Play on without a player whose seat is held, so the table never waits
+     * for them: an undealt bet is returned, a hand in play stands, and
+     * they are dealt back in on the round after they resume
+     */
+    private void sitOut(String playerId) {
+        String currentPlayerBefore = gameEngine.getCurrentPlayer();
+        gameEngine.sitOut(playerId);
+        if (!gameEngine.isRoundInProgress()) {
+            return;
+        }
+        if (gameEngine.getDealerHandView().isEmpty()) {
+            // Everyone else may already have bet
+            if (gameEngine.allBetsPlaced()) {
+                dealCards();
+            }
+        } else if (playerId.equals(currentPlayerBefore)) {
+            broadcast(new GameUpdateMessage(
+                GameUpdateMessage.MessageType.TURN_CHANGED,
+                gameEngine.getCurrentPlayer()
+            ));
+        }
+        replicateState();
+        if (gameEngine.allPlayersFinished()) {
+            playDealerTurn();
+        }
+    }
+    
+    /**
+     * Take a player out of the game and tell everyone
+     */
+    private void removePlayer(String playerId) {
         boolean wasInRound = gameEngine.isRoundInProgress();
         String currentPlayerBefore = gameEngine.getCurrentPlayer();
         
-        connectedClients.remove(client);
+        sessions.close(playerId);
         gameEngine.removePlayer(playerId);
+        // Before PLAYER_LEFT, while clients still know the player's seat
+        replicateState();
         
         // Notify API of player leave (but NOT if this is the host disconnecting from themselves)
-        if (gameCode != null && apiClient != null && !playerId.equals(hostId)) {
-            apiClient.notifyPlayerLeave(gameCode);
+        if (running && gameCode != null && apiClient != null && !playerId.equals(hostId)) {
+            String code = gameCode;
+            runTask(() -> apiClient.notifyPlayerLeave(code));
         }
         
         broadcast(new GameUpdateMessage(
@@ -221,16 +528,59 @@ public class DesignatedHost {
                 playDealerTurn();
             }
         }
+        
+        // Every client has now seen PLAYER_LEFT for this seat
+        if (!playerId.equals(hostId)) {
+            codec.releaseSeat(playerId);
+        }
+        commandLog.forget(playerId);
     }
     
     /**
      * Validate and execute a command from a client
+     * Commands are queued and applied one at a time, in arrival order, on the
+     * table's event loop
      */
     public void validateAndExecute(Command command) {
+        eventLoop.execute(batched(() -> applyCommand(command)));
+    }
+    
+    /**
+     * Validate and execute a numbered command, then answer the client that
+     * sent it with an ACK or a NACK carrying the reason
+     * A sequence number that was already handled gets its old result again
+     * and the command is not applied twice.
+     */
+    void validateAndExecute(Command command, ClientPeer client, long sequence) {
+        eventLoop.execute(batched(() -> {
+            String userId = client.getUserId();
+            CommandResult result = commandLog.previous(userId, sequence);
+            if (result == null) {
+                String error = applyCommand(command);
+                result = error == null ? CommandResult.ack(sequence) : CommandResult.nack(sequence, error);
+                commandLog.record(userId, result);
+            }
+            // After the broadcasts, so an ACK arrives once the client's state shows the command
+            flushUpdates();
+            client.receiveGameUpdate(new GameUpdateMessage(GameUpdateMessage.MessageType.COMMAND_RESULT, result));
+        }));
+    }
+    
+    /**
+     * Apply a command and broadcast what it changed
+     * @return null if the command was applied, otherwise why it was rejected
+     */
+    private String applyCommand(Command command) {
         try {
             // Execute command on game engine
             command.execute(gameEngine);
-            
+        } catch (RuntimeException e) {
+            System.err.println("[HOST] Rejected " + command.getClass().getSimpleName()
+                + " from " + command.getPlayerId() + ": " + e.getMessage());
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        
+        try {
             // Determine message type based on command
             GameUpdateMessage.MessageType msgType = 
                 command.getClass().getSimpleName().equals("HitCommand") ? 
@@ -247,8 +597,8 @@ public class DesignatedHost {
                 dealCards();
             }
             
-            // Broadcast updated game state so all clients see the changes
-            broadcastGameState();
+            // Send what changed so all clients see it
+            replicateState();
             
             // Broadcast turn change if turn advanced (for Hit/Stand commands)
             if (msgType == GameUpdateMessage.MessageType.PLAYER_HIT || 
@@ -268,6 +618,7 @@ public class DesignatedHost {
         } catch (Exception e) {
             System.err.println("Command execution failed: " + e.getMessage());
         }
+        return null;
     }
     
     /**
@@ -275,13 +626,14 @@ public class DesignatedHost {
      */
     private void playDealerTurn() {
         gameEngine.playDealerTurn();
+        
+        // Determine results, and send the dealer's cards and payouts before announcing them
+        var results = gameEngine.determineResults();
+        replicateState();
         broadcast(new GameUpdateMessage(
             GameUpdateMessage.MessageType.DEALER_TURN,
             gameEngine.getDealerHand()
         ));
-        
-        // Determine results
-        var results = gameEngine.determineResults();
         broadcast(new GameUpdateMessage(
             GameUpdateMessage.MessageType.ROUND_ENDED,
             results
@@ -290,16 +642,43 @@ public class DesignatedHost {
     
     /**
      * Start a new round - enables betting phase
+     * Runs on the table's event loop and waits for it, so errors such as a
+     * round already being in progress still reach the caller
      */
     public void startRound() {
-        gameEngine.startRound();
-        broadcast(new GameUpdateMessage(
-            GameUpdateMessage.MessageType.ROUND_STARTED,
-            null
-        ));
-        
-        // Broadcast initial game state (no cards yet, just show betting phase)
-        broadcastGameState();
+        eventLoop.call(() -> {
+            try {
+                gameEngine.startRound();
+                broadcast(new GameUpdateMessage(
+                    GameUpdateMessage.MessageType.ROUND_STARTED,
+                    null
+                ));
+                
+                // Cleared hands and bets for the betting phase
+                replicateState();
+            } finally {
+                flushUpdates();
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Switch the table's rule variant between rounds and tell every client
+     */
+    public void changeStrategy(BlackjackStrategy strategy) {
+        eventLoop.call(() -> {
+            try {
+                gameEngine.setStrategy(strategy);
+                broadcast(new GameUpdateMessage(
+                    GameUpdateMessage.MessageType.STRATEGY_CHANGED,
+                    strategy.getVariantName()
+                ));
+            } finally {
+                flushUpdates();
+            }
+            return null;
+        });
     }
     
     /**
@@ -314,57 +693,148 @@ public class DesignatedHost {
             "Cards dealt!"
         ));
         
-        // Broadcast whose turn it is (first player)
-        String firstPlayer = gameEngine.getCurrentPlayer();
+        // Broadcast whose turn it is (first player); nobody's after a dealer
+        // blackjack, which ends the round before anyone acts
+        String firstPlayer = gameEngine.allPlayersFinished() ? null : gameEngine.getCurrentPlayer();
         broadcast(new GameUpdateMessage(
             GameUpdateMessage.MessageType.TURN_CHANGED,
             firstPlayer
         ));
         
-        // Broadcast updated game state so all players see dealt cards
-        broadcastGameState();
+        // Send the dealt cards so all players see them
+        replicateState();
     }
     
     /**
-     * Broadcast a message to all connected clients
+     * Broadcast a message to all connected clients, encoded once
+     * Messages from other threads are queued behind any pending commands.
+     * On the event loop the message joins the current task's batch, which
+     * goes out as one frame when the task ends.
      */
     public void broadcast(GameUpdateMessage message) {
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(batched(() -> broadcast(message)));
+            return;
+        }
+        if (connectedClients.isEmpty() && !sessions.hasHeld()) {
+            return;
+        }
+        // Encoded now, while every seat it mentions is still assigned
+        pendingUpdates.add(message);
+        pendingPayloads.add(codec.encodeUpdate(message));
+    }
+    
+    /**
+     * Wrap a table task so everything it broadcasts is flushed together
+     */
+    private Runnable batched(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                flushUpdates();
+            }
+        };
+    }
+    
+    /**
+     * Send the pending broadcasts as one frame, flushed once per client
+     * Seats are table-wide, so every client gets the same bytes
+     */
+    private void flushUpdates() {
+        // Published before the frame goes out, so no client can act on a turn the network threads haven't seen
+        TurnSnapshot now = new TurnSnapshot(phase(), gameEngine.getCurrentPlayer());
+        if (!now.equals(turn)) {
+            turn = now;
+        }
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        // Numbered and kept, so a client that drops and resumes gets exactly what it missed
+        byte[] payload = WireCodec.encodeBatch(sessions.lastSequence() + 1, pendingPayloads);
+        OutboundFrame frame = OutboundFrame.of(pendingUpdates, payload);
+        sessions.record(frame);
+        pendingUpdates.clear();
+        pendingPayloads.clear();
         for (ClientPeer client : connectedClients) {
-            client.receiveGameUpdate(message);
+            client.receiveFrame(frame);
         }
     }
     
     /**
-     * Broadcast current game state (hands, balances, bets, dealer hand) to all clients
+     * Broadcast whatever changed in the game state since the last call as
+     * one sequence-numbered delta (nothing if unchanged)
      */
-    private void broadcastGameState() {
-        Map<String, Object> state = new HashMap<>();
-        state.put("playerHands", gameEngine.getCurrentHands());
-        state.put("playerBalances", gameEngine.getPlayerBalances());
-        state.put("playerBets", gameEngine.getPlayerBets());
-        state.put("dealerHand", gameEngine.getDealerHand());
-        
-        broadcast(new GameUpdateMessage(
-            GameUpdateMessage.MessageType.GAME_STATE_UPDATE,
-            state
+    private void replicateState() {
+        StateDelta delta = replicated.diff(gameEngine);
+        if (delta != null) {
+            broadcast(new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_DELTA, delta));
+        }
+    }
+    
+    /**
+     * Send one client the full state at the current sequence number
+     * (the reply to a resync request, or after its queue dropped deltas)
+     */
+    private void sendSnapshot(ClientPeer client) {
+        if (connectedClients.contains(client)) {
+            client.receiveGameUpdates(List.of(new GameUpdateMessage(
+                GameUpdateMessage.MessageType.STATE_SNAPSHOT,
+                tableSnapshot()
+            )), sessions.lastSequence());
+        }
+    }
+    
+    /**
+     * Everything a client needs to draw the table, consistent as of the
+     * last replicated sequence number (only called on the event loop,
+     * between tasks, so the engine and the shadow agree)
+     */
+    private StateSnapshot tableSnapshot() {
+        List<PlayerInfo> players = new ArrayList<>();
+        for (ClientPeer client : connectedClients) {
+            players.add(new PlayerInfo(client.getUserId(), client.getDisplayName()));
+        }
+        // Players whose seats are held are still at the table
+        for (Sessions.Session held : sessions.heldSessions()) {
+            players.add(new PlayerInfo(held.getUserId(), held.getDisplayName()));
+        }
+        StateSnapshot.Phase phase = phase();
+        String currentTurn = phase == StateSnapshot.Phase.PLAYING ? gameEngine.getCurrentPlayer() : null;
+        return replicated.snapshot(new StateSnapshot.Table(
+            players,
+            currentTurn,
+            phase,
+            gameEngine.getStrategy().getVariantName(),
+            gameEngine.getSpectators()
         ));
     }
     
+    private StateSnapshot.Phase phase() {
+        if (!gameEngine.isRoundInProgress()) {
+            return StateSnapshot.Phase.WAITING;
+        }
+        return gameEngine.getDealerHandView().isEmpty() ? StateSnapshot.Phase.BETTING : StateSnapshot.Phase.PLAYING;
+    }
+    
+    /**
+     * Whose turn it is, as network threads see it
+     */
+    private record TurnSnapshot(StateSnapshot.Phase phase, String currentPlayer) {}
+    
     /**
      * Set up UPnP port forwarding
+     * Returns the public IP once the port is mapped, or null
      */
-    private void setupUPnP() {
+    private String setupUPnP() {
+        GatewayDevice gateway = null;
         try {
-            System.out.println("[UPnP] Attempting to discover gateway...");
-            GatewayDiscover discover = new GatewayDiscover();
-            discover.discover();
-            
-            gateway = discover.getValidGateway();
+            gateway = GatewayCache.find();
             
             if (gateway == null) {
                 System.out.println("[UPnP] No valid gateway found. Manual port forwarding required.");
                 printManualSetupInstructions();
-                return;
+                return null;
             }
             
             String localAddress = InetAddress.getLocalHost().getHostAddress();
@@ -382,19 +852,33 @@ public class DesignatedHost {
                 "Blackjack Game Server"        // Description
             );
             
-            if (mapped) {
-                upnpEnabled = true;
-                System.out.println("[UPnP] ✓ Port mapping successful!");
-                System.out.println("[HOST] PUBLIC CONNECTION: " + externalIP + ":" + port);
-                System.out.println("[HOST] Share game code with friends to join!");
-            } else {
+            if (!mapped) {
                 System.out.println("[UPnP] Failed to create port mapping.");
                 printManualSetupInstructions();
+                return null;
             }
             
+            synchronized (portMappingLock) {
+                if (!running) {
+                    // Shut down while we were mapping; don't leave the port open
+                    gateway.deletePortMapping(port, "TCP");
+                    return null;
+                }
+                this.gateway = gateway;
+                upnpEnabled = true;
+            }
+            System.out.println("[UPnP] ✓ Port mapping successful!");
+            System.out.println("[HOST] PUBLIC CONNECTION: " + externalIP + ":" + port);
+            System.out.println("[HOST] Share game code with friends to join!");
+            return externalIP;
+            
         } catch (Exception e) {
             System.out.println("[UPnP] Error: " + e.getMessage());
+            if (gateway != null) {
+                GatewayCache.invalidate(gateway);
+            }
             printManualSetupInstructions();
+            return null;
         }
     }
     
@@ -417,33 +901,59 @@ public class DesignatedHost {
     }
     
     /**
-     * Get public IP address (from UPnP gateway or fallback)
+     * Get public IP address if UPnP has already mapped the port, otherwise null
+     * Never blocks; use getPublicAddress() to be told when it is known
      */
     public String getPublicIP() {
-        if (gateway != null && upnpEnabled) {
-            try {
-                return gateway.getExternalIPAddress();
-            } catch (Exception e) {
-                System.err.println("[UPnP] Error getting external IP: " + e.getMessage());
-            }
-        }
-        return null;
+        return publicAddress.getNow(null);
+    }
+    
+    /**
+     * Completes with the public IP once UPnP port mapping finishes,
+     * or with null if there is no gateway or the mapping failed
+     */
+    public CompletableFuture<String> getPublicAddress() {
+        return publicAddress;
     }
     
     /**
      * Shutdown the server
+     * Returns at once; the teardown (UPnP, the API and joining the threads can
+     * each take seconds) runs on its own thread so the JavaFX thread never waits
+     * 
+     * @return completes once the server is fully stopped
      */
-    public void shutdown() {
+    public synchronized CompletableFuture<Void> shutdown() {
+        if (stopped != null) {
+            return stopped;
+        }
         running = false;
-        
-        // Remove UPnP port mapping
-        if (gateway != null && upnpEnabled) {
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
+        }
+        stopped = new CompletableFuture<>();
+        Thread.ofVirtual().name("host-shutdown").start(() -> {
             try {
-                System.out.println("[UPnP] Removing port mapping...");
-                gateway.deletePortMapping(port, "TCP");
-                System.out.println("[UPnP] Port mapping removed.");
-            } catch (Exception e) {
-                System.err.println("[UPnP] Error removing port mapping: " + e.getMessage());
+                tearDown();
+            } finally {
+                stopped.complete(null);
+            }
+        });
+        return stopped;
+    }
+    
+    private void tearDown() {
+        // Remove UPnP port mapping (a mapping still in progress removes itself)
+        synchronized (portMappingLock) {
+            if (gateway != null && upnpEnabled) {
+                try {
+                    System.out.println("[UPnP] Removing port mapping...");
+                    gateway.deletePortMapping(port, "TCP");
+                    System.out.println("[UPnP] Port mapping removed.");
+                } catch (Exception e) {
+                    System.err.println("[UPnP] Error removing port mapping: " + e.getMessage());
+                }
+                upnpEnabled = false;
             }
         }
         
@@ -453,24 +963,35 @@ public class DesignatedHost {
             apiClient.unregisterGame(gameCode);
         }
         
-        try {
-            if (serverSocket != null && !serverSocket.isClosed()) {
-                serverSocket.close();
-            }
-            if (acceptThread != null) {
-                acceptThread.interrupt();
-            }
-            // Disconnect all clients
-            for (ClientPeer client : new ArrayList<>(connectedClients)) {
-                client.disconnect();
-            }
-        } catch (IOException e) {
-            System.err.println("[HOST] Error shutting down server: " + e.getMessage());
+        // Stops accepting, closes every connection and waits for the engine's readers
+        server.shutdown();
+        for (LoopbackConnection connection : localConnections) {
+            connection.close();
         }
+        localConnections.clear();
+        
+        // Wait for pending API calls, then let the event loop drain
+        joinTasks();
+        eventLoop.shutdown();
+        eventLoop.awaitTermination(TimeUnit.SECONDS.toMillis(5));
     }
     
-    public GameEngine getGameEngine() {
-        return gameEngine;
+    /**
+     * Wait for the API calls to finish
+     * Anything still running after the grace period is interrupted
+     */
+    private void joinTasks() {
+        tasks.shutdown();
+        try {
+            if (!tasks.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("[HOST] Tasks still running after shutdown, interrupting them");
+                tasks.shutdownNow();
+                tasks.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            tasks.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
     
     public String getHostId() {
@@ -489,6 +1010,32 @@ public class DesignatedHost {
         return connectedClients.size();
     }
     
+    /**
+     * Frames waiting to be written to each connected client, by user ID
+     */
+    public Map<String, Integer> getOutboundQueueDepths() {
+        Map<String, Integer> depths = new HashMap<>();
+        for (ClientPeer client : connectedClients) {
+            depths.put(client.getUserId(), client.getQueuedFrames());
+        }
+        return depths;
+    }
+    
+    /**
+     * Latest heartbeat round trip to each remote client in milliseconds, by
+     * user ID (absent until the first PONG)
+     */
+    public Map<String, Double> getRoundTripMillis() {
+        Map<String, Double> roundTrips = new HashMap<>();
+        for (ClientPeer client : connectedClients) {
+            long nanos = client.getRoundTripNanos();
+            if (nanos >= 0) {
+                roundTrips.put(client.getUserId(), nanos / 1e6);
+            }
+        }
+        return roundTrips;
+    }
+    
     public int getPort() {
         return port;
     }
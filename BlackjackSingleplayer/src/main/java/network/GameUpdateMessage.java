@@ -26,7 +26,11 @@ public class GameUpdateMessage implements Serializable {
         TURN_CHANGED,
         DEALER_TURN,
         ROUND_ENDED,
-        GAME_STATE_UPDATE,
+        GAME_STATE_UPDATE, // Text notice; table state travels as snapshots and deltas
+        STATE_SNAPSHOT,    // StateSnapshot, on join and on resync
+        STATE_DELTA,       // StateDelta, after every state change
+        COMMAND_RESULT,    // CommandResult, only to the client that sent the command
+        SESSION,           // SessionInfo, only to the client it belongs to
         SPECTATOR_MODE,
         HOST_DISCONNECTED,
         STRATEGY_CHANGED
@@ -0,0 +1,58 @@
+package network;
+
+import org.bitlet.weupnp.GatewayDevice;
+import org.bitlet.weupnp.GatewayDiscover;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the UPnP gateway for the lifetime of the application
+ *
+ * Discovery multicasts on every interface and waits for replies, which
+ * takes seconds, so it runs once and later sessions reuse the result.
+ * Hosts starting at the same time share one discovery. A network with no
+ * gateway is remembered for a while too, so it isn't probed every session.
+ *
+ * @author Group 12
+ */
+final class GatewayCache {
+    // How long "no gateway" is trusted before discovering again
+    private static final long MISS_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+    
+    private static GatewayDevice gateway;
+    private static long missedAt;
+    private static boolean missed;
+    
+    private GatewayCache() {
+    }
+    
+    /**
+     * The cached gateway, discovering it first if needed (null if there is none)
+     */
+    static synchronized GatewayDevice find() throws Exception {
+        if (gateway != null) {
+            System.out.println("[UPnP] Using cached gateway: " + gateway.getModelName());
+            return gateway;
+        }
+        if (missed && System.nanoTime() - missedAt < MISS_TTL_NANOS) {
+            return null;
+        }
+        
+        System.out.println("[UPnP] Attempting to discover gateway...");
+        GatewayDiscover discover = new GatewayDiscover();
+        discover.discover();
+        gateway = discover.getValidGateway();
+        missed = gateway == null;
+        missedAt = System.nanoTime();
+        return gateway;
+    }
+    
+    /**
+     * Forget a gateway that stopped answering, so the next session rediscovers
+     */
+    static synchronized void invalidate(GatewayDevice stale) {
+        if (gateway == stale) {
+            gateway = null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package network;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Liveness checks for the connections between host and clients
+ *
+ * The host pings every remote client once per interval and each client
+ * echoes the ping straight back; the host times the echo as that
+ * connection's round trip. Either side treats a connection it has heard
+ * nothing on for the timeout as dead: the host closes it, so the player
+ * sits out with their seat held (see Sessions) and the turn moves on, and
+ * the client's read times out.
+ * Both come from system properties (blackjack.heartbeat.intervalMs,
+ * default 250, and blackjack.heartbeat.timeoutMs, default 1000).
+ *
+ * @author Group 12
+ */
+public final class Heartbeat {
+    static final long INTERVAL_MILLIS = Math.max(10, Long.getLong("blackjack.heartbeat.intervalMs", 250));
+    // At least two intervals, so one late ping is never fatal
+    static final long TIMEOUT_MILLIS = Math.max(2 * INTERVAL_MILLIS, Long.getLong("blackjack.heartbeat.timeoutMs", 1000));
+    static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+    
+    // One daemon thread paces the pings of every table in this JVM; a sweep only queues frames
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private static final LongAdder ROUND_TRIPS = new LongAdder();
+    private static final LongAdder ROUND_TRIP_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_ROUND_TRIP_NANOS = new LongAccumulator(Math::max, 0);
+    private static final LongAdder DEAD_CONNECTIONS = new LongAdder();
+    
+    private Heartbeat() {
+        // Utility class - no instantiation
+    }
+    
+    /**
+     * Run a host's connection check once per interval until cancelled
+     */
+    static ScheduledFuture<?> schedule(Runnable check) {
+        return SCHEDULER.scheduleAtFixedRate(() -> {
+            try {
+                check.run();
+            } catch (RuntimeException e) {
+                // An exception would cancel the schedule; log it and keep checking
+                System.err.println("[HOST] Heartbeat check failed: " + e.getMessage());
+            }
+        }, INTERVAL_MILLIS, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    static void recordRoundTrip(long nanos) {
+        ROUND_TRIPS.increment();
+        ROUND_TRIP_NANOS.add(nanos);
+        MAX_ROUND_TRIP_NANOS.accumulate(nanos);
+    }
+    
+    static void recordDeadConnection() {
+        DEAD_CONNECTIONS.increment();
+    }
+    
+    public static long getDeadConnections() {
+        return DEAD_CONNECTIONS.sum();
+    }
+    
+    public static void reset() {
+        ROUND_TRIPS.reset();
+        ROUND_TRIP_NANOS.reset();
+        MAX_ROUND_TRIP_NANOS.reset();
+        DEAD_CONNECTIONS.reset();
+    }
+    
+    public static String report() {
+        long count = ROUND_TRIPS.sum();
+        double meanMillis = count == 0 ? 0 : ROUND_TRIP_NANOS.sum() / 1e6 / count;
+        return String.format("Heartbeat RTT:    n=%d mean=%.2fms max=%.2fms (every %dms, timeout %dms)%n"
+            + "Dead connections: %d closed after missing heartbeats",
+            count, meanMillis, MAX_ROUND_TRIP_NANOS.get() / 1e6, INTERVAL_MILLIS, TIMEOUT_MILLIS,
+            getDeadConnections());
+    }
+}
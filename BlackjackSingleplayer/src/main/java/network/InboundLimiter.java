@@ -0,0 +1,141 @@
+package network;
+
+import command.Command;
+import command.HitCommand;
+import command.SetBetCommand;
+import command.StandCommand;
+
+/**
+ * Token bucket limits on what one remote client may send the host
+ * 
+ * Every frame takes a token from the connection's bucket
+ * (blackjack.inbound.framesPerSecond, default 60, bursts of twice that).
+ * Over the limit a command is NACKed without reaching the table, a resync
+ * request is ignored, and a BYE or PONG is still handled. Frames over the
+ * limit are forgiven at the same rate; a client that keeps flooding past
+ * that (blackjack.inbound.maxDropped, default 256 frames unforgiven) is
+ * disconnected, while one that backs off when NACKed is not. Commands also take a token from a bucket
+ * for their type (blackjack.inbound.commandsPerSecond, default 20, same
+ * burst), and resync requests, which cost the host a full snapshot, from
+ * their own (blackjack.inbound.resyncsPerSecond, default 2). The defaults
+ * are well above what a person sends; LoadTestLauncher raises them for
+ * bots that play flat out.
+ * 
+ * Only used on the connection's reader thread, except replayedThrough
+ * and overLimit.
+ * 
+ * @author Group 12
+ */
+final class InboundLimiter {
+    static final int FRAMES_PER_SECOND = Math.max(1, Integer.getInteger("blackjack.inbound.framesPerSecond", 60));
+    static final int COMMANDS_PER_SECOND = Math.max(1, Integer.getInteger("blackjack.inbound.commandsPerSecond", 20));
+    static final int RESYNCS_PER_SECOND = Math.max(1, Integer.getInteger("blackjack.inbound.resyncsPerSecond", 2));
+    static final int MAX_DROPPED = Math.max(1, Integer.getInteger("blackjack.inbound.maxDropped", 256));
+    
+    private final TokenBucket frames = new TokenBucket(FRAMES_PER_SECOND);
+    private final TokenBucket bets = new TokenBucket(COMMANDS_PER_SECOND);
+    private final TokenBucket hits = new TokenBucket(COMMANDS_PER_SECOND);
+    private final TokenBucket stands = new TokenBucket(COMMANDS_PER_SECOND);
+    private final TokenBucket resyncs = new TokenBucket(RESYNCS_PER_SECOND);
+    // One token per frame over the limit the client may still send
+    private final TokenBucket overLimitAllowance = new TokenBucket(FRAMES_PER_SECOND, MAX_DROPPED);
+    private boolean flooding;
+    // Whether the latest frame was over the limit, read when the connection closes
+    private volatile boolean overLimit;
+    // Commands up to this number were handled before a resume and may be sent again
+    private volatile long replayedThrough;
+    
+    /**
+     * Take a token for a frame of any kind
+     * @return false if the frame is over the limit
+     */
+    boolean allowFrame() {
+        overLimit = !frames.tryTake();
+        if (!overLimit) {
+            return true;
+        }
+        if (!overLimitAllowance.tryTake()) {
+            flooding = true;
+        }
+        return false;
+    }
+    
+    /**
+     * True once the client has sent more frames over the limit than it is allowed
+     */
+    boolean isFlooding() {
+        return flooding;
+    }
+    
+    /**
+     * True while the client is sending faster than its limit, e.g. when it
+     * is cut off for not reading the NACKs a flood earns it
+     */
+    boolean isOverLimit() {
+        return overLimit;
+    }
+    
+    boolean allowResync() {
+        return resyncs.tryTake();
+    }
+    
+    /**
+     * Take a token from the bucket for this command's type
+     * A type without a bucket of its own is only limited per frame
+     */
+    boolean allowCommand(Command command) {
+        if (command instanceof SetBetCommand) {
+            return bets.tryTake();
+        } else if (command instanceof HitCommand) {
+            return hits.tryTake();
+        } else if (command instanceof StandCommand) {
+            return stands.tryTake();
+        }
+        return true;
+    }
+    
+    /**
+     * Note the newest command the host handled for this player before the
+     * connection resumed their session; those are answered from the
+     * command log, never rejected early
+     */
+    void setReplayedThrough(long sequence) {
+        replayedThrough = sequence;
+    }
+    
+    boolean isReplay(long sequence) {
+        return sequence <= replayedThrough;
+    }
+    
+    /**
+     * Refills continuously at the given rate, holding at most two seconds'
+     * worth unless given a capacity
+     */
+    private static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        
+        TokenBucket(int perSecond) {
+            this(perSecond, perSecond * 2);
+        }
+        
+        TokenBucket(int perSecond, int capacity) {
+            this.tokensPerNano = perSecond / 1e9;
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+        
+        boolean tryTake() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
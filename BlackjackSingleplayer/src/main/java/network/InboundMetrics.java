@@ -0,0 +1,78 @@
+package network;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters for traffic the host turned away before it
+ * reached a table's event loop
+ * 
+ * @author Group 12
+ */
+public final class InboundMetrics {
+    private static final LongAdder OVER_LIMIT_FRAMES = new LongAdder();
+    private static final LongAdder RATE_LIMITED = new LongAdder();
+    private static final LongAdder EARLY_REJECTS = new LongAdder();
+    private static final LongAdder FLOOD_DISCONNECTS = new LongAdder();
+    
+    private InboundMetrics() {
+        // Utility class - no instantiation
+    }
+    
+    static void recordOverLimitFrame() {
+        OVER_LIMIT_FRAMES.increment();
+    }
+    
+    static void recordRateLimited() {
+        RATE_LIMITED.increment();
+    }
+    
+    static void recordEarlyReject() {
+        EARLY_REJECTS.increment();
+    }
+    
+    static void recordFloodDisconnect() {
+        FLOOD_DISCONNECTS.increment();
+    }
+    
+    /**
+     * Frames over a connection's limit; commands among them are NACKed,
+     * resync requests ignored
+     */
+    public static long getOverLimitFrames() {
+        return OVER_LIMIT_FRAMES.sum();
+    }
+    
+    /**
+     * Commands NACKed and resync requests ignored for being over a limit
+     */
+    public static long getRateLimited() {
+        return RATE_LIMITED.sum();
+    }
+    
+    /**
+     * Commands NACKed on the network thread because it wasn't the sender's turn
+     */
+    public static long getEarlyRejects() {
+        return EARLY_REJECTS.sum();
+    }
+    
+    public static long getFloodDisconnects() {
+        return FLOOD_DISCONNECTS.sum();
+    }
+    
+    public static void reset() {
+        OVER_LIMIT_FRAMES.reset();
+        RATE_LIMITED.reset();
+        EARLY_REJECTS.reset();
+        FLOOD_DISCONNECTS.reset();
+    }
+    
+    public static String report() {
+        return String.format("Limits:           %d frames/s per connection, %d commands/s per type, %d resyncs/s%n"
+            + "Over limit:       %d frames past the connection limit, %d clients disconnected for flooding%n"
+            + "Rejected early:   %d over a command limit, %d out of turn",
+            InboundLimiter.FRAMES_PER_SECOND, InboundLimiter.COMMANDS_PER_SECOND, InboundLimiter.RESYNCS_PER_SECOND,
+            getOverLimitFrames(), getFloodDisconnects(),
+            getRateLimited(), getEarlyRejects());
+    }
+}
@@ -0,0 +1,98 @@
+package network;
+
+import command.Command;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process connection between a DesignatedHost and a player in the same
+ * JVM (normally the host's own player)
+ * 
+ * Nothing is encoded and no socket is involved: commands go straight onto
+ * the table's event loop queue, and update objects are handed to the
+ * player's ClientPeer, which queues them for its dispatcher. Both queues
+ * are lock-free.
+ * 
+ * @author Group 12
+ */
+final class LoopbackConnection implements PeerConnection {
+    private final DesignatedHost host;
+    private final ClientPeer player;
+    private final AtomicBoolean open = new AtomicBoolean(true);
+    private volatile ClientPeer hostSide;
+    
+    LoopbackConnection(DesignatedHost host, ClientPeer player) {
+        this.host = host;
+        this.player = player;
+    }
+    
+    void setHostSide(ClientPeer hostSide) {
+        this.hostSide = hostSide;
+    }
+    
+    // ===== Player -> host =====
+    
+    void sendCommand(Command command, long sequence) {
+        if (open.get()) {
+            host.validateAndExecute(command, hostSide, sequence);
+        }
+    }
+    
+    void requestResync() {
+        if (open.get()) {
+            host.requestSnapshot(hostSide);
+        }
+    }
+    
+    /**
+     * The player left
+     */
+    void disconnect() {
+        if (open.compareAndSet(true, false)) {
+            host.disconnectLocal(this);
+        }
+    }
+    
+    ClientPeer getHostSide() {
+        return hostSide;
+    }
+    
+    // ===== Host -> player =====
+    
+    @Override
+    public void sendFrame(OutboundFrame frame) {
+        if (open.get()) {
+            player.deliverLocal(frame.getUpdates());
+        }
+    }
+    
+    /**
+     * The host closed the connection (shutdown or rejection)
+     */
+    @Override
+    public void close() {
+        if (open.compareAndSet(true, false)) {
+            host.unregisterClient(hostSide);
+            player.onLocalHostClosed();
+        }
+    }
+    
+    @Override
+    public boolean isOpen() {
+        return open.get();
+    }
+    
+    @Override
+    public int getQueuedFrames() {
+        return player.getPendingLocalUpdates();
+    }
+    
+    @Override
+    public long getDroppedFrames() {
+        return 0;
+    }
+    
+    @Override
+    public String getRemoteAddress() {
+        return "in-process";
+    }
+}
@@ -0,0 +1,50 @@
+package network;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Length-prefixed framing shared by every transport
+ * 
+ * Each message on the wire is a 4-byte big-endian length followed by that
+ * many payload bytes, so a reader always knows where a message ends without
+ * parsing it. That lets the NIO server collect frames from partial reads.
+ * Payloads are produced and parsed by WireCodec.
+ * 
+ * @author Group 12
+ */
+public final class MessageFraming {
+    public static final int HEADER_BYTES = Integer.BYTES;
+    public static final int MAX_FRAME_BYTES = 1 << 20;
+    
+    private MessageFraming() {
+        // Utility class - no instantiation
+    }
+    
+    /**
+     * Write one frame and flush it
+     */
+    public static void writeFrame(DataOutputStream out, byte[] payload) throws IOException {
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+    
+    /**
+     * Block until one whole frame has been read
+     */
+    public static byte[] readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        checkLength(length);
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+    
+    static void checkLength(int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking server engine built on Selector/SocketChannel
+ * 
+ * All NIO hosts in the JVM share a small fixed pool of selector threads
+ * (blackjack.nio.threads, default up to 4). Each client channel is pinned to
+ * one selector, which reads its frames as bytes arrive and writes queued
+ * frames whenever the socket can take them. No thread ever blocks on a
+ * single client.
+ * 
+ * STRATEGY PATTERN: Concrete Strategy for the host's transport
+ * 
+ * @author Group 12
+ */
+class NioServerEngine implements ServerEngine {
+    private static final int INITIAL_READ_BUFFER = 8 * 1024;
+    
+    private final int port;
+    private final Set<NioConnection> connections = ConcurrentHashMap.newKeySet();
+    private ServerSocketChannel serverChannel;
+    private ConnectionHandler handler;
+    private volatile boolean running;
+    
+    NioServerEngine(int port) {
+        this.port = port;
+    }
+    
+    @Override
+    public void start(ConnectionHandler handler) throws IOException {
+        this.handler = handler;
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(port));
+        running = true;
+        
+        SelectorLoop loop = SelectorPool.next();
+        loop.execute(() -> {
+            try {
+                serverChannel.register(loop.selector, SelectionKey.OP_ACCEPT, (KeyHandler) key -> acceptConnections());
+            } catch (ClosedChannelException e) {
+                // Shut down before the acceptor registered
+            }
+        });
+    }
+    
+    private void acceptConnections() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                System.out.println("[HOST] New client connection from " + channel.getRemoteAddress());
+                
+                NioConnection connection = new NioConnection(channel, SelectorPool.next());
+                connections.add(connection);
+                connection.loop.execute(connection::register);
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("[HOST] Error accepting connection: " + e.getMessage());
+            }
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        running = false;
+        try {
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("[HOST] Error closing server channel: " + e.getMessage());
+        }
+        for (NioConnection connection : connections) {
+            connection.close();
+        }
+    }
+    
+    @Override
+    public int getPort() {
+        return port;
+    }
+    
+    /**
+     * Something registered with a selector that wants to hear about readiness
+     */
+    private interface KeyHandler {
+        void handle(SelectionKey key) throws IOException;
+    }
+    
+    /**
+     * One client channel: reassembles inbound frames and queues outbound ones
+     */
+    private class NioConnection implements PeerConnection, KeyHandler {
+        private final SocketChannel channel;
+        private final SelectorLoop loop;
+        private final OutboundQueue outbound = new OutboundQueue();
+        private ByteBuffer writing; // Frame partly written; selector thread only
+        private final AtomicBoolean writeScheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final String remoteAddress;
+        private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+        private SelectionKey key;
+        private volatile ClientPeer client;
+        
+        NioConnection(SocketChannel channel, SelectorLoop loop) throws IOException {
+            this.channel = channel;
+            this.loop = loop;
+            this.remoteAddress = String.valueOf(channel.getRemoteAddress());
+        }
+        
+        void register() {
+            try {
+                key = channel.register(loop.selector, SelectionKey.OP_READ, this);
+            } catch (ClosedChannelException e) {
+                close();
+            }
+        }
+        
+        @Override
+        public void handle(SelectionKey key) throws IOException {
+            try {
+                if (key.isReadable()) {
+                    read();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    flush();
+                }
+            } catch (IOException | CancelledKeyException e) {
+                close();
+            }
+        }
+        
+        private void read() throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                close();
+                return;
+            }
+            
+            readBuffer.flip();
+            while (readBuffer.remaining() >= MessageFraming.HEADER_BYTES) {
+                int length = readBuffer.getInt(readBuffer.position());
+                MessageFraming.checkLength(length);
+                if (readBuffer.remaining() < MessageFraming.HEADER_BYTES + length) {
+                    break;
+                }
+                readBuffer.getInt();
+                byte[] payload = new byte[length];
+                readBuffer.get(payload);
+                onFrame(payload);
+                if (closed.get()) {
+                    return;
+                }
+            }
+            readBuffer.compact();
+            
+            // A full buffer means the frame in progress is larger than the buffer
+            if (!readBuffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(
+                    Math.min(readBuffer.capacity() * 2, MessageFraming.HEADER_BYTES + MessageFraming.MAX_FRAME_BYTES));
+                readBuffer.flip();
+                larger.put(readBuffer);
+                readBuffer = larger;
+            }
+        }
+        
+        private void onFrame(byte[] payload) {
+            try {
+                if (client != null) {
+                    handler.onMessage(client, payload);
+                } else {
+                    WireCodec.Hello hello = WireCodec.decodeHello(payload);
+                    System.out.println("[HOST] Client identified as: " + hello.userId() + " (" + hello.displayName() + ")");
+                    client = handler.onConnect(this, hello);
+                }
+            } catch (IOException e) {
+                System.err.println("[HOST] Dropping " + remoteAddress + ": unreadable frame (" + e.getMessage() + ")");
+                close();
+            }
+        }
+        
+        @Override
+        public void sendFrame(OutboundFrame frame) {
+            if (closed.get()) {
+                return;
+            }
+            switch (outbound.offer(frame)) {
+                case STATE_DROPPED -> {
+                    if (client != null) {
+                        handler.onStateDropped(client);
+                    }
+                }
+                case OVERFLOW -> {
+                    System.err.println("[HOST] Disconnecting slow client " + remoteAddress
+                        + ": " + outbound.size() + " frames queued");
+                    OutboundMetrics.recordEviction();
+                    close();
+                    return;
+                }
+                case QUEUED -> {
+                    // Flushed below
+                }
+            }
+            // One pending flush per connection, however many frames are queued
+            if (writeScheduled.compareAndSet(false, true)) {
+                loop.execute(this::flushQuietly);
+            }
+        }
+        
+        private void flushQuietly() {
+            try {
+                flush();
+            } catch (IOException | CancelledKeyException e) {
+                close();
+            }
+        }
+        
+        /**
+         * Write queued frames until the queue is empty or the socket is full
+         * Runs on this connection's selector thread
+         */
+        private void flush() throws IOException {
+            if (closed.get() || key == null) {
+                return;
+            }
+            while (true) {
+                while (writing != null || (writing = nextFrame()) != null) {
+                    channel.write(writing);
+                    if (writing.hasRemaining()) {
+                        // Socket buffer full: finish when the selector says it's writable
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    writing = null;
+                }
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                writeScheduled.set(false);
+                // A frame queued after the last peek would otherwise wait for the next send
+                if (outbound.isEmpty() || !writeScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+        
+        private ByteBuffer nextFrame() {
+            OutboundFrame frame = outbound.poll();
+            return frame != null ? frame.asBuffer() : null;
+        }
+        
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+            outbound.close();
+            connections.remove(this);
+            if (client != null) {
+                handler.onDisconnect(client);
+            }
+        }
+        
+        @Override
+        public boolean isOpen() {
+            return !closed.get();
+        }
+        
+        @Override
+        public int getQueuedFrames() {
+            return outbound.size();
+        }
+        
+        @Override
+        public long getDroppedFrames() {
+            return outbound.getDroppedFrames();
+        }
+        
+        @Override
+        public String getRemoteAddress() {
+            return remoteAddress;
+        }
+    }
+    
+    /**
+     * The selector threads shared by every NIO host, created on first use
+     */
+    private static final class SelectorPool {
+        private static final SelectorLoop[] LOOPS = createLoops();
+        private static final AtomicInteger NEXT = new AtomicInteger();
+        
+        private static SelectorLoop[] createLoops() {
+            int threads = Integer.getInteger("blackjack.nio.threads",
+                Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+            SelectorLoop[] loops = new SelectorLoop[threads];
+            for (int i = 0; i < threads; i++) {
+                loops[i] = new SelectorLoop("nio-selector-" + i);
+            }
+            return loops;
+        }
+        
+        static SelectorLoop next() {
+            return LOOPS[Math.floorMod(NEXT.getAndIncrement(), LOOPS.length)];
+        }
+    }
+    
+    /**
+     * One selector thread: waits for readiness and runs queued tasks
+     * (registrations and flushes) between selects
+     */
+    private static final class SelectorLoop {
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        
+        SelectorLoop(String name) {
+            try {
+                selector = Selector.open();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open selector", e);
+            }
+            Thread thread = new Thread(this::run, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        void execute(Runnable task) {
+            tasks.offer(task);
+            selector.wakeup();
+        }
+        
+        private void run() {
+            while (true) {
+                try {
+                    selector.select();
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+                    
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (key.isValid()) {
+                            ((KeyHandler) key.attachment()).handle(key);
+                        }
+                    }
+                } catch (Exception e) {
+                    System.err.println("[HOST] Selector error: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package network;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * An encoded message with its length header, ready to write
+ * 
+ * Immutable, so one instance can be handed to every connection at the
+ * table: a broadcast is encoded once no matter how many clients receive it.
+ * It also keeps the updates it was encoded from, for in-process clients
+ * that take them as objects. A frame of table broadcasts (events and the
+ * state delta they come with) is supersedable: a client whose queue
+ * overflows can skip it and catch up from one newer snapshot, which
+ * carries the state and whose turn it is. A queued snapshot is not
+ * skipped but refreshed, so the catch-up itself is never lost. Frames meant for one client,
+ * such as command results and session info, and control frames such as
+ * pings, are never superseded.
+ * 
+ * @author Group 12
+ */
+public final class OutboundFrame {
+    private final byte[] bytes; // Header followed by payload
+    private final List<GameUpdateMessage> updates;
+    private final boolean supersedable;
+    private final boolean snapshot;
+    
+    private OutboundFrame(byte[] bytes, List<GameUpdateMessage> updates) {
+        this.bytes = bytes;
+        this.updates = updates;
+        boolean tableOnly = !updates.isEmpty();
+        for (GameUpdateMessage update : updates) {
+            tableOnly &= isSupersededBySnapshot(update.getType());
+        }
+        this.supersedable = tableOnly;
+        this.snapshot = updates.size() == 1
+            && updates.get(0).getType() == GameUpdateMessage.MessageType.STATE_SNAPSHOT;
+    }
+    
+    /**
+     * Whether a snapshot makes an update of this type redundant; the
+     * switch is exhaustive, so a new MessageType does not compile until
+     * it is decided
+     */
+    private static boolean isSupersededBySnapshot(GameUpdateMessage.MessageType type) {
+        return switch (type) {
+            case PLAYER_JOINED, PLAYER_LEFT, PLAYERS_LIST, BET_PLACED, ROUND_STARTED, CARD_DEALT,
+                 PLAYER_HIT, PLAYER_STAND, TURN_CHANGED, DEALER_TURN, ROUND_ENDED, GAME_STATE_UPDATE,
+                 STATE_SNAPSHOT, STATE_DELTA, STRATEGY_CHANGED -> true;
+            case COMMAND_RESULT, SESSION, SPECTATOR_MODE, HOST_DISCONNECTED -> false;
+        };
+    }
+    
+    /**
+     * Frame one encoded update (payload copied once)
+     */
+    public static OutboundFrame forUpdate(GameUpdateMessage update, byte[] payload) {
+        return of(List.of(update), payload);
+    }
+    
+    /**
+     * Frame the payload encoding these updates, alone or as a batch (copied once)
+     */
+    public static OutboundFrame of(List<GameUpdateMessage> updates, byte[] payload) {
+        if (payload.length > MessageFraming.MAX_FRAME_BYTES) {
+            throw new IllegalArgumentException("Frame too large: " + payload.length + " bytes");
+        }
+        ByteBuffer frame = ByteBuffer.allocate(MessageFraming.HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).put(payload);
+        return new OutboundFrame(frame.array(), List.copyOf(updates));
+    }
+    
+    /**
+     * Frame a connection-level message that carries no game updates (a ping)
+     */
+    static OutboundFrame control(byte[] payload) {
+        return of(List.of(), payload);
+    }
+    
+    /**
+     * Total bytes on the wire, header included
+     */
+    public int size() {
+        return bytes.length;
+    }
+    
+    /**
+     * True for broadcast frames that a newer snapshot makes redundant
+     */
+    public boolean isSupersedable() {
+        return supersedable;
+    }
+    
+    /**
+     * True for a frame holding one whole-table snapshot, which a newer
+     * snapshot replaces where it stands in the queue
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * The updates in this frame, in order
+     */
+    public List<GameUpdateMessage> getUpdates() {
+        return updates;
+    }
+    
+    /**
+     * A new read-only buffer over the frame; each connection needs its own
+     * position but they all share the bytes
+     */
+    ByteBuffer asBuffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+    
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,71 @@
+package network;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters for the per-client outbound queues
+ * Per-connection depth is on DesignatedHost.getOutboundQueueDepths()
+ * 
+ * @author Group 12
+ */
+public final class OutboundMetrics {
+    private static final LongAccumulator PEAK_DEPTH = new LongAccumulator(Math::max, 0);
+    private static final LongAdder DROPPED_FRAMES = new LongAdder();
+    private static final LongAdder SNAPSHOT_RESENDS = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+    
+    private OutboundMetrics() {
+        // Utility class - no instantiation
+    }
+    
+    static void recordDepth(int depth) {
+        PEAK_DEPTH.accumulate(depth);
+    }
+    
+    static void recordDropped(int frames) {
+        DROPPED_FRAMES.add(frames);
+    }
+    
+    static void recordSnapshotResend() {
+        SNAPSHOT_RESENDS.increment();
+    }
+    
+    static void recordEviction() {
+        EVICTIONS.increment();
+    }
+    
+    /**
+     * Deepest any outbound queue has been
+     */
+    public static long getPeakDepth() {
+        return PEAK_DEPTH.get();
+    }
+    
+    public static long getDroppedFrames() {
+        return DROPPED_FRAMES.sum();
+    }
+    
+    public static long getSnapshotResends() {
+        return SNAPSHOT_RESENDS.sum();
+    }
+    
+    public static long getEvictions() {
+        return EVICTIONS.sum();
+    }
+    
+    public static void reset() {
+        PEAK_DEPTH.reset();
+        DROPPED_FRAMES.reset();
+        SNAPSHOT_RESENDS.reset();
+        EVICTIONS.reset();
+    }
+    
+    public static String report() {
+        return String.format("Peak queue depth: %d frames (high-water mark %d, %s)%n"
+            + "Dropped frames:   %d broadcast frames, %d snapshots resent%n"
+            + "Evictions:        %d slow clients disconnected",
+            getPeakDepth(), OutboundQueue.HIGH_WATER_MARK, OverflowPolicy.fromSystemProperty(),
+            getDroppedFrames(), getSnapshotResends(), getEvictions());
+    }
+}
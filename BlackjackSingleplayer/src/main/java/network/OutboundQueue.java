@@ -0,0 +1,175 @@
+package network;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue of frames waiting to be written to one client
+ * 
+ * The table's event loop only ever adds to it, so a slow client can
+ * never hold up the rest of the table. The connection's writer (a virtual
+ * thread or a selector thread) drains it. When the queue passes the
+ * high-water mark the OverflowPolicy decides what happens.
+ * 
+ * @author Group 12
+ */
+final class OutboundQueue {
+    static final int HIGH_WATER_MARK = Integer.getInteger("blackjack.outbound.highWater", 256);
+    
+    enum Result {
+        QUEUED,
+        /** Broadcasts were dropped; the client needs a fresh snapshot */
+        STATE_DROPPED,
+        /** Still over the mark; the client should be disconnected */
+        OVERFLOW
+    }
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final ArrayDeque<OutboundFrame> frames = new ArrayDeque<>();
+    private final OverflowPolicy policy;
+    private final int highWaterMark;
+    private long droppedFrames;
+    private boolean closed;
+    
+    OutboundQueue() {
+        this(OverflowPolicy.fromSystemProperty(), HIGH_WATER_MARK);
+    }
+    
+    OutboundQueue(OverflowPolicy policy, int highWaterMark) {
+        this.policy = policy;
+        this.highWaterMark = highWaterMark;
+    }
+    
+    Result offer(OutboundFrame frame) {
+        lock.lock();
+        try {
+            if (closed) {
+                return Result.QUEUED;
+            }
+            if (policy == OverflowPolicy.LATEST_STATE && frame.isSnapshot() && replaceSnapshot(frame)) {
+                return Result.QUEUED;
+            }
+            frames.addLast(frame);
+            notEmpty.signal();
+            int depth = frames.size();
+            OutboundMetrics.recordDepth(depth);
+            if (depth <= highWaterMark) {
+                return Result.QUEUED;
+            }
+            if (policy == OverflowPolicy.LATEST_STATE) {
+                // Every queued broadcast is superseded by the snapshot the host sends next,
+                // which refreshes a snapshot still queued rather than queueing behind it
+                frames.removeIf(queued -> queued.isSupersedable() && !queued.isSnapshot());
+                int dropped = depth - frames.size();
+                if (dropped > 0) {
+                    droppedFrames += dropped;
+                    OutboundMetrics.recordDropped(dropped);
+                }
+                if (frames.size() <= highWaterMark) {
+                    return dropped > 0 ? Result.STATE_DROPPED : Result.QUEUED;
+                }
+            }
+            return Result.OVERFLOW;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Put a newer snapshot in place of one still waiting to be written
+     * The broadcasts queued behind the old one are in the new one too, so
+     * they are dropped; frames meant for this client alone keep their place.
+     */
+    private boolean replaceSnapshot(OutboundFrame snapshot) {
+        List<OutboundFrame> kept = new ArrayList<>(frames.size());
+        boolean replaced = false;
+        for (OutboundFrame queued : frames) {
+            if (!replaced && queued.isSnapshot()) {
+                kept.add(snapshot);
+                replaced = true;
+            } else if (!replaced || !queued.isSupersedable()) {
+                kept.add(queued);
+            }
+        }
+        if (replaced) {
+            int dropped = frames.size() - kept.size();
+            if (dropped > 0) {
+                droppedFrames += dropped;
+                OutboundMetrics.recordDropped(dropped);
+            }
+            frames.clear();
+            frames.addAll(kept);
+        }
+        return replaced;
+    }
+    
+    /**
+     * Next frame, or null if the queue is empty
+     */
+    OutboundFrame poll() {
+        lock.lock();
+        try {
+            return frames.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Wait for the next frame; returns null once the queue is closed
+     */
+    OutboundFrame take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (frames.isEmpty()) {
+                if (closed) {
+                    return null;
+                }
+                notEmpty.await();
+            }
+            return frames.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Discard everything and wake the writer
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            frames.clear();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    int size() {
+        lock.lock();
+        try {
+            return frames.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    long getDroppedFrames() {
+        lock.lock();
+        try {
+            return droppedFrames;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package network;
+
+/**
+ * What a connection does when its outbound queue passes the high-water mark
+ * 
+ * @author Group 12
+ */
+public enum OverflowPolicy {
+    /**
+     * Drop queued table broadcasts, then send the client one fresh
+     * snapshot; disconnect only if messages meant for it alone overflow
+     */
+    LATEST_STATE,
+    /** Disconnect the client straight away */
+    DISCONNECT;
+    
+    private static final String PROPERTY = "blackjack.outbound.policy";
+    
+    /**
+     * Policy from the blackjack.outbound.policy system property (default LATEST_STATE)
+     */
+    public static OverflowPolicy fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isBlank()) {
+            return LATEST_STATE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            System.err.println("[HOST] Unknown " + PROPERTY + " '" + value + "', using LATEST_STATE");
+            return LATEST_STATE;
+        }
+    }
+}
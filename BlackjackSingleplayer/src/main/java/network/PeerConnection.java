@@ -0,0 +1,34 @@
+package network;
+
+/**
+ * Host-side connection to one client, independent of the server engine
+ * 
+ * @author Group 12
+ */
+public interface PeerConnection {
+    /**
+     * Queue or write one frame to the client. The same frame may be sent
+     * to many connections at once.
+     * Safe to call from any thread; frames are sent in call order
+     */
+    void sendFrame(OutboundFrame frame);
+    
+    /**
+     * Close the connection. The engine reports the disconnect once.
+     */
+    void close();
+    
+    boolean isOpen();
+    
+    /**
+     * Frames queued and not yet written
+     */
+    int getQueuedFrames();
+    
+    /**
+     * State frames skipped because the client fell behind
+     */
+    long getDroppedFrames();
+    
+    String getRemoteAddress();
+}
@@ -0,0 +1,25 @@
+package network;
+
+import java.io.IOException;
+
+/**
+ * Accepts client connections for a DesignatedHost and turns their frames
+ * into ConnectionHandler callbacks
+ * 
+ * STRATEGY PATTERN: Strategy interface for the host's transport
+ * 
+ * @author Group 12
+ */
+interface ServerEngine {
+    /**
+     * Bind the port and start accepting clients
+     */
+    void start(ConnectionHandler handler) throws IOException;
+    
+    /**
+     * Stop accepting, close every connection and wait for the engine's own tasks
+     */
+    void shutdown();
+    
+    int getPort();
+}
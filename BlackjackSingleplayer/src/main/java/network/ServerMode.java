@@ -0,0 +1,36 @@
+package network;
+
+/**
+ * Which ServerEngine a DesignatedHost uses
+ * Both speak the same framed protocol, so clients work with either one
+ * 
+ * @author Group 12
+ */
+public enum ServerMode {
+    /** One virtual thread blocked in a read per client */
+    BLOCKING,
+    /** A small shared set of selector threads for every table in the JVM */
+    NIO;
+    
+    private static final String PROPERTY = "blackjack.server.mode";
+    
+    /**
+     * Mode from the blackjack.server.mode system property (default BLOCKING)
+     */
+    public static ServerMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isBlank()) {
+            return BLOCKING;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[HOST] Unknown " + PROPERTY + " '" + value + "', using BLOCKING");
+            return BLOCKING;
+        }
+    }
+    
+    ServerEngine createEngine(int port) {
+        return this == NIO ? new NioServerEngine(port) : new BlockingServerEngine(port);
+    }
+}
@@ -0,0 +1,20 @@
+package network;
+
+import java.io.Serializable;
+
+/**
+ * The session a client's connection belongs to, sent by the host when a
+ * player joins and again when a dropped connection is resumed
+ * 
+ * The client presents the token when it reconnects. Within the grace
+ * period the host still holds the player's seat, so the session carries
+ * on where it stopped; otherwise the player joins again as a new one.
+ * 
+ * @param token       secret identifying this session to the host
+ * @param resumed     true if this connection continues an existing session
+ * @param graceMillis how long the host holds the seat after a drop
+ * 
+ * @author Group 12
+ */
+public record SessionInfo(String token, boolean resumed, long graceMillis) implements Serializable {
+}
@@ -0,0 +1,219 @@
+package network;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sessions of the remote players at a table, and the recent broadcasts a
+ * resuming player may have missed
+ * 
+ * Every remote player gets a secret token when they join. When their
+ * connection drops the seat is held for the grace period
+ * (blackjack.session.graceMs, default 10000): the player keeps their seat
+ * and balance but sits out, so the table never waits for them, and a
+ * reconnect that presents the token is dealt back in. Broadcast frames are numbered,
+ * and the last few hundred (blackjack.session.historyFrames, default 256)
+ * are kept so a resumed client is sent only the ones it missed.
+ * 
+ * Only used on the table's event loop, except hasHeld.
+ * 
+ * @author Group 12
+ */
+final class Sessions {
+    static final long GRACE_MILLIS = Math.max(0, Long.getLong("blackjack.session.graceMs", 10_000));
+    static final int HISTORY_FRAMES = Math.max(1, Integer.getInteger("blackjack.session.historyFrames", 256));
+    private static final long GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(GRACE_MILLIS);
+    
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> byUser = new ConcurrentHashMap<>();
+    private volatile int held;
+    // Newest last; the newest frame is number lastSequence
+    private final ArrayDeque<OutboundFrame> history = new ArrayDeque<>();
+    private long lastSequence;
+    
+    /**
+     * One player's session; its client is null while the seat is held
+     */
+    static final class Session {
+        private final String userId;
+        private final String token;
+        private final String displayName;
+        private ClientPeer client;
+        private long droppedAtNanos;
+        
+        private Session(String userId, String token, ClientPeer client) {
+            this.userId = userId;
+            this.token = token;
+            this.client = client;
+            this.displayName = client.getDisplayName();
+        }
+        
+        String getUserId() {
+            return userId;
+        }
+        
+        String getDisplayName() {
+            return displayName;
+        }
+    }
+    
+    /**
+     * Start a new session for a client that just joined
+     */
+    SessionInfo open(ClientPeer client) {
+        byte[] secret = new byte[16];
+        random.nextBytes(secret);
+        Session session = new Session(client.getUserId(), HexFormat.of().formatHex(secret), client);
+        Session replaced = byUser.put(client.getUserId(), session);
+        if (replaced != null && replaced.client == null) {
+            held--;
+        }
+        return new SessionInfo(session.token, false, GRACE_MILLIS);
+    }
+    
+    /**
+     * Hand a session over to a new connection
+     * @return the session info to send it, or null if the token doesn't
+     *         match a session for this user (expired, or never issued)
+     */
+    SessionInfo resume(ClientPeer client, String token) {
+        Session session = byUser.get(client.getUserId());
+        if (session == null || !MessageDigest.isEqual(
+                session.token.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            return null;
+        }
+        if (session.client == null) {
+            held--;
+        }
+        session.client = client;
+        client.setDisplayName(session.displayName);
+        return new SessionInfo(session.token, true, GRACE_MILLIS);
+    }
+    
+    /**
+     * The client currently attached to a user's session, or null
+     */
+    ClientPeer clientOf(String userId) {
+        Session session = byUser.get(userId);
+        return session != null ? session.client : null;
+    }
+    
+    /**
+     * Hold the seat of a client whose connection dropped
+     * @return false if it has no session to hold (or a newer connection took it over)
+     */
+    boolean hold(ClientPeer client) {
+        Session session = byUser.get(client.getUserId());
+        if (session == null || session.client != client) {
+            return false;
+        }
+        session.client = null;
+        session.droppedAtNanos = System.nanoTime();
+        held++;
+        return true;
+    }
+    
+    boolean isHeld(String userId) {
+        Session session = byUser.get(userId);
+        return session != null && session.client == null;
+    }
+    
+    /**
+     * True while any seat is held (safe to call from any thread)
+     */
+    boolean hasHeld() {
+        return held > 0;
+    }
+    
+    int getHeldCount() {
+        return held;
+    }
+    
+    /**
+     * Held sessions, for the roster of a snapshot
+     */
+    List<Session> heldSessions() {
+        List<Session> sessions = new ArrayList<>();
+        for (Session session : byUser.values()) {
+            if (session.client == null) {
+                sessions.add(session);
+            }
+        }
+        return sessions;
+    }
+    
+    /**
+     * Remove and return the users whose grace period has run out
+     */
+    List<String> expire() {
+        List<String> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Iterator<Session> it = byUser.values().iterator(); it.hasNext(); ) {
+            Session session = it.next();
+            if (session.client == null && now - session.droppedAtNanos > GRACE_NANOS) {
+                it.remove();
+                held--;
+                expired.add(session.userId);
+            }
+        }
+        return expired;
+    }
+    
+    /**
+     * End a player's session for good (they left or were removed)
+     */
+    void close(String userId) {
+        Session session = byUser.remove(userId);
+        if (session != null && session.client == null) {
+            held--;
+        }
+    }
+    
+    // ===== Broadcast history =====
+    
+    /**
+     * Number of the newest broadcast; the next one is this plus one
+     */
+    long lastSequence() {
+        return lastSequence;
+    }
+    
+    /**
+     * Keep a broadcast frame, numbered lastSequence() + 1, for replay
+     */
+    void record(OutboundFrame frame) {
+        history.addLast(frame);
+        if (history.size() > HISTORY_FRAMES) {
+            history.removeFirst();
+        }
+        lastSequence++;
+    }
+    
+    /**
+     * The broadcasts after the given one, oldest first, or null if some of
+     * them are no longer kept (the client then needs a snapshot)
+     */
+    List<OutboundFrame> since(long sequence) {
+        long oldest = lastSequence - history.size() + 1;
+        if (sequence < oldest - 1 || sequence > lastSequence) {
+            return null;
+        }
+        List<OutboundFrame> missed = new ArrayList<>((int) (lastSequence - sequence));
+        long number = oldest;
+        for (OutboundFrame frame : history) {
+            if (number++ > sequence) {
+                missed.add(frame);
+            }
+        }
+        return missed;
+    }
+}
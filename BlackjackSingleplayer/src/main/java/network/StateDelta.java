@@ -0,0 +1,55 @@
+package network;
+
+import model.Card;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One sequence-numbered step of replicated table state
+ * 
+ * The host sends one delta per state change to every client that already
+ * holds a StateSnapshot. A client applies deltas in order and asks for a new
+ * snapshot if a sequence number is skipped.
+ * 
+ * @author Group 12
+ */
+public final class StateDelta implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    public enum Kind {
+        HAND_SET,       // Player's hand replaced (new player or new round)
+        CARDS_ADDED,    // Cards appended to a player's hand
+        BALANCE,        // Player's balance changed
+        BET,            // Player's bet changed
+        PLAYER_REMOVED, // Player left the table
+        DEALER_SET,     // Dealer's hand replaced
+        DEALER_ADDED    // Cards appended to the dealer's hand
+    }
+    
+    /**
+     * A single change; playerId is null for dealer changes, cards is empty
+     * unless the kind carries cards, amount is only used by BALANCE and BET
+     */
+    public record Change(Kind kind, String playerId, List<Card> cards, int amount) implements Serializable {}
+    
+    private final long sequence;
+    private final List<Change> changes;
+    
+    public StateDelta(long sequence, List<Change> changes) {
+        this.sequence = sequence;
+        this.changes = List.copyOf(changes);
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public List<Change> getChanges() {
+        return changes;
+    }
+    
+    @Override
+    public String toString() {
+        return "StateDelta{sequence=" + sequence + ", changes=" + changes.size() + "}";
+    }
+}
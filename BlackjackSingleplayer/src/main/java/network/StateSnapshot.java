@@ -0,0 +1,90 @@
+package network;
+
+import model.Card;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Complete table state as of one sequence number
+ * Sent to a client when it joins and whenever it asks to resync, so it
+ * can render the table from this alone: the hands, balances, bets and
+ * dealer hand that deltas keep current, plus who is seated, whose turn it
+ * is, the round's phase and the rule variant
+ * 
+ * @author Group 12
+ */
+public final class StateSnapshot implements Serializable {
+    private static final long serialVersionUID = 2L;
+    
+    /**
+     * Where the round is
+     */
+    public enum Phase {
+        WAITING,   // No round in progress
+        BETTING,   // Round started, cards not dealt yet
+        PLAYING    // Cards dealt, players taking turns
+    }
+    
+    /**
+     * Table-level state that is not carried by deltas
+     * @param players     everyone seated, in join order
+     * @param currentTurn player to act, or null outside the playing phase
+     * @param strategy    variant name of the rules in use
+     * @param spectators  players waiting for the next round
+     */
+    public record Table(List<PlayerInfo> players, String currentTurn, Phase phase, String strategy,
+                        Set<String> spectators) implements Serializable {
+        public Table {
+            players = List.copyOf(players);
+            spectators = Set.copyOf(spectators);
+        }
+    }
+    
+    private final long sequence;
+    private final Map<String, List<Card>> playerHands;
+    private final Map<String, Integer> playerBalances;
+    private final Map<String, Integer> playerBets;
+    private final List<Card> dealerHand;
+    private final Table table;
+    
+    public StateSnapshot(long sequence, Map<String, List<Card>> playerHands, Map<String, Integer> playerBalances,
+                         Map<String, Integer> playerBets, List<Card> dealerHand, Table table) {
+        this.sequence = sequence;
+        this.playerHands = playerHands;
+        this.playerBalances = playerBalances;
+        this.playerBets = playerBets;
+        this.dealerHand = dealerHand;
+        this.table = table;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public Map<String, List<Card>> getPlayerHands() {
+        return playerHands;
+    }
+    
+    public Map<String, Integer> getPlayerBalances() {
+        return playerBalances;
+    }
+    
+    public Map<String, Integer> getPlayerBets() {
+        return playerBets;
+    }
+    
+    public List<Card> getDealerHand() {
+        return dealerHand;
+    }
+    
+    public Table getTable() {
+        return table;
+    }
+    
+    @Override
+    public String toString() {
+        return "StateSnapshot{sequence=" + sequence + ", players=" + playerHands.size() + ", phase=" + table.phase() + "}";
+    }
+}
@@ -0,0 +1,163 @@
+package network;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-writer event loop for one table
+ * 
+ * Network threads only enqueue work; one thread applies it strictly in
+ * arrival order. Everything that touches the GameEngine or writes to a
+ * client runs here, so the engine's plain collections are never shared and
+ * broadcasts leave in the same order their commands were applied.
+ * The queue is lock-free and an idle loop parks instead of spinning.
+ * 
+ * @author Group 12
+ */
+public class TableEventLoop {
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    
+    public TableEventLoop(String name) {
+        // A virtual thread, so an idle table costs almost nothing
+        this.thread = Thread.ofVirtual().name(name).start(this::run);
+    }
+    
+    /**
+     * Queue a task to run on the loop thread
+     * @return false if the loop is shut down and the task will never run
+     */
+    public boolean execute(Runnable task) {
+        if (!running) {
+            // Late disconnects and commands after shutdown have nothing left to update
+            return false;
+        }
+        tasks.offer(task);
+        // Shut down in between: take the task back unless the loop already has it
+        if (!running && tasks.remove(task)) {
+            return false;
+        }
+        LockSupport.unpark(thread);
+        return true;
+    }
+    
+    /**
+     * Run a task on the loop thread and wait for its result
+     * Runtime exceptions thrown by the task are rethrown to the caller
+     */
+    public <T> T call(Callable<T> task) {
+        if (inEventLoop()) {
+            return callDirectly(task);
+        }
+        Call<T> call = new Call<>(task);
+        if (!execute(call)) {
+            throw new IllegalStateException("Table is shut down");
+        }
+        
+        try {
+            return call.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private static <T> T callDirectly(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+    
+    /**
+     * Whether the calling thread is this loop's thread
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+    
+    private void run() {
+        while (running || !tasks.isEmpty()) {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                task.run();
+            } catch (VirtualMachineError e) {
+                // Out of memory or stack: stop taking work and fail the callers
+                // still waiting, rather than leave them on a loop that is gone
+                running = false;
+                Runnable queued;
+                while ((queued = tasks.poll()) != null) {
+                    if (queued instanceof Call<?> waiting) {
+                        waiting.result.completeExceptionally(new IllegalStateException("Table loop stopped", e));
+                    }
+                }
+                throw e;
+            } catch (Throwable t) {
+                // Any other failure is the task's own; the table keeps going
+                System.err.println("[LOOP] Task failed on " + thread.getName() + ": " + t);
+            }
+        }
+    }
+    
+    /**
+     * A task whose caller waits for its result
+     */
+    private static final class Call<T> implements Runnable {
+        private final Callable<T> task;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        
+        Call(Callable<T> task) {
+            this.task = task;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                result.complete(task.call());
+            } catch (VirtualMachineError e) {
+                result.completeExceptionally(e);
+                throw e;
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+    }
+    
+    /**
+     * Stop the loop once the tasks already queued have run
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+    
+    /**
+     * Wait up to the given time for the loop to finish its queued tasks
+     */
+    public void awaitTermination(long millis) {
+        if (inEventLoop()) {
+            return;
+        }
+        try {
+            thread.join(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package network;
+
+import model.Card;
+import model.GameEngine;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replicated copy of the table's hands, balances, bets and dealer hand
+ * 
+ * On the host it is the shadow of what clients last received: diff()
+ * compares it with the GameEngine and returns only what changed. On a
+ * client it is rebuilt from a StateSnapshot and then kept current by
+ * applying StateDeltas in sequence order. Not thread-safe; each side only
+ * touches it from one thread (the table's event loop or the update
+ * dispatcher).
+ * 
+ * @author Group 12
+ */
+public class TableState {
+    private final Map<String, List<Card>> playerHands = new HashMap<>();
+    private final Map<String, Integer> playerBalances = new HashMap<>();
+    private final Map<String, Integer> playerBets = new HashMap<>();
+    private final List<Card> dealerHand = new ArrayList<>();
+    private long sequence;
+    private boolean synced;
+    
+    // ===== Host side =====
+    
+    /**
+     * Bring this copy up to date with the engine
+     * @return the changes as the next delta, or null if nothing changed
+     */
+    public StateDelta diff(GameEngine engine) {
+        List<StateDelta.Change> changes = new ArrayList<>();
+        
+        for (String playerId : engine.getPlayerIds()) {
+            List<Card> hand = engine.getPlayerHandView(playerId);
+            List<Card> known = playerHands.get(playerId);
+            if (known == null) {
+                changes.add(new StateDelta.Change(StateDelta.Kind.HAND_SET, playerId, List.copyOf(hand), 0));
+            } else if (isPrefix(known, hand)) {
+                if (hand.size() > known.size()) {
+                    changes.add(new StateDelta.Change(StateDelta.Kind.CARDS_ADDED, playerId,
+                        List.copyOf(hand.subList(known.size(), hand.size())), 0));
+                }
+            } else {
+                changes.add(new StateDelta.Change(StateDelta.Kind.HAND_SET, playerId, List.copyOf(hand), 0));
+            }
+            
+            int balance = engine.getPlayerBalance(playerId);
+            if (known == null || playerBalances.getOrDefault(playerId, 0) != balance) {
+                changes.add(new StateDelta.Change(StateDelta.Kind.BALANCE, playerId, List.of(), balance));
+            }
+            int bet = engine.getPlayerBet(playerId);
+            if (known == null || playerBets.getOrDefault(playerId, 0) != bet) {
+                changes.add(new StateDelta.Change(StateDelta.Kind.BET, playerId, List.of(), bet));
+            }
+        }
+        
+        for (String playerId : playerHands.keySet()) {
+            if (engine.getPlayerHandView(playerId) == null) {
+                changes.add(new StateDelta.Change(StateDelta.Kind.PLAYER_REMOVED, playerId, List.of(), 0));
+            }
+        }
+        
+        List<Card> dealer = engine.getDealerHandView();
+        if (isPrefix(dealerHand, dealer)) {
+            if (dealer.size() > dealerHand.size()) {
+                changes.add(new StateDelta.Change(StateDelta.Kind.DEALER_ADDED, null,
+                    List.copyOf(dealer.subList(dealerHand.size(), dealer.size())), 0));
+            }
+        } else {
+            changes.add(new StateDelta.Change(StateDelta.Kind.DEALER_SET, null, List.copyOf(dealer), 0));
+        }
+        
+        if (changes.isEmpty()) {
+            return null;
+        }
+        StateDelta delta = new StateDelta(sequence + 1, changes);
+        applyChanges(delta);
+        return delta;
+    }
+    
+    private static boolean isPrefix(List<Card> prefix, List<Card> list) {
+        if (prefix.size() > list.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++) {
+            if (prefix.get(i) != list.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Copy of the current state for a joining or resyncing client
+     * @param table the table-level state to send with it
+     */
+    public StateSnapshot snapshot(StateSnapshot.Table table) {
+        return new StateSnapshot(sequence, getPlayerHands(), getPlayerBalances(), getPlayerBets(), getDealerHand(), table);
+    }
+    
+    // ===== Client side =====
+    
+    /**
+     * Apply a STATE_SNAPSHOT or STATE_DELTA update; other types are ignored
+     * @return false when a delta was missed and the caller should ask the
+     *         host for a snapshot (reported once per gap)
+     */
+    public boolean apply(GameUpdateMessage message) {
+        if (message.getData() instanceof StateSnapshot snapshot) {
+            load(snapshot);
+        } else if (message.getData() instanceof StateDelta delta) {
+            if (!synced || delta.getSequence() <= sequence) {
+                // Waiting for a snapshot, or already covered by one
+                return true;
+            }
+            if (delta.getSequence() != sequence + 1) {
+                System.err.println("[PEER] Missed state " + (sequence + 1) + "-" + (delta.getSequence() - 1) + ", resyncing");
+                synced = false;
+                return false;
+            }
+            applyChanges(delta);
+        }
+        return true;
+    }
+    
+    public void load(StateSnapshot snapshot) {
+        playerHands.clear();
+        for (Map.Entry<String, List<Card>> entry : snapshot.getPlayerHands().entrySet()) {
+            playerHands.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        playerBalances.clear();
+        playerBalances.putAll(snapshot.getPlayerBalances());
+        playerBets.clear();
+        playerBets.putAll(snapshot.getPlayerBets());
+        dealerHand.clear();
+        dealerHand.addAll(snapshot.getDealerHand());
+        sequence = snapshot.getSequence();
+        synced = true;
+    }
+    
+    private void applyChanges(StateDelta delta) {
+        for (StateDelta.Change change : delta.getChanges()) {
+            String playerId = change.playerId();
+            switch (change.kind()) {
+                case HAND_SET -> playerHands.put(playerId, new ArrayList<>(change.cards()));
+                case CARDS_ADDED -> playerHands.computeIfAbsent(playerId, id -> new ArrayList<>()).addAll(change.cards());
+                case BALANCE -> playerBalances.put(playerId, change.amount());
+                case BET -> playerBets.put(playerId, change.amount());
+                case PLAYER_REMOVED -> {
+                    playerHands.remove(playerId);
+                    playerBalances.remove(playerId);
+                    playerBets.remove(playerId);
+                }
+                case DEALER_SET -> {
+                    dealerHand.clear();
+                    dealerHand.addAll(change.cards());
+                }
+                case DEALER_ADDED -> dealerHand.addAll(change.cards());
+            }
+        }
+        sequence = delta.getSequence();
+    }
+    
+    // ===== Reads =====
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    /**
+     * True once a snapshot has been loaded and no gap has been seen since
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+    
+    public Map<String, List<Card>> getPlayerHands() {
+        Map<String, List<Card>> copy = new HashMap<>();
+        for (Map.Entry<String, List<Card>> entry : playerHands.entrySet()) {
+            copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return copy;
+    }
+    
+    public Map<String, Integer> getPlayerBalances() {
+        return new HashMap<>(playerBalances);
+    }
+    
+    public Map<String, Integer> getPlayerBets() {
+        return new HashMap<>(playerBets);
+    }
+    
+    public List<Card> getDealerHand() {
+        return new ArrayList<>(dealerHand);
+    }
+    
+    /**
+     * Read-only view of one player's hand (empty if unknown)
+     */
+    public List<Card> getHand(String playerId) {
+        List<Card> hand = playerHands.get(playerId);
+        return hand != null ? Collections.unmodifiableList(hand) : List.of();
+    }
+    
+    /**
+     * A player's balance, or null if unknown
+     */
+    public Integer getBalance(String playerId) {
+        return playerBalances.get(playerId);
+    }
+}
@@ -0,0 +1,792 @@
+package network;
+
+import command.Command;
+import command.HitCommand;
+import command.SetBetCommand;
+import command.StandCommand;
+import model.Card;
+import model.GameResult;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Versioned binary encoding of every frame sent between ClientPeer and
+ * DesignatedHost, replacing Java serialization
+ * 
+ * Every payload starts with the protocol version and a message code, then
+ * a body written by an explicit encoder for that code. Cards are one byte
+ * (Card.ordinal), and counts and chip amounts are varints. Players are
+ * table-wide seat indices instead of user ID strings: a seat is introduced
+ * with its user ID in PLAYERS_LIST / PLAYER_JOINED, and later messages
+ * only carry the seat. Table state travels as a StateSnapshot followed by
+ * sequence-numbered StateDeltas. Everything one table action produces is
+ * sent as a single BATCH frame of length-prefixed updates, numbered so a
+ * client that reconnects can say which broadcasts it already has.
+ * Commands carry no player ID at all; the host binds them to the user of
+ * the connection they arrived on. Each carries a sequence number instead,
+ * which the host's COMMAND_RESULT (ACK or NACK) echoes back. PING and
+ * PONG frames are connection-level heartbeats and never reach listeners.
+ * 
+ * One instance holds one side's seat table. The host shares a single
+ * instance for the table and only encodes on its event loop; each client
+ * has its own. The static methods are stateless.
+ * 
+ * @author Group 12
+ */
+public final class WireCodec {
+    public static final int VERSION = 6;
+    public static final int MAX_SEATS = 255;
+    private static final int NO_SEAT = 0xFF;
+    
+    // Client -> host
+    static final int HELLO = 0x40;
+    static final int BET = 0x41;
+    static final int HIT = 0x42;
+    static final int STAND = 0x43;
+    static final int RESYNC = 0x44;
+    static final int PONG = 0x45;
+    static final int BYE = 0x46;
+    
+    // Host -> client, alongside the MessageType codes
+    static final int BATCH = 0x20;
+    static final int PING = 0x21;
+    
+    private static final GameResult[] RESULTS = GameResult.values();
+    private static final StateDelta.Kind[] DELTA_KINDS = StateDelta.Kind.values();
+    private static final StateSnapshot.Phase[] PHASES = StateSnapshot.Phase.values();
+    
+    private final Map<String, Integer> seatsByUser = new HashMap<>();
+    private final String[] usersBySeat = new String[MAX_SEATS];
+    
+    /**
+     * Handshake sent by a client right after connecting; a reconnecting
+     * client also gives its session token and the last broadcast it received
+     */
+    public record Hello(String userId, String displayName, String sessionToken, long lastSequence) {}
+    
+    /**
+     * A decoded command and the sequence number its result must carry
+     */
+    public record CommandRequest(long sequence, Command command) {}
+    
+    // ===== Seats =====
+    
+    /**
+     * Seat of a user, assigning the lowest free seat on first use
+     */
+    public int seatOf(String userId) {
+        Integer seat = seatsByUser.get(userId);
+        if (seat != null) {
+            return seat;
+        }
+        for (int i = 0; i < MAX_SEATS; i++) {
+            if (usersBySeat[i] == null) {
+                usersBySeat[i] = userId;
+                seatsByUser.put(userId, i);
+                return i;
+            }
+        }
+        throw new IllegalStateException("Table is full (" + MAX_SEATS + " seats)");
+    }
+    
+    /**
+     * Free a departed user's seat for reuse
+     */
+    public void releaseSeat(String userId) {
+        Integer seat = seatsByUser.remove(userId);
+        if (seat != null) {
+            usersBySeat[seat] = null;
+        }
+    }
+    
+    private void bindSeat(int seat, String userId) throws IOException {
+        if (seat >= MAX_SEATS) {
+            throw new IOException("Invalid seat " + seat);
+        }
+        String previous = usersBySeat[seat];
+        if (previous != null) {
+            seatsByUser.remove(previous);
+        }
+        Integer oldSeat = seatsByUser.put(userId, seat);
+        if (oldSeat != null && oldSeat != seat) {
+            usersBySeat[oldSeat] = null;
+        }
+        usersBySeat[seat] = userId;
+    }
+    
+    private String userAt(int seat) throws IOException {
+        String userId = seat < MAX_SEATS ? usersBySeat[seat] : null;
+        if (userId == null) {
+            throw new IOException("Unknown seat " + seat);
+        }
+        return userId;
+    }
+    
+    // ===== Client -> host =====
+    
+    public static byte[] encodeHello(String userId, String displayName) {
+        return encodeHello(userId, displayName, null, 0);
+    }
+    
+    public static byte[] encodeHello(String userId, String displayName, String sessionToken, long lastSequence) {
+        Writer out = new Writer(HELLO, 64);
+        out.string(userId);
+        out.string(displayName);
+        out.string(sessionToken);
+        out.varLong(lastSequence);
+        return out.finish("HELLO");
+    }
+    
+    public static Hello decodeHello(byte[] payload) throws IOException {
+        Reader in = new Reader(payload);
+        if (in.code != HELLO) {
+            throw new IOException("Expected HELLO, got message code " + in.code);
+        }
+        String userId = in.string();
+        if (userId == null || userId.isBlank()) {
+            throw new IOException("HELLO without a user ID");
+        }
+        String displayName = in.string();
+        String sessionToken = in.string();
+        long lastSequence = in.varLong();
+        in.end();
+        return new Hello(userId, displayName != null ? displayName : userId, sessionToken, lastSequence);
+    }
+    
+    /**
+     * Sequence number first, then the command's own fields
+     */
+    public static byte[] encodeCommand(Command command, long sequence) {
+        if (command instanceof SetBetCommand bet) {
+            Writer out = new Writer(BET, 16);
+            out.varLong(sequence);
+            out.signedVarInt(bet.getBetAmount());
+            return out.finish("BET");
+        } else if (command instanceof HitCommand) {
+            Writer out = new Writer(HIT, 12);
+            out.varLong(sequence);
+            return out.finish("HIT");
+        } else if (command instanceof StandCommand) {
+            Writer out = new Writer(STAND, 12);
+            out.varLong(sequence);
+            return out.finish("STAND");
+        }
+        throw new IllegalArgumentException("No wire encoding for " + command.getClass().getSimpleName());
+    }
+    
+    /**
+     * Ask the host for a fresh StateSnapshot
+     */
+    public static byte[] encodeResyncRequest() {
+        return new Writer(RESYNC, 2).finish("RESYNC");
+    }
+    
+    /**
+     * True if the payload is a resync request rather than a command
+     */
+    public static boolean isResyncRequest(byte[] payload) {
+        return payload.length == 2 && payload[0] == VERSION && payload[1] == RESYNC;
+    }
+    
+    /**
+     * Echo of a host PING, carrying its nonce back unchanged
+     */
+    public static byte[] encodePong(long nonce) {
+        Writer out = new Writer(PONG, 12);
+        out.varLong(nonce);
+        return out.finish("PONG");
+    }
+    
+    public static boolean isPong(byte[] payload) {
+        return isCode(payload, PONG);
+    }
+    
+    public static long decodePong(byte[] payload) throws IOException {
+        return decodeNonce(payload, PONG);
+    }
+    
+    /**
+     * Sent before closing on purpose, so the host frees the seat at once
+     * instead of holding it for a reconnect
+     */
+    public static byte[] encodeBye() {
+        return new Writer(BYE, 2).finish("BYE");
+    }
+    
+    public static boolean isBye(byte[] payload) {
+        return isCode(payload, BYE);
+    }
+    
+    /**
+     * Decode a command for the user bound to the connection it arrived on
+     */
+    public static CommandRequest decodeCommand(byte[] payload, String userId) throws IOException {
+        Reader in = new Reader(payload);
+        if (in.code != BET && in.code != HIT && in.code != STAND) {
+            throw new IOException("Unknown command code " + in.code);
+        }
+        long sequence = in.varLong();
+        Command command = switch (in.code) {
+            case BET -> new SetBetCommand(userId, in.signedVarInt());
+            case HIT -> new HitCommand(userId);
+            default -> new StandCommand(userId);
+        };
+        in.end();
+        return new CommandRequest(sequence, command);
+    }
+    
+    // ===== Host -> client =====
+    
+    /**
+     * Wire code of each update type; the switch is exhaustive, so a new
+     * MessageType does not compile until it has a code
+     */
+    static int codeOf(GameUpdateMessage.MessageType type) {
+        return switch (type) {
+            case PLAYER_JOINED -> 0x01;
+            case PLAYER_LEFT -> 0x02;
+            case PLAYERS_LIST -> 0x03;
+            case BET_PLACED -> 0x04;
+            case ROUND_STARTED -> 0x05;
+            case CARD_DEALT -> 0x06;
+            case PLAYER_HIT -> 0x07;
+            case PLAYER_STAND -> 0x08;
+            case TURN_CHANGED -> 0x09;
+            case DEALER_TURN -> 0x0A;
+            case ROUND_ENDED -> 0x0B;
+            case GAME_STATE_UPDATE -> 0x0C;
+            case STATE_SNAPSHOT -> 0x10;
+            case STATE_DELTA -> 0x11;
+            case COMMAND_RESULT -> 0x12;
+            case SESSION -> 0x13;
+            case SPECTATOR_MODE -> 0x0D;
+            case HOST_DISCONNECTED -> 0x0E;
+            case STRATEGY_CHANGED -> 0x0F;
+        };
+    }
+    
+    private static GameUpdateMessage.MessageType typeOf(int code) throws IOException {
+        for (GameUpdateMessage.MessageType type : GameUpdateMessage.MessageType.values()) {
+            if (codeOf(type) == code) {
+                return type;
+            }
+        }
+        throw new IOException("Unknown update code " + code);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public byte[] encodeUpdate(GameUpdateMessage message) {
+        GameUpdateMessage.MessageType type = message.getType();
+        Object data = message.getData();
+        Writer out = new Writer(codeOf(type), 64);
+        
+        switch (type) {
+            case PLAYER_JOINED -> writePlayer(out, (PlayerInfo) data);
+            case PLAYERS_LIST -> {
+                List<PlayerInfo> players = (List<PlayerInfo>) data;
+                out.varInt(players.size());
+                for (PlayerInfo player : players) {
+                    writePlayer(out, player);
+                }
+            }
+            case PLAYER_LEFT, BET_PLACED, PLAYER_HIT, PLAYER_STAND -> out.byteValue(seatOf((String) data));
+            case TURN_CHANGED -> out.byteValue(data == null ? NO_SEAT : seatOf((String) data));
+            case ROUND_STARTED -> {
+                // No body
+            }
+            case CARD_DEALT -> out.card((Card) data);
+            case DEALER_TURN -> out.cards((List<Card>) data);
+            case ROUND_ENDED -> {
+                Map<String, GameResult> results = (Map<String, GameResult>) data;
+                out.varInt(results.size());
+                for (Map.Entry<String, GameResult> entry : results.entrySet()) {
+                    out.byteValue(seatOf(entry.getKey()));
+                    out.byteValue(entry.getValue().ordinal());
+                }
+            }
+            case STATE_SNAPSHOT -> writeSnapshot(out, (StateSnapshot) data);
+            case STATE_DELTA -> writeDelta(out, (StateDelta) data);
+            case COMMAND_RESULT -> {
+                CommandResult result = (CommandResult) data;
+                out.varLong(result.sequence());
+                out.string(result.error());
+            }
+            case SESSION -> {
+                SessionInfo session = (SessionInfo) data;
+                out.string(session.token());
+                out.byteValue(session.resumed() ? 1 : 0);
+                out.varLong(session.graceMillis());
+            }
+            case GAME_STATE_UPDATE, SPECTATOR_MODE, HOST_DISCONNECTED, STRATEGY_CHANGED -> out.string((String) data);
+        }
+        return out.finish(type.name());
+    }
+    
+    /**
+     * Heartbeat from the host; the nonce is the host's clock when it was
+     * sent, so the PONG alone is enough to time the round trip
+     */
+    public static byte[] encodePing(long nonce) {
+        Writer out = new Writer(PING, 12);
+        out.varLong(nonce);
+        return out.finish("PING");
+    }
+    
+    public static boolean isPing(byte[] payload) {
+        return isCode(payload, PING);
+    }
+    
+    public static long decodePing(byte[] payload) throws IOException {
+        return decodeNonce(payload, PING);
+    }
+    
+    private static boolean isCode(byte[] payload, int code) {
+        return payload.length >= 2 && payload[0] == VERSION && payload[1] == code;
+    }
+    
+    private static long decodeNonce(byte[] payload, int code) throws IOException {
+        Reader in = new Reader(payload);
+        if (in.code != code) {
+            throw new IOException("Expected heartbeat code " + code + ", got " + in.code);
+        }
+        long nonce = in.varLong();
+        in.end();
+        return nonce;
+    }
+    
+    /**
+     * Pack already encoded updates into one payload, decoded in order by
+     * decodeUpdates
+     */
+    public static byte[] encodeBatch(List<byte[]> updates) {
+        return encodeBatch(0, updates);
+    }
+    
+    /**
+     * A batch numbered with the table's broadcast sequence: a broadcast
+     * carries its own number, a snapshot the number it is consistent with,
+     * and anything else 0
+     */
+    public static byte[] encodeBatch(long sequence, List<byte[]> updates) {
+        int size = 16;
+        for (byte[] update : updates) {
+            size += update.length + 3;
+        }
+        Writer out = new Writer(BATCH, size);
+        out.varLong(sequence);
+        out.varInt(updates.size());
+        for (byte[] update : updates) {
+            out.bytes(update);
+        }
+        // The updates inside were counted when they were encoded
+        return out.finish(null);
+    }
+    
+    /**
+     * Decode a frame holding one update or a BATCH of them
+     */
+    public List<GameUpdateMessage> decodeUpdates(byte[] payload) throws IOException {
+        Reader in = new Reader(payload);
+        if (in.code != BATCH) {
+            return List.of(decodeUpdate(payload));
+        }
+        in.varLong(); // Broadcast sequence, read by frameSequence
+        int count = in.count();
+        List<GameUpdateMessage> updates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            updates.add(decodeUpdate(in.bytes()));
+        }
+        in.end();
+        return updates;
+    }
+    
+    /**
+     * The broadcast sequence number a frame carries, 0 if none
+     */
+    public static long frameSequence(byte[] payload) throws IOException {
+        Reader in = new Reader(payload);
+        return in.code == BATCH ? in.varLong() : 0;
+    }
+    
+    public GameUpdateMessage decodeUpdate(byte[] payload) throws IOException {
+        Reader in = new Reader(payload);
+        GameUpdateMessage.MessageType type = typeOf(in.code);
+        
+        Object data = switch (type) {
+            case PLAYER_JOINED -> readPlayer(in);
+            case PLAYERS_LIST -> {
+                int count = in.count();
+                List<PlayerInfo> players = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    players.add(readPlayer(in));
+                }
+                yield players;
+            }
+            case PLAYER_LEFT -> {
+                String userId = userAt(in.byteValue());
+                releaseSeat(userId);
+                yield userId;
+            }
+            case BET_PLACED, PLAYER_HIT, PLAYER_STAND -> userAt(in.byteValue());
+            case TURN_CHANGED -> {
+                int seat = in.byteValue();
+                yield seat == NO_SEAT ? null : userAt(seat);
+            }
+            case ROUND_STARTED -> null;
+            case CARD_DEALT -> in.card();
+            case DEALER_TURN -> in.cards();
+            case ROUND_ENDED -> {
+                int count = in.count();
+                Map<String, GameResult> results = new HashMap<>();
+                for (int i = 0; i < count; i++) {
+                    String userId = userAt(in.byteValue());
+                    int result = in.byteValue();
+                    if (result >= RESULTS.length) {
+                        throw new IOException("Invalid result " + result);
+                    }
+                    results.put(userId, RESULTS[result]);
+                }
+                yield results;
+            }
+            case STATE_SNAPSHOT -> readSnapshot(in);
+            case STATE_DELTA -> readDelta(in);
+            case COMMAND_RESULT -> new CommandResult(in.varLong(), in.string(), 0);
+            case SESSION -> new SessionInfo(in.string(), in.byteValue() != 0, in.varLong());
+            case GAME_STATE_UPDATE, SPECTATOR_MODE, HOST_DISCONNECTED, STRATEGY_CHANGED -> in.string();
+        };
+        in.end();
+        return new GameUpdateMessage(type, data);
+    }
+    
+    private void writePlayer(Writer out, PlayerInfo player) {
+        out.byteValue(seatOf(player.getUserId()));
+        out.string(player.getUserId());
+        out.string(player.getDisplayName());
+    }
+    
+    private PlayerInfo readPlayer(Reader in) throws IOException {
+        int seat = in.byteValue();
+        String userId = in.string();
+        String displayName = in.string();
+        bindSeat(seat, userId);
+        return new PlayerInfo(userId, displayName);
+    }
+    
+    /**
+     * The roster comes first and binds every seat, so a snapshot can be
+     * decoded without any earlier PLAYERS_LIST
+     */
+    private void writeSnapshot(Writer out, StateSnapshot snapshot) {
+        StateSnapshot.Table table = snapshot.getTable();
+        out.varLong(snapshot.getSequence());
+        out.varInt(table.players().size());
+        for (PlayerInfo player : table.players()) {
+            writePlayer(out, player);
+        }
+        out.cards(snapshot.getDealerHand());
+        out.varInt(snapshot.getPlayerHands().size());
+        for (Map.Entry<String, List<Card>> entry : snapshot.getPlayerHands().entrySet()) {
+            String userId = entry.getKey();
+            out.byteValue(seatOf(userId));
+            out.cards(entry.getValue());
+            out.signedVarInt(snapshot.getPlayerBalances().getOrDefault(userId, 0));
+            out.signedVarInt(snapshot.getPlayerBets().getOrDefault(userId, 0));
+        }
+        out.byteValue(table.currentTurn() == null ? NO_SEAT : seatOf(table.currentTurn()));
+        out.byteValue(table.phase().ordinal());
+        out.string(table.strategy());
+        out.varInt(table.spectators().size());
+        for (String spectator : table.spectators()) {
+            out.byteValue(seatOf(spectator));
+        }
+    }
+    
+    private StateSnapshot readSnapshot(Reader in) throws IOException {
+        long sequence = in.varLong();
+        int playerCount = in.count();
+        List<PlayerInfo> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            players.add(readPlayer(in));
+        }
+        List<Card> dealerHand = in.cards();
+        int count = in.count();
+        Map<String, List<Card>> hands = new HashMap<>();
+        Map<String, Integer> balances = new HashMap<>();
+        Map<String, Integer> bets = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String userId = userAt(in.byteValue());
+            hands.put(userId, in.cards());
+            balances.put(userId, in.signedVarInt());
+            bets.put(userId, in.signedVarInt());
+        }
+        int turnSeat = in.byteValue();
+        String currentTurn = turnSeat == NO_SEAT ? null : userAt(turnSeat);
+        int phase = in.byteValue();
+        if (phase >= PHASES.length) {
+            throw new IOException("Invalid phase " + phase);
+        }
+        String strategy = in.string();
+        int spectatorCount = in.count();
+        Set<String> spectators = new HashSet<>();
+        for (int i = 0; i < spectatorCount; i++) {
+            spectators.add(userAt(in.byteValue()));
+        }
+        StateSnapshot.Table table = new StateSnapshot.Table(players, currentTurn, PHASES[phase], strategy, spectators);
+        return new StateSnapshot(sequence, hands, balances, bets, dealerHand, table);
+    }
+    
+    /**
+     * Each change is its kind, then a seat for player changes, then cards
+     * or an amount depending on the kind
+     */
+    private void writeDelta(Writer out, StateDelta delta) {
+        out.varLong(delta.getSequence());
+        out.varInt(delta.getChanges().size());
+        for (StateDelta.Change change : delta.getChanges()) {
+            out.byteValue(change.kind().ordinal());
+            switch (change.kind()) {
+                case HAND_SET, CARDS_ADDED -> {
+                    out.byteValue(seatOf(change.playerId()));
+                    out.cards(change.cards());
+                }
+                case BALANCE, BET -> {
+                    out.byteValue(seatOf(change.playerId()));
+                    out.signedVarInt(change.amount());
+                }
+                case PLAYER_REMOVED -> out.byteValue(seatOf(change.playerId()));
+                case DEALER_SET, DEALER_ADDED -> out.cards(change.cards());
+            }
+        }
+    }
+    
+    private StateDelta readDelta(Reader in) throws IOException {
+        long sequence = in.varLong();
+        int count = in.count();
+        List<StateDelta.Change> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kindCode = in.byteValue();
+            if (kindCode >= DELTA_KINDS.length) {
+                throw new IOException("Invalid delta kind " + kindCode);
+            }
+            StateDelta.Kind kind = DELTA_KINDS[kindCode];
+            changes.add(switch (kind) {
+                case HAND_SET, CARDS_ADDED -> new StateDelta.Change(kind, userAt(in.byteValue()), in.cards(), 0);
+                case BALANCE, BET -> new StateDelta.Change(kind, userAt(in.byteValue()), List.of(), in.signedVarInt());
+                case PLAYER_REMOVED -> new StateDelta.Change(kind, userAt(in.byteValue()), List.of(), 0);
+                case DEALER_SET, DEALER_ADDED -> new StateDelta.Change(kind, null, in.cards(), 0);
+            });
+        }
+        return new StateDelta(sequence, changes);
+    }
+    
+    // ===== Primitive encoding =====
+    
+    /**
+     * Growable output buffer; starts with the version and message code
+     */
+    private static final class Writer {
+        private byte[] buffer;
+        private int size;
+        
+        Writer(int code, int capacity) {
+            buffer = new byte[Math.max(capacity, 2)];
+            buffer[size++] = (byte) VERSION;
+            buffer[size++] = (byte) code;
+        }
+        
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+        
+        void byteValue(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+        
+        void varInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+        
+        void signedVarInt(int value) {
+            varInt((value << 1) ^ (value >> 31));
+        }
+        
+        void varLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+        
+        /**
+         * Length + 1 (0 means null), then UTF-8 bytes
+         */
+        void string(String value) {
+            if (value == null) {
+                varInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varInt(bytes.length + 1);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+        
+        /**
+         * Length, then the raw bytes
+         */
+        void bytes(byte[] value) {
+            varInt(value.length);
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, size, value.length);
+            size += value.length;
+        }
+        
+        void card(Card card) {
+            byteValue(card.ordinal());
+        }
+        
+        void cards(List<Card> cards) {
+            varInt(cards.size());
+            ensure(cards.size());
+            for (Card card : cards) {
+                buffer[size++] = (byte) card.ordinal();
+            }
+        }
+        
+        byte[] finish(String label) {
+            byte[] payload = Arrays.copyOf(buffer, size);
+            if (label != null) {
+                WireStats.record(label, payload.length);
+            }
+            return payload;
+        }
+    }
+    
+    /**
+     * Bounds-checked reader; malformed input becomes an IOException
+     */
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+        final int code;
+        
+        Reader(byte[] buffer) throws IOException {
+            this.buffer = buffer;
+            int version = byteValue();
+            if (version != VERSION) {
+                throw new IOException("Unsupported protocol version " + version + " (expected " + VERSION + ")");
+            }
+            this.code = byteValue();
+        }
+        
+        int byteValue() throws IOException {
+            if (position >= buffer.length) {
+                throw new IOException("Truncated message");
+            }
+            return buffer[position++] & 0xFF;
+        }
+        
+        int varInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = byteValue();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+        
+        long varLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = byteValue();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+        
+        int signedVarInt() throws IOException {
+            int value = varInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+        
+        /**
+         * A count of the items that follow; each takes at least one byte,
+         * so a count larger than what is left (or negative, from a varint
+         * past 2^31) can only come from a corrupt or hostile frame
+         */
+        int count() throws IOException {
+            int count = varInt();
+            if (count < 0 || count > buffer.length - position) {
+                throw new IOException("Invalid count " + count + " with " + (buffer.length - position) + " bytes left");
+            }
+            return count;
+        }
+        
+        String string() throws IOException {
+            int length = varInt() - 1;
+            if (length == -1) {
+                return null;
+            }
+            if (length < 0 || length > buffer.length - position) {
+                throw new IOException("Truncated message");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        
+        byte[] bytes() throws IOException {
+            int length = count();
+            byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return value;
+        }
+        
+        Card card() throws IOException {
+            int ordinal = byteValue();
+            if (ordinal >= Card.DECK_SIZE) {
+                throw new IOException("Invalid card " + ordinal);
+            }
+            return Card.fromOrdinal(ordinal);
+        }
+        
+        List<Card> cards() throws IOException {
+            int count = count();
+            List<Card> cards = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                cards.add(card());
+            }
+            return cards;
+        }
+        
+        void end() throws IOException {
+            if (position != buffer.length) {
+                throw new IOException((buffer.length - position) + " unexpected trailing bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package network;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters of encoded wire messages and their sizes, per
+ * message type, for comparing protocol changes. A broadcast counts once,
+ * however many clients it is written to.
+ * 
+ * @author Group 12
+ */
+public final class WireStats {
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    
+    private WireStats() {
+        // Utility class - no instantiation
+    }
+    
+    private static final class Counter {
+        final LongAdder messages = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+    }
+    
+    /**
+     * Count one encoded payload (frame header not included)
+     */
+    static void record(String type, int bytes) {
+        Counter counter = COUNTERS.computeIfAbsent(type, t -> new Counter());
+        counter.messages.increment();
+        counter.bytes.add(bytes);
+    }
+    
+    public static long getMessages(String type) {
+        Counter counter = COUNTERS.get(type);
+        return counter != null ? counter.messages.sum() : 0;
+    }
+    
+    public static long getBytes(String type) {
+        Counter counter = COUNTERS.get(type);
+        return counter != null ? counter.bytes.sum() : 0;
+    }
+    
+    public static void reset() {
+        COUNTERS.clear();
+    }
+    
+    /**
+     * Table of messages, total bytes and average bytes per type
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder(String.format("%-18s %10s %12s %8s%n", "Type", "Messages", "Bytes", "Avg"));
+        long totalMessages = 0;
+        long totalBytes = 0;
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(COUNTERS).entrySet()) {
+            long messages = entry.getValue().messages.sum();
+            long bytes = entry.getValue().bytes.sum();
+            totalMessages += messages;
+            totalBytes += bytes;
+            sb.append(String.format("%-18s %10d %12d %8.1f%n", entry.getKey(), messages, bytes, (double) bytes / messages));
+        }
+        sb.append(String.format("%-18s %10d %12d %8.1f", "TOTAL", totalMessages, totalBytes,
+            totalMessages == 0 ? 0.0 : (double) totalBytes / totalMessages));
+        return sb.toString();
+    }
+}
@@ -76,22 +76,12 @@ public class CreateGameObserver implements MenuObserver {
         String displayName = router.getCurrentUser() != null ? 
             router.getCurrentUser().getDisplayName() : userId;
         
-        // Create host (P2P server) - UPnP will attempt automatic port forwarding
+        // Create host (P2P server) - UPnP attempts automatic port forwarding in the background
         host = new DesignatedHost(userId, displayName);
         
-        // Register game with API matchmaking server using public IP if available
-        String publicIP = host.getPublicIP();
-        String hostAddress;
-        
-        if (publicIP != null) {
-            hostAddress = publicIP;
-            System.out.println("[ONLINE] Using public IP: " + publicIP);
-        } else {
-            // Fallback to local IP (won't work over internet)
-            hostAddress = host.getConnectionString().split(":")[0];
-            System.out.println("[ONLINE] WARNING: Using local IP - internet play may not work!");
-        }
-        
+        // Register game with API matchmaking server using the local IP for now
+        // (works on the local network); the public IP is published once UPnP maps the port
+        String hostAddress = host.getConnectionString().split(":")[0];
         int hostPort = host.getPort();
         
         ApiClient.RegisterResponse response = apiClient.registerGame(
@@ -100,6 +90,8 @@ public class CreateGameObserver implements MenuObserver {
         if (!response.success) {
             System.err.println("Failed to register game with API: " + response.error);
             // Continue anyway - can still direct connect
+        } else {
+            publishPublicAddress(host, gameCode, response.hostToken);
         }
         
         // Create peer for this player and connect to host
@@ -125,6 +117,20 @@ public class CreateGameObserver implements MenuObserver {
         router.showMultiplayerTable(peer, host, gameCode);
     }
     
+    /**
+     * Point the API at the host's public IP once UPnP has mapped the port
+     */
+    private void publishPublicAddress(DesignatedHost host, String gameCode, String hostToken) {
+        host.getPublicAddress().thenAccept(publicIP -> {
+            if (publicIP != null) {
+                System.out.println("[ONLINE] Using public IP: " + publicIP);
+                apiClient.updateGameAddress(gameCode, hostToken, publicIP, host.getPort());
+            } else {
+                System.out.println("[ONLINE] WARNING: Using local IP - internet play may not work!");
+            }
+        });
+    }
+    
     /**
      * Generate a short 6-character game code
      */
@@ -0,0 +1,45 @@
+package simulation;
+
+import model.Card;
+import model.HandValue;
+
+/**
+ * Hit/stand subset of multi-deck basic strategy
+ * - Hard 17+ stands, hard 11 or less hits
+ * - Hard 13-16 stands against dealer 2-6, hard 12 against 4-6
+ * - Soft 19+ stands, soft 18 stands against dealer 2-8
+ * 
+ * STRATEGY PATTERN: Concrete Strategy for automated players
+ * 
+ * @author Group 12
+ */
+public class BasicHitStandPolicy implements PlayerPolicy {
+    
+    @Override
+    public boolean shouldHit(HandValue hand, Card dealerUpCard) {
+        int total = hand.bestTotal();
+        int dealer = dealerUpCard.baseValue(); // 2-11
+        
+        // Soft hand: an Ace is counted as 11
+        if (hand.isSoft()) {
+            if (total >= 19) {
+                return false;
+            }
+            if (total == 18) {
+                return dealer >= 9;
+            }
+            return true;
+        }
+        
+        if (total >= 17) {
+            return false;
+        }
+        if (total >= 13) {
+            return dealer >= 7;
+        }
+        if (total == 12) {
+            return dealer < 4 || dealer >= 7;
+        }
+        return true;
+    }
+}
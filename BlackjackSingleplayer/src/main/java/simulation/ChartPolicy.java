@@ -0,0 +1,28 @@
+package simulation;
+
+import model.Card;
+import model.HandValue;
+import strategy.BasicStrategyChart;
+import strategy.PlayerAction;
+
+/**
+ * Plays hands from a compiled basic strategy chart
+ * GameEngine only offers hit and stand, so doubles and surrenders fall back
+ * to the chart's hit/stand alternative
+ * 
+ * STRATEGY PATTERN: Concrete Strategy for automated players
+ * 
+ * @author Group 12
+ */
+public class ChartPolicy implements PlayerPolicy {
+    private final BasicStrategyChart chart;
+    
+    public ChartPolicy(BasicStrategyChart chart) {
+        this.chart = chart;
+    }
+    
+    @Override
+    public boolean shouldHit(HandValue hand, Card dealerUpCard) {
+        return chart.getAction(hand, dealerUpCard.rank()).hitOrStand() == PlayerAction.HIT;
+    }
+}
@@ -0,0 +1,60 @@
+package simulation;
+
+import model.ShoeConfig;
+import strategy.BlackjackStrategy;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless Monte Carlo simulator for blackjack rule variants
+ * Plays hands through GameEngine on every core using fork-join
+ * 
+ * @author Group 12
+ */
+public class MonteCarloSimulator {
+    private static final int DEFAULT_BET = 10;
+    private static final long MIN_LEAF_SIZE = 10_000;
+    private static final long MAX_LEAF_SIZE = 1_000_000;
+    // Leaves per worker thread, so idle workers can steal remaining work
+    private static final int LEAVES_PER_THREAD = 8;
+    
+    private final ForkJoinPool pool;
+    private final PlayerPolicy policy;
+    private final int betSize;
+    
+    public MonteCarloSimulator() {
+        this(ForkJoinPool.commonPool(), new BasicHitStandPolicy(), DEFAULT_BET);
+    }
+    
+    public MonteCarloSimulator(ForkJoinPool pool, PlayerPolicy policy, int betSize) {
+        this.pool = pool;
+        this.policy = policy;
+        this.betSize = betSize;
+    }
+    
+    /**
+     * Play the given number of hands under a strategy's rules with the default shoe
+     */
+    public SimulationStats simulate(BlackjackStrategy strategy, long hands) {
+        return simulate(strategy, ShoeConfig.DEFAULT, hands);
+    }
+    
+    /**
+     * Play the given number of hands under a strategy's rules
+     * @param strategy the rule variant to simulate
+     * @param shoeConfig decks and penetration of every simulated table
+     * @param hands number of hands to play
+     * @return the combined statistics from all workers
+     */
+    public SimulationStats simulate(BlackjackStrategy strategy, ShoeConfig shoeConfig, long hands) {
+        if (hands < 1) {
+            throw new IllegalArgumentException("Must simulate at least 1 hand");
+        }
+        long leafSize = hands / ((long) pool.getParallelism() * LEAVES_PER_THREAD);
+        leafSize = Math.max(MIN_LEAF_SIZE, Math.min(MAX_LEAF_SIZE, leafSize));
+        return pool.invoke(new SimulationTask(strategy, shoeConfig, policy, hands, leafSize, betSize));
+    }
+    
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+}
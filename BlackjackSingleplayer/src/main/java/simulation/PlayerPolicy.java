@@ -0,0 +1,22 @@
+package simulation;
+
+import model.Card;
+import model.HandValue;
+
+/**
+ * Decides how a simulated player plays their hand
+ * 
+ * STRATEGY PATTERN: Strategy interface for automated players
+ * 
+ * @author Group 12
+ */
+public interface PlayerPolicy {
+    
+    /**
+     * Decide whether the player takes another card
+     * @param hand the running value of the player's current cards
+     * @param dealerUpCard the dealer's face-up card
+     * @return true to hit, false to stand
+     */
+    boolean shouldHit(HandValue hand, Card dealerUpCard);
+}
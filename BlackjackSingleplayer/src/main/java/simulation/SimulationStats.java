@@ -0,0 +1,151 @@
+package simulation;
+
+import model.GameResult;
+
+/**
+ * Accumulated outcome counts and net results of simulated hands
+ * Partial results from parallel workers are combined with merge()
+ * 
+ * @author Group 12
+ */
+public class SimulationStats {
+    private static final double Z_95 = 1.959964; // two-sided 95% confidence
+    
+    private final int betSize;
+    private long hands;
+    private long wins;
+    private long pushes;
+    private long losses;
+    private long blackjacks;
+    private long netChips;
+    private long netChipsSquared;
+    
+    public SimulationStats(int betSize) {
+        if (betSize < 1) {
+            throw new IllegalArgumentException("Bet size must be at least 1");
+        }
+        this.betSize = betSize;
+    }
+    
+    /**
+     * Record one finished hand
+     * @param result the engine's result for the hand
+     * @param net chips won (positive) or lost (negative) on the hand
+     */
+    public void record(GameResult result, int net) {
+        hands++;
+        netChips += net;
+        netChipsSquared += (long) net * net;
+        
+        switch (result) {
+            case PLAYER_BLACKJACK:
+                blackjacks++;
+                wins++;
+                break;
+            case PLAYER_WIN:
+                wins++;
+                break;
+            case PUSH:
+                pushes++;
+                break;
+            default:
+                losses++;
+                break;
+        }
+    }
+    
+    /**
+     * Add the counts of another partial result to this one
+     */
+    public SimulationStats merge(SimulationStats other) {
+        if (other.betSize != betSize) {
+            throw new IllegalArgumentException("Cannot merge results with different bet sizes");
+        }
+        hands += other.hands;
+        wins += other.wins;
+        pushes += other.pushes;
+        losses += other.losses;
+        blackjacks += other.blackjacks;
+        netChips += other.netChips;
+        netChipsSquared += other.netChipsSquared;
+        return this;
+    }
+    
+    public long getHands() {
+        return hands;
+    }
+    
+    public long getWins() {
+        return wins;
+    }
+    
+    public long getPushes() {
+        return pushes;
+    }
+    
+    public long getLosses() {
+        return losses;
+    }
+    
+    public long getBlackjacks() {
+        return blackjacks;
+    }
+    
+    /**
+     * Mean player return per hand, in units of the initial bet
+     */
+    public double getExpectedReturn() {
+        if (hands == 0) {
+            return 0.0;
+        }
+        return (double) netChips / hands / betSize;
+    }
+    
+    /**
+     * House edge as a fraction of the initial bet (positive favours the house)
+     */
+    public double getHouseEdge() {
+        return -getExpectedReturn();
+    }
+    
+    /**
+     * Variance of the per-hand result, in squared units of the initial bet
+     */
+    public double getVariance() {
+        if (hands < 2) {
+            return 0.0;
+        }
+        double mean = (double) netChips / hands;
+        double meanSquare = (double) netChipsSquared / hands;
+        double variance = (meanSquare - mean * mean) * hands / (hands - 1);
+        return variance / ((double) betSize * betSize);
+    }
+    
+    /**
+     * Half-width of the 95% confidence interval of the house edge
+     */
+    public double getHouseEdgeMargin() {
+        if (hands == 0) {
+            return 0.0;
+        }
+        return Z_95 * Math.sqrt(getVariance() / hands);
+    }
+    
+    /**
+     * Fraction of hands that ended with the given count
+     */
+    public double rate(long count) {
+        return hands == 0 ? 0.0 : (double) count / hands;
+    }
+    
+    /**
+     * Half-width of the 95% confidence interval of a rate
+     */
+    public double rateMargin(long count) {
+        if (hands == 0) {
+            return 0.0;
+        }
+        double p = rate(count);
+        return Z_95 * Math.sqrt(p * (1 - p) / hands);
+    }
+}
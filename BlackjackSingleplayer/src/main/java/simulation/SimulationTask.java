@@ -0,0 +1,92 @@
+package simulation;
+
+import model.Card;
+import model.GameEngine;
+import model.GameResult;
+import model.ShoeConfig;
+import strategy.BlackjackStrategy;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join task that plays a range of hands through its own GameEngine
+ * Large ranges are split in half until they are small enough to play directly
+ * 
+ * @author Group 12
+ */
+public class SimulationTask extends RecursiveTask<SimulationStats> {
+    private static final long serialVersionUID = 1L;
+    private static final String SEAT = "sim";
+    // Refill the seat before the balance can run low or overflow
+    private static final int STARTING_BALANCE = 1_000_000_000;
+    private static final int REFILL_BELOW = 100_000_000;
+    
+    private final BlackjackStrategy strategy;
+    private final ShoeConfig shoeConfig;
+    private final PlayerPolicy policy;
+    private final long hands;
+    private final long leafSize;
+    private final int betSize;
+    
+    public SimulationTask(BlackjackStrategy strategy, ShoeConfig shoeConfig, PlayerPolicy policy,
+                          long hands, long leafSize, int betSize) {
+        this.strategy = strategy;
+        this.shoeConfig = shoeConfig;
+        this.policy = policy;
+        this.hands = hands;
+        this.leafSize = leafSize;
+        this.betSize = betSize;
+    }
+    
+    @Override
+    protected SimulationStats compute() {
+        if (hands <= leafSize) {
+            return playHands();
+        }
+        
+        long half = hands / 2;
+        SimulationTask left = new SimulationTask(strategy, shoeConfig, policy, half, leafSize, betSize);
+        SimulationTask right = new SimulationTask(strategy, shoeConfig, policy, hands - half, leafSize, betSize);
+        left.fork();
+        SimulationStats rightStats = right.compute();
+        return left.join().merge(rightStats);
+    }
+    
+    /**
+     * Play this task's hands one round at a time on a private engine
+     */
+    private SimulationStats playHands() {
+        SimulationStats stats = new SimulationStats(betSize);
+        GameEngine engine = newEngine();
+        
+        for (long i = 0; i < hands; i++) {
+            if (engine.getPlayerBalance(SEAT) < REFILL_BELOW) {
+                engine = newEngine();
+            }
+            
+            engine.startRound();
+            int balanceBefore = engine.getPlayerBalance(SEAT);
+            engine.processBet(SEAT, betSize);
+            engine.dealCards();
+            
+            Card dealerUpCard = engine.getDealerHand().get(0);
+            while (!engine.allPlayersFinished()) {
+                if (policy.shouldHit(engine.getPlayerHandValue(SEAT), dealerUpCard)) {
+                    engine.processHit(SEAT);
+                } else {
+                    engine.processStand(SEAT);
+                }
+            }
+            
+            engine.playDealerTurn();
+            GameResult result = engine.determineResults().get(SEAT);
+            stats.record(result, engine.getPlayerBalance(SEAT) - balanceBefore);
+        }
+        return stats;
+    }
+    
+    private GameEngine newEngine() {
+        GameEngine engine = new GameEngine(strategy, shoeConfig);
+        engine.addPlayer(SEAT, STARTING_BALANCE);
+        return engine;
+    }
+}
@@ -1,9 +1,7 @@
 package strategy;
 
-import model.Card;
-import model.CardInPlay;
 import model.Hand;
-import model.Rank;
+import model.HandValue;
 
 /**
  * Abstract base class for blackjack strategies with common functionality
@@ -17,54 +15,21 @@ public abstract class AbstractBlackjackStrategy implements BlackjackStrategy {
     
     @Override
     public int calculateHandValue(Hand hand) {
-        int value = 0;
-        int aces = 0;
-        
-        for (CardInPlay cip : hand.cards()) {
-            Card card = cip.card();
-            Rank rank = card.rank();
-            if (rank == Rank.ACE) {
-                aces++;
-                value += 11;
-            } else {
-                value += rank.value();
-            }
-        }
-        
-        // Adjust for aces if busted
-        while (value > 21 && aces > 0) {
-            value -= 10;
-            aces--;
-        }
-        
-        return value;
+        HandValue value = hand.value();
+        return HandEvaluationTable.bestTotal(value.hardTotal(), value.aceCount());
     }
     
     @Override
     public boolean isBlackjack(Hand hand) {
         // Standard blackjack: exactly 2 cards totaling 21
-        return hand.cards().size() == 2 && calculateHandValue(hand) == 21;
+        return hand.value().isBlackjack();
     }
     
     /**
      * Determine if a hand is a soft hand (has an ace counted as 11)
      */
     protected boolean isSoftHand(Hand hand) {
-        int value = 0;
-        boolean hasAce = false;
-        
-        for (CardInPlay cip : hand.cards()) {
-            Card card = cip.card();
-            Rank rank = card.rank();
-            if (rank == Rank.ACE) {
-                hasAce = true;
-                value += 11;
-            } else {
-                value += rank.value();
-            }
-        }
-        
-        // It's a soft hand if we have an ace counted as 11 and haven't busted
-        return hasAce && value <= 21;
+        HandValue value = hand.value();
+        return HandEvaluationTable.isSoft(HandEvaluationTable.lookup(value.hardTotal(), value.aceCount()));
     }
 }
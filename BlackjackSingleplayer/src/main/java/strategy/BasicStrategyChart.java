@@ -0,0 +1,106 @@
+package strategy;
+
+import model.HandValue;
+import model.Rank;
+
+/**
+ * Compiled basic strategy chart for one rule set
+ * 
+ * Decisions are stored in a flat byte array indexed by
+ * (player total, soft flag, pair value class, dealer up-card value class),
+ * so looking up a decision is a single array read.
+ * Value classes follow Rank.valueClass(): 0 = Ace, 1-8 = 2-9, 9 = ten-valued.
+ * 
+ * @author Group 12
+ */
+public final class BasicStrategyChart {
+    /** Highest player total with its own rows */
+    public static final int MAX_TOTAL = 21;
+    /** Pair index used for hands that are not a pair */
+    public static final int NO_PAIR = -1;
+    
+    private static final int TOTALS = MAX_TOTAL + 1;
+    private static final int PAIRS = Rank.VALUE_CLASSES + 1; // slot 0 = not a pair
+    private static final int UP_CARDS = Rank.VALUE_CLASSES;
+    
+    /** Number of entries in a compiled chart */
+    public static final int SIZE = TOTALS * 2 * PAIRS * UP_CARDS;
+    
+    private final String rulesKey;
+    private final byte[] table;
+    
+    BasicStrategyChart(String rulesKey, byte[] table) {
+        if (table.length != SIZE) {
+            throw new IllegalArgumentException("Chart must have " + SIZE + " entries, got " + table.length);
+        }
+        this.rulesKey = rulesKey;
+        this.table = table;
+    }
+    
+    static int index(int playerTotal, boolean soft, int pairClass, int dealerUpClass) {
+        return ((Math.min(playerTotal, MAX_TOTAL) * 2 + (soft ? 1 : 0)) * PAIRS + (pairClass + 1)) * UP_CARDS + dealerUpClass;
+    }
+    
+    /**
+     * Look up a decision
+     * @param playerTotal the hand's best total
+     * @param soft whether an Ace is counted as 11
+     * @param pairClass value class of a two-card pair, or NO_PAIR
+     * @param dealerUpClass value class of the dealer's up-card
+     */
+    public PlayerAction getAction(int playerTotal, boolean soft, int pairClass, int dealerUpClass) {
+        return PlayerAction.fromCode(table[index(playerTotal, soft, pairClass, dealerUpClass)]);
+    }
+    
+    /**
+     * Look up the decision for a hand that is not a pair
+     */
+    public PlayerAction getAction(HandValue hand, Rank dealerUpCard) {
+        return getAction(hand.bestTotal(), hand.isSoft(), NO_PAIR, dealerUpCard.valueClass());
+    }
+    
+    /**
+     * Key describing the rules this chart was generated for
+     */
+    public String getRulesKey() {
+        return rulesKey;
+    }
+    
+    /**
+     * Copy of the compiled table (as written to the chart cache)
+     */
+    byte[] toBytes() {
+        return table.clone();
+    }
+    
+    /**
+     * Render the chart in the usual hard / soft / pairs layout
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(rulesKey).append('\n');
+        sb.append("        2   3   4   5   6   7   8   9   T   A\n");
+        for (int total = 5; total <= 20; total++) {
+            appendRow(sb, "H" + total, total, false, NO_PAIR);
+        }
+        for (int total = 13; total <= 20; total++) {
+            appendRow(sb, "A," + (total - 11), total, true, NO_PAIR);
+        }
+        for (int pair = 0; pair < Rank.VALUE_CLASSES; pair++) {
+            String card = pair == 0 ? "A" : pair == 9 ? "T" : String.valueOf(pair + 1);
+            int total = pair == 0 ? 12 : (pair + 1) * 2;
+            appendRow(sb, card + "," + card, total, pair == 0, pair);
+        }
+        return sb.toString();
+    }
+    
+    private void appendRow(StringBuilder sb, String label, int total, boolean soft, int pairClass) {
+        sb.append(String.format("%-6s", label));
+        // Dealer columns in chart order: 2-9, ten, Ace
+        for (int col = 0; col < UP_CARDS; col++) {
+            int up = col == UP_CARDS - 1 ? 0 : col + 1;
+            sb.append(String.format("%4s", getAction(total, soft, pairClass, up).symbol()));
+        }
+        sb.append('\n');
+    }
+}
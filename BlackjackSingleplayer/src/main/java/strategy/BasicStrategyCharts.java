@@ -0,0 +1,113 @@
+package strategy;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of compiled basic strategy charts
+ * 
+ * Charts are stored on disk under a hash of their rule set, so they are
+ * generated once and simply loaded on later runs. The cache directory is
+ * ~/.blackjack/strategy-cache unless the blackjack.cache.dir system
+ * property points elsewhere.
+ * 
+ * @author Group 12
+ */
+public final class BasicStrategyCharts {
+    private static final int MAGIC = 0x424A5343; // "BJSC"
+    private static final String CACHE_DIR_PROPERTY = "blackjack.cache.dir";
+    
+    private static final Map<String, BasicStrategyChart> charts = new ConcurrentHashMap<>();
+    
+    private BasicStrategyCharts() {
+        // Utility class - no instantiation
+    }
+    
+    /**
+     * Get the chart for a rule set, loading it from the disk cache or
+     * generating (and caching) it the first time
+     */
+    public static BasicStrategyChart forStrategy(BlackjackStrategy rules, int deckCount) {
+        String rulesKey = BasicStrategyGenerator.rulesKey(rules, deckCount);
+        return charts.computeIfAbsent(rulesKey, key -> loadOrGenerate(rules, deckCount, key));
+    }
+    
+    private static BasicStrategyChart loadOrGenerate(BlackjackStrategy rules, int deckCount, String rulesKey) {
+        Path file = cacheFile(rulesKey);
+        if (Files.isRegularFile(file)) {
+            try {
+                return read(file, rulesKey);
+            } catch (IOException e) {
+                System.err.println("[STRATEGY] Ignoring unreadable chart cache " + file + ": " + e.getMessage());
+            }
+        }
+        
+        System.out.println("[STRATEGY] Generating basic strategy chart for " + rules.getVariantName()
+            + " (" + deckCount + (deckCount == 1 ? " deck)" : " decks)"));
+        BasicStrategyChart chart = BasicStrategyGenerator.generate(rules, deckCount);
+        try {
+            write(file, chart);
+        } catch (IOException e) {
+            System.err.println("[STRATEGY] Could not cache chart at " + file + ": " + e.getMessage());
+        }
+        return chart;
+    }
+    
+    private static BasicStrategyChart read(Path file, String rulesKey) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a chart file");
+            }
+            String storedKey = in.readUTF();
+            if (!storedKey.equals(rulesKey)) {
+                throw new IOException("chart was generated for different rules");
+            }
+            byte[] table = new byte[in.readInt()];
+            in.readFully(table);
+            return new BasicStrategyChart(rulesKey, table);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+    
+    private static void write(Path file, BasicStrategyChart chart) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), "chart", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            byte[] table = chart.toBytes();
+            out.writeInt(MAGIC);
+            out.writeUTF(chart.getRulesKey());
+            out.writeInt(table.length);
+            out.write(table);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    static Path cacheFile(String rulesKey) {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+        Path base = dir != null
+            ? Paths.get(dir)
+            : Paths.get(System.getProperty("user.home"), ".blackjack", "strategy-cache");
+        return base.resolve(hash(rulesKey) + ".chart");
+    }
+    
+    private static String hash(String rulesKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rulesKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
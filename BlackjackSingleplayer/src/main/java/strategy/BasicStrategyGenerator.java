@@ -0,0 +1,236 @@
+package strategy;
+
+import model.Rank;
+import java.util.Arrays;
+
+/**
+ * Derives a basic strategy chart for a rule set by combinatorial analysis
+ * 
+ * For every dealer up-card the dealer's final-total distribution comes from
+ * DealerOutcomeCalculator on a full shoe (minus the up-card). Player draws
+ * use the same shoe's card frequencies (infinite-deck approximation), which
+ * gives the expected value of standing, hitting, doubling, splitting and
+ * surrendering for every hand; the best one goes in the chart. Split hands
+ * are played once without resplitting.
+ * 
+ * Without a dealer peek (European no-hole-card rules) a dealer natural
+ * takes every bet on the table, including doubles and splits.
+ * 
+ * @author Group 12
+ */
+public final class BasicStrategyGenerator {
+    /** Bump when the analysis changes so cached charts are regenerated */
+    static final int VERSION = 1;
+    
+    private static final int MAX_HARD = 31; // highest hard total reachable by hitting a live hand
+    private static final double NOT_ALLOWED = Double.NEGATIVE_INFINITY;
+    
+    private BasicStrategyGenerator() {
+        // Utility class - no instantiation
+    }
+    
+    /**
+     * Key identifying everything the generated chart depends on
+     */
+    public static String rulesKey(BlackjackStrategy rules, int deckCount) {
+        return "decks=" + deckCount
+            + ";h17=" + rules.dealerHitsOnSoft17()
+            + ";peek=" + rules.dealerPeeksForBlackjack()
+            + ";surrender=" + rules.allowsSurrender()
+            + ";das=" + rules.canDoubleAfterSplit()
+            + ";splits=" + rules.getMaxSplits()
+            + ";rsa=" + rules.canResplitAces()
+            + ";bj=" + rules.getBlackjackPayoutMultiplier()
+            + ";win=" + rules.getWinPayoutMultiplier()
+            + ";gen=" + VERSION;
+    }
+    
+    /**
+     * Generate the chart for a rule set and number of decks
+     */
+    public static BasicStrategyChart generate(BlackjackStrategy rules, int deckCount) {
+        byte[] table = new byte[BasicStrategyChart.SIZE];
+        Arrays.fill(table, (byte) PlayerAction.HIT.ordinal());
+        
+        for (int up = 0; up < Rank.VALUE_CLASSES; up++) {
+            new UpCardAnalysis(rules, deckCount, up).fill(table);
+        }
+        return new BasicStrategyChart(rulesKey(rules, deckCount), table);
+    }
+    
+    /**
+     * Rank with the given value class (ten-valued cards map to TEN)
+     */
+    private static Rank rankOf(int valueClass) {
+        if (valueClass == 0) return Rank.ACE;
+        return Rank.values()[valueClass - 1];
+    }
+    
+    /**
+     * Expected values of every player decision against one dealer up-card
+     */
+    private static final class UpCardAnalysis {
+        private final BlackjackStrategy rules;
+        private final int up;
+        private final double[] draw = new double[Rank.VALUE_CLASSES]; // player draw probabilities
+        private final double[] dealer; // final-total distribution given no dealer natural
+        private final double dealerNatural; // chance of losing every bet to a natural (no peek)
+        private final double[][] bestPlay = new double[MAX_HARD + 1][2]; // best EV after taking a card
+        
+        UpCardAnalysis(BlackjackStrategy rules, int deckCount, int up) {
+            this.rules = rules;
+            this.up = up;
+            
+            int[] shoe = new int[Rank.VALUE_CLASSES];
+            for (int c = 0; c < Rank.VALUE_CLASSES; c++) {
+                shoe[c] = (c == Rank.VALUE_CLASSES - 1 ? 16 : 4) * deckCount;
+            }
+            shoe[up]--;
+            int total = Arrays.stream(shoe).sum();
+            for (int c = 0; c < Rank.VALUE_CLASSES; c++) {
+                draw[c] = (double) shoe[c] / total;
+            }
+            
+            double[] outcome = DealerOutcomeCalculator.calculate(rankOf(up), shoe, rules).toArray();
+            dealerNatural = outcome[DealerOutcome.BLACKJACK];
+            dealer = new double[DealerOutcome.BUST + 1];
+            for (int i = 0; i < dealer.length; i++) {
+                dealer[i] = outcome[i] / (1 - dealerNatural);
+            }
+            
+            // Best of hit/stand after taking cards, from high totals down
+            for (int hard = MAX_HARD; hard >= 2; hard--) {
+                for (int ace = 0; ace <= 1; ace++) {
+                    int entry = HandEvaluationTable.lookup(hard, ace);
+                    bestPlay[hard][ace] = HandEvaluationTable.isBust(entry)
+                        ? -1.0
+                        : Math.max(stand(HandEvaluationTable.bestTotal(entry)), hit(hard, ace));
+                }
+            }
+        }
+        
+        /**
+         * EV of standing on a total, given no dealer natural
+         */
+        private double stand(int total) {
+            double ev = dealer[DealerOutcome.BUST];
+            for (int d = 17; d <= 21; d++) {
+                if (total > d) ev += dealer[d - 17];
+                else if (total < d) ev -= dealer[d - 17];
+            }
+            return ev;
+        }
+        
+        private double hit(int hard, int ace) {
+            double ev = 0;
+            for (int c = 0; c < Rank.VALUE_CLASSES; c++) {
+                int next = hard + c + 1;
+                ev += draw[c] * (next > 21 ? -1.0 : bestPlay[next][c == 0 ? 1 : ace]);
+            }
+            return ev;
+        }
+        
+        private double doubleDown(int hard, int ace) {
+            double ev = 0;
+            for (int c = 0; c < Rank.VALUE_CLASSES; c++) {
+                int entry = HandEvaluationTable.lookup(hard + c + 1, c == 0 ? 1 : ace);
+                ev += draw[c] * (HandEvaluationTable.isBust(entry) ? -1.0 : stand(HandEvaluationTable.bestTotal(entry)));
+            }
+            return 2 * ev;
+        }
+        
+        /**
+         * EV of splitting a pair, playing each hand once (no resplits)
+         */
+        private double split(int pair) {
+            double ev = 0;
+            for (int c = 0; c < Rank.VALUE_CLASSES; c++) {
+                int hard = pair + 1 + c + 1;
+                int ace = (pair == 0 || c == 0) ? 1 : 0;
+                if (pair == 0) {
+                    // Split Aces receive one card each
+                    ev += draw[c] * stand(HandEvaluationTable.bestTotal(hard, ace));
+                } else {
+                    double best = Math.max(stand(HandEvaluationTable.bestTotal(hard, ace)), hit(hard, ace));
+                    if (rules.canDoubleAfterSplit()) {
+                        best = Math.max(best, doubleDown(hard, ace));
+                    }
+                    ev += draw[c] * best;
+                }
+            }
+            return 2 * ev;
+        }
+        
+        /**
+         * Overall EV, accounting for a dealer natural when the dealer does not peek
+         * @param stake bets at risk (2 after doubling or splitting)
+         */
+        private double overall(double ev, int stake) {
+            if (ev == NOT_ALLOWED) {
+                return ev;
+            }
+            return (1 - dealerNatural) * ev - dealerNatural * stake;
+        }
+        
+        void fill(byte[] table) {
+            // Hard totals, then soft totals (hard total + 10 with an Ace)
+            for (int total = 4; total <= 21; total++) {
+                fillTotal(table, total, total, 0);
+            }
+            for (int total = 12; total <= 21; total++) {
+                fillTotal(table, total, total - 10, 1);
+            }
+            
+            // Pairs: split if it beats the best non-split decision
+            for (int pair = 0; pair < Rank.VALUE_CLASSES; pair++) {
+                boolean soft = pair == 0;
+                int total = soft ? 12 : (pair + 1) * 2;
+                int hard = (pair + 1) * 2;
+                int ace = soft ? 1 : 0;
+                
+                double splitEv = rules.getMaxSplits() > 0 ? overall(split(pair), 2) : NOT_ALLOWED;
+                if (splitEv > bestInitial(hard, ace)) {
+                    table[BasicStrategyChart.index(total, soft, pair, up)] = (byte) PlayerAction.SPLIT.ordinal();
+                }
+            }
+        }
+        
+        /**
+         * Write the non-pair decision for a total, and use it as the default
+         * for every pair slot of that total
+         */
+        private void fillTotal(byte[] table, int total, int hard, int ace) {
+            boolean soft = ace == 1;
+            byte action = (byte) decide(hard, ace).ordinal();
+            for (int pair = BasicStrategyChart.NO_PAIR; pair < Rank.VALUE_CLASSES; pair++) {
+                table[BasicStrategyChart.index(total, soft, pair, up)] = action;
+            }
+        }
+        
+        private double bestInitial(int hard, int ace) {
+            double standEv = overall(stand(HandEvaluationTable.bestTotal(hard, ace)), 1);
+            double hitEv = overall(hit(hard, ace), 1);
+            double doubleEv = overall(doubleDown(hard, ace), 2);
+            double surrenderEv = rules.allowsSurrender() ? -0.5 : NOT_ALLOWED;
+            return Math.max(Math.max(standEv, hitEv), Math.max(doubleEv, surrenderEv));
+        }
+        
+        private PlayerAction decide(int hard, int ace) {
+            double standEv = overall(stand(HandEvaluationTable.bestTotal(hard, ace)), 1);
+            double hitEv = overall(hit(hard, ace), 1);
+            double doubleEv = overall(doubleDown(hard, ace), 2);
+            double surrenderEv = rules.allowsSurrender() ? -0.5 : NOT_ALLOWED;
+            
+            boolean hitOverStand = hitEv > standEv;
+            double hitStandEv = Math.max(hitEv, standEv);
+            
+            if (surrenderEv > hitStandEv && surrenderEv > doubleEv) {
+                return hitOverStand ? PlayerAction.SURRENDER_OR_HIT : PlayerAction.SURRENDER_OR_STAND;
+            }
+            if (doubleEv > hitStandEv) {
+                return hitOverStand ? PlayerAction.DOUBLE_OR_HIT : PlayerAction.DOUBLE_OR_STAND;
+            }
+            return hitOverStand ? PlayerAction.HIT : PlayerAction.STAND;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package strategy;
+
+import java.util.Arrays;
+
+/**
+ * Probability distribution of the dealer's final hand
+ * Outcomes are a final total of 17-21, a bust, or a natural blackjack
+ * 
+ * @author Group 12
+ */
+public final class DealerOutcome {
+    /** Index of the bust probability in toArray() */
+    public static final int BUST = 5;
+    /** Index of the blackjack probability in toArray() */
+    public static final int BLACKJACK = 6;
+    /** Number of distinct outcomes (17, 18, 19, 20, 21, bust, blackjack) */
+    public static final int OUTCOMES = 7;
+    
+    private final double[] probabilities;
+    private final boolean conditionedOnNoBlackjack;
+    
+    DealerOutcome(double[] probabilities, boolean conditionedOnNoBlackjack) {
+        this.probabilities = probabilities;
+        this.conditionedOnNoBlackjack = conditionedOnNoBlackjack;
+    }
+    
+    /**
+     * Probability that the dealer finishes on exactly this total
+     * @param total a total from 17 to 21
+     */
+    public double probabilityOfTotal(int total) {
+        if (total < 17 || total > 21) {
+            throw new IllegalArgumentException("Dealer can only finish on 17-21: " + total);
+        }
+        return probabilities[total - 17];
+    }
+    
+    public double bustProbability() {
+        return probabilities[BUST];
+    }
+    
+    /**
+     * Probability of a dealer natural; always 0 when the dealer has already
+     * peeked (see isConditionedOnNoBlackjack())
+     */
+    public double blackjackProbability() {
+        return probabilities[BLACKJACK];
+    }
+    
+    /**
+     * True if the dealer peeked for blackjack with this up-card, so the
+     * distribution only covers hands that are not a natural
+     */
+    public boolean isConditionedOnNoBlackjack() {
+        return conditionedOnNoBlackjack;
+    }
+    
+    /**
+     * Copy of all probabilities: totals 17-21 at indices 0-4, then BUST and BLACKJACK
+     */
+    public double[] toArray() {
+        return probabilities.clone();
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DealerOutcome{");
+        for (int total = 17; total <= 21; total++) {
+            sb.append(total).append('=').append(String.format("%.4f", probabilities[total - 17])).append(", ");
+        }
+        sb.append("bust=").append(String.format("%.4f", probabilities[BUST]));
+        sb.append(", blackjack=").append(String.format("%.4f", probabilities[BLACKJACK]));
+        return sb.append('}').toString();
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof DealerOutcome)) return false;
+        DealerOutcome other = (DealerOutcome) obj;
+        return conditionedOnNoBlackjack == other.conditionedOnNoBlackjack
+            && Arrays.equals(probabilities, other.probabilities);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(probabilities) * 31 + (conditionedOnNoBlackjack ? 1 : 0);
+    }
+}
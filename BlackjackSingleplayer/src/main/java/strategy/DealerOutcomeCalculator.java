@@ -0,0 +1,227 @@
+package strategy;
+
+import model.Rank;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact distribution of the dealer's final total for an up-card and the
+ * composition of the cards the dealer can still draw
+ * 
+ * Every draw sequence is enumerated without replacement, honouring the
+ * variant's soft 17 and peek rules. Within one query the remaining
+ * composition fully determines the dealer's hand (the cards drawn are the
+ * difference from the starting composition), so sub-results are memoized on
+ * the composition alone. Finished queries are cached on a packed key of
+ * (composition, up-card, rules) and answered from the cache afterwards.
+ * 
+ * Compositions are counts per value class, see Rank.valueClass():
+ * index 0 = Aces, 1-8 = twos to nines, 9 = ten-valued cards.
+ * 
+ * @author Group 12
+ */
+public final class DealerOutcomeCalculator {
+    // Composition key layout: 6 bits per non-ten class, 8 bits for tens (62 bits)
+    private static final int SMALL_BITS = 6;
+    private static final int TEN_BITS = 8;
+    private static final int TEN = Rank.VALUE_CLASSES - 1;
+    private static final int MAX_CACHED = 100_000;
+    
+    private static final Map<CacheKey, DealerOutcome> cache = new ConcurrentHashMap<>();
+    
+    private DealerOutcomeCalculator() {
+        // Utility class - no instantiation
+    }
+    
+    /**
+     * Calculate the dealer's final-total distribution
+     * @param upCard the dealer's face-up card
+     * @param composition undealt cards per value class, including the hole card
+     *                    (which is unknown to the players)
+     * @param rules the variant's soft 17 and peek rules
+     */
+    public static DealerOutcome calculate(Rank upCard, int[] composition, BlackjackStrategy rules) {
+        return calculate(upCard, composition, rules.dealerHitsOnSoft17(), rules.dealerPeeksForBlackjack());
+    }
+    
+    /**
+     * Calculate the dealer's final-total distribution
+     * @param hitsSoft17 whether the dealer draws to soft 17
+     * @param peeks whether the dealer checks for blackjack with an Ace or ten up,
+     *              in which case the result is conditioned on no dealer blackjack
+     */
+    public static DealerOutcome calculate(Rank upCard, int[] composition, boolean hitsSoft17, boolean peeks) {
+        long key = compositionKey(composition);
+        int upClass = upCard.valueClass();
+        CacheKey cacheKey = new CacheKey(key, upClass, hitsSoft17, peeks);
+        
+        DealerOutcome cached = cache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        
+        DealerOutcome outcome = new Query(composition, hitsSoft17).run(upClass, peeks);
+        if (cache.size() >= MAX_CACHED) {
+            cache.clear(); // crude bound: queries are cheap to recompute
+        }
+        cache.put(cacheKey, outcome);
+        return outcome;
+    }
+    
+    /**
+     * Number of cached query results
+     */
+    public static int getCacheSize() {
+        return cache.size();
+    }
+    
+    /**
+     * Pack a composition into 62 bits (up to 63 of each small card and 255 tens,
+     * enough for an 8-deck shoe)
+     */
+    static long compositionKey(int[] composition) {
+        if (composition.length != Rank.VALUE_CLASSES) {
+            throw new IllegalArgumentException("Composition needs " + Rank.VALUE_CLASSES + " counts");
+        }
+        long key = 0;
+        for (int i = 0; i < Rank.VALUE_CLASSES; i++) {
+            int limit = (1 << (i == TEN ? TEN_BITS : SMALL_BITS)) - 1;
+            if (composition[i] < 0 || composition[i] > limit) {
+                throw new IllegalArgumentException("Unsupported card count " + composition[i] + " for value class " + i);
+            }
+            key |= (long) composition[i] << shift(i);
+        }
+        return key;
+    }
+    
+    private static int shift(int valueClass) {
+        return valueClass * SMALL_BITS;
+    }
+    
+    /**
+     * Points a card of this value class adds to the hard total (Ace = 1)
+     */
+    private static int hardValue(int valueClass) {
+        return valueClass + 1;
+    }
+    
+    /**
+     * State of one calculation: the composition being drawn from and the
+     * memo of results for the compositions visited so far
+     */
+    private static final class Query {
+        private final int[] counts;
+        private final boolean hitsSoft17;
+        private final Map<Long, double[]> memo = new HashMap<>();
+        private int remaining;
+        
+        Query(int[] composition, boolean hitsSoft17) {
+            this.counts = composition.clone();
+            this.hitsSoft17 = hitsSoft17;
+            for (int count : counts) {
+                remaining += count;
+            }
+        }
+        
+        DealerOutcome run(int upClass, boolean peeks) {
+            if (remaining == 0) {
+                throw new IllegalArgumentException("No cards left to draw");
+            }
+            long key = compositionKey(counts);
+            int hard = hardValue(upClass);
+            int aces = upClass == 0 ? 1 : 0;
+            
+            // With an Ace or ten up, a peeking dealer has already ruled out a natural
+            int excluded = -1;
+            if (peeks && upClass == 0) {
+                excluded = TEN;
+            } else if (peeks && upClass == TEN) {
+                excluded = 0;
+            }
+            
+            double[] result = new double[DealerOutcome.OUTCOMES];
+            int drawable = remaining - (excluded >= 0 ? counts[excluded] : 0);
+            if (drawable == 0) {
+                throw new IllegalArgumentException("No hole card possible for this composition");
+            }
+            
+            // First draw is the hole card, which decides a natural
+            for (int c = 0; c < Rank.VALUE_CLASSES; c++) {
+                if (c == excluded || counts[c] == 0) continue;
+                double p = (double) counts[c] / drawable;
+                int newHard = hard + hardValue(c);
+                int newAces = aces + (c == 0 ? 1 : 0);
+                
+                double[] sub;
+                if (HandEvaluationTable.bestTotal(newHard, newAces) == 21) {
+                    sub = new double[DealerOutcome.OUTCOMES];
+                    sub[DealerOutcome.BLACKJACK] = 1.0;
+                } else {
+                    take(c);
+                    sub = finish(key - (1L << shift(c)), newHard, newAces);
+                    put(c);
+                }
+                for (int i = 0; i < result.length; i++) {
+                    result[i] += p * sub[i];
+                }
+            }
+            return new DealerOutcome(result, excluded >= 0);
+        }
+        
+        /**
+         * Distribution of the final outcome from a hand with at least two cards
+         */
+        private double[] finish(long key, int hard, int aces) {
+            int entry = HandEvaluationTable.lookup(hard, aces);
+            if (HandEvaluationTable.dealerStands(entry, hitsSoft17)) {
+                double[] done = new double[DealerOutcome.OUTCOMES];
+                if (HandEvaluationTable.isBust(entry)) {
+                    done[DealerOutcome.BUST] = 1.0;
+                } else {
+                    done[HandEvaluationTable.bestTotal(entry) - 17] = 1.0;
+                }
+                return done;
+            }
+            
+            double[] cached = memo.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            if (remaining == 0) {
+                throw new IllegalArgumentException("Shoe ran out during the dealer's draw");
+            }
+            
+            double[] result = new double[DealerOutcome.OUTCOMES];
+            int total = remaining;
+            for (int c = 0; c < Rank.VALUE_CLASSES; c++) {
+                if (counts[c] == 0) continue;
+                double p = (double) counts[c] / total;
+                take(c);
+                double[] sub = finish(key - (1L << shift(c)), hard + hardValue(c), aces + (c == 0 ? 1 : 0));
+                put(c);
+                for (int i = 0; i < result.length; i++) {
+                    result[i] += p * sub[i];
+                }
+            }
+            memo.put(key, result);
+            return result;
+        }
+        
+        private void take(int valueClass) {
+            counts[valueClass]--;
+            remaining--;
+        }
+        
+        private void put(int valueClass) {
+            counts[valueClass]++;
+            remaining++;
+        }
+    }
+    
+    /**
+     * Cache key: packed composition plus up-card and rule flags
+     */
+    private record CacheKey(long composition, int upClass, boolean hitsSoft17, boolean peeks) {
+    }
+}
@@ -0,0 +1,95 @@
+package strategy;
+
+/**
+ * Precomputed hand evaluation indexed by (hard total, ace count)
+ * 
+ * Each entry packs the best total, the soft and bust flags and whether a
+ * dealer stands on the hand, so evaluating a hand is a single array read
+ * instead of a loop over its Aces. The hard total counts every Ace as 1;
+ * only whether there is at least one Ace matters, since a second Ace
+ * counted as 11 would always bust.
+ * 
+ * @author Group 12
+ */
+public final class HandEvaluationTable {
+    /** Largest hard total with its own row; larger totals share the last (bust) row */
+    public static final int MAX_HARD_TOTAL = 63;
+    
+    private static final int TOTAL_MASK = 0x3F;
+    private static final int SOFT = 1 << 6;
+    private static final int BUST = 1 << 7;
+    private static final int DEALER_STANDS_S17 = 1 << 8; // dealer stands on soft 17
+    private static final int DEALER_STANDS_H17 = 1 << 9; // dealer hits soft 17
+    
+    private static final int[] TABLE = new int[(MAX_HARD_TOTAL + 1) * 2];
+    
+    static {
+        for (int hard = 0; hard <= MAX_HARD_TOTAL; hard++) {
+            for (int hasAce = 0; hasAce <= 1; hasAce++) {
+                boolean soft = hasAce == 1 && hard + 10 <= 21;
+                int best = soft ? hard + 10 : hard;
+                int entry = best;
+                if (soft) entry |= SOFT;
+                if (best > 21) entry |= BUST;
+                if (best >= 17) entry |= DEALER_STANDS_S17;
+                if (best >= 18 || (best == 17 && !soft)) entry |= DEALER_STANDS_H17;
+                TABLE[index(hard, hasAce)] = entry;
+            }
+        }
+    }
+    
+    private HandEvaluationTable() {
+        // Utility class - no instantiation
+    }
+    
+    private static int index(int hardTotal, int aceCount) {
+        return (Math.min(hardTotal, MAX_HARD_TOTAL) << 1) | (aceCount > 0 ? 1 : 0);
+    }
+    
+    /**
+     * Packed evaluation of a hand; decode with the static accessors below
+     * @param hardTotal total with every Ace counted as 1
+     * @param aceCount number of Aces in the hand
+     */
+    public static int lookup(int hardTotal, int aceCount) {
+        return TABLE[index(hardTotal, aceCount)];
+    }
+    
+    /**
+     * Best total of an entry (Ace as 11 when that does not bust)
+     * Exact for hard totals up to MAX_HARD_TOTAL
+     */
+    public static int bestTotal(int entry) {
+        return entry & TOTAL_MASK;
+    }
+    
+    public static boolean isSoft(int entry) {
+        return (entry & SOFT) != 0;
+    }
+    
+    public static boolean isBust(int entry) {
+        return (entry & BUST) != 0;
+    }
+    
+    /**
+     * Whether a dealer stops drawing on this hand
+     * @param hitsSoft17 the variant's BlackjackStrategy.dealerHitsOnSoft17()
+     */
+    public static boolean dealerStands(int entry, boolean hitsSoft17) {
+        return (entry & (hitsSoft17 ? DEALER_STANDS_H17 : DEALER_STANDS_S17)) != 0;
+    }
+    
+    /**
+     * Best total of a hand in one lookup
+     */
+    public static int bestTotal(int hardTotal, int aceCount) {
+        return lookup(hardTotal, aceCount) & TOTAL_MASK;
+    }
+    
+    /**
+     * Whether a dealer with this hand stops drawing, in one lookup
+     */
+    public static boolean dealerStands(int hardTotal, int aceCount, boolean hitsSoft17) {
+        return dealerStands(lookup(hardTotal, aceCount), hitsSoft17);
+    }
+}
@@ -0,0 +1,52 @@
+package strategy;
+
+/**
+ * Player decision in a basic strategy chart
+ * Double and surrender entries name the fallback for when they are not
+ * allowed (e.g. after a third card), as printed strategy cards do
+ * 
+ * @author Group 12
+ */
+public enum PlayerAction {
+    HIT,
+    STAND,
+    DOUBLE_OR_HIT,
+    DOUBLE_OR_STAND,
+    SPLIT,
+    SURRENDER_OR_HIT,
+    SURRENDER_OR_STAND;
+    
+    private static final PlayerAction[] VALUES = values();
+    
+    /**
+     * Decode an action from its byte code in a compiled chart
+     */
+    public static PlayerAction fromCode(int code) {
+        return VALUES[code];
+    }
+    
+    /**
+     * Action to take when only hitting and standing are possible
+     */
+    public PlayerAction hitOrStand() {
+        return switch (this) {
+            case HIT, DOUBLE_OR_HIT, SURRENDER_OR_HIT, SPLIT -> HIT;
+            case STAND, DOUBLE_OR_STAND, SURRENDER_OR_STAND -> STAND;
+        };
+    }
+    
+    /**
+     * Short chart notation (H, S, Dh, Ds, P, Rh, Rs)
+     */
+    public String symbol() {
+        return switch (this) {
+            case HIT -> "H";
+            case STAND -> "S";
+            case DOUBLE_OR_HIT -> "Dh";
+            case DOUBLE_OR_STAND -> "Ds";
+            case SPLIT -> "P";
+            case SURRENDER_OR_HIT -> "Rh";
+            case SURRENDER_OR_STAND -> "Rs";
+        };
+    }
+}
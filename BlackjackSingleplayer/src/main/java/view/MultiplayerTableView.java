@@ -1,6 +1,7 @@
 package view;
 
 import model.Card;
+import model.HandValue;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -333,7 +334,7 @@ public class MultiplayerTableView extends BorderPane {
             }
         }
 
-        int total = calculateHandValue(visibleCards);
+        int total = HandValue.of(visibleCards).bestTotal();
         dealerTotalLabel.setText(showAll ? "Total: " + total : "Total: ?");
     }
 
@@ -606,28 +607,4 @@ public class MultiplayerTableView extends BorderPane {
     public StrategySelector getStrategySelector() {
         return strategySelector;
     }
-    
-    /**
-     * Calculate hand value handling Aces properly (1 or 11)
-     */
-    private int calculateHandValue(List<Card> cards) {
-        int value = 0;
-        int aces = 0;
-        
-        for (Card card : cards) {
-            int cardValue = card.baseValue();
-            if (cardValue == 11) {
-                aces++;
-            }
-            value += cardValue;
-        }
-        
-        // Adjust for Aces
-        while (value > 21 && aces > 0) {
-            value -= 10;
-            aces--;
-        }
-        
-        return value;
-    }
 }
@@ -5,6 +5,7 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import model.Card;
+import model.HandValue;
 import util.CardType;
 import util.CardVisuals;
 
@@ -61,7 +62,7 @@ public class DealerPanel extends VBox {
             }
         }
         
-        int total = calculateHandValue(visibleCards);
+        int total = HandValue.of(visibleCards).bestTotal();
         dealerTotalLabel.setText(showAll ? "Total: " + total : "Total: ?");
     }
     
@@ -72,28 +73,4 @@ public class DealerPanel extends VBox {
         dealerCardsBox.getChildren().clear();
         dealerTotalLabel.setText("Total: 0");
     }
-    
-    /**
-     * Calculate hand value handling Aces properly (1 or 11)
-     */
-    private int calculateHandValue(List<Card> cards) {
-        int value = 0;
-        int aces = 0;
-        
-        for (Card card : cards) {
-            int cardValue = card.baseValue();
-            if (cardValue == 11) {
-                aces++;
-            }
-            value += cardValue;
-        }
-        
-        // Adjust for Aces
-        while (value > 21 && aces > 0) {
-            value -= 10;
-            aces--;
-        }
-        
-        return value;
-    }
 }
@@ -5,6 +5,7 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import model.Card;
+import model.HandValue;
 import util.CardType;
 import util.CardVisuals;
 
@@ -107,7 +108,7 @@ public class PlayerPanel extends VBox {
             }
         }
 
-        int total = calculateHandValue(cards);
+        int total = HandValue.of(cards).bestTotal();
         totalLabel.setText("Total: " + total);
     }
 
@@ -137,28 +138,4 @@ public class PlayerPanel extends VBox {
     public String getDisplayName() {
         return nameLabel.getText();
     }
-    
-    /**
-     * Calculate hand value handling Aces properly (1 or 11)
-     */
-    private int calculateHandValue(List<Card> cards) {
-        int value = 0;
-        int aces = 0;
-        
-        for (Card card : cards) {
-            int cardValue = card.baseValue();
-            if (cardValue == 11) {
-                aces++;
-            }
-            value += cardValue;
-        }
-        
-        // Adjust for Aces
-        while (value > 21 && aces > 0) {
-            value -= 10;
-            aces--;
-        }
-        
-        return value;
-    }
 }
@@ -0,0 +1,67 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the shoe's bookkeeping and that a round never runs it dry
+ * 
+ * @author Group 12
+ */
+class DeckTest {
+    
+    @Test
+    void fullSingleDeckWorstCaseTakesTheLowCardsFirst() {
+        Deck deck = new Deck(new ShoeConfig(1, 0.75), 1);
+        
+        // One hand: four aces, four twos and three threes make 21, plus the card that busts it
+        assertEquals(12, deck.worstCaseCards(1));
+        // Two hands: aces to fours make 40 of the 42 points, and no five fits in the rest
+        assertEquals(2 + 4 + 4 + 4 + 4, deck.worstCaseCards(2));
+    }
+    
+    @Test
+    void worstCaseNeverExceedsWhatIsLeft() {
+        Deck deck = new Deck(new ShoeConfig(1, 0.95), 7);
+        while (deck.remaining() > 0) {
+            assertTrue(deck.worstCaseCards(8) <= deck.remaining() + 8);
+            deck.dealOrdinal();
+        }
+        assertEquals(8, deck.worstCaseCards(8));
+    }
+    
+    @Test
+    void valueCountsFollowTheDeal() {
+        Deck deck = new Deck(new ShoeConfig(2, 0.75), 3);
+        int[] counts = deck.getRemainingValueCounts();
+        for (int i = 0; i < 30; i++) {
+            counts[deck.deal().rank().valueClass()]--;
+        }
+        
+        assertArrayEquals(counts, deck.getRemainingValueCounts());
+        assertEquals(104 - 30, deck.remaining());
+    }
+    
+    @Test
+    void reshufflesBeforeARoundTheShoeMightNotCover() {
+        Deck deck = new Deck(new ShoeConfig(1, 0.95), 11);
+        while (deck.remaining() >= deck.worstCaseCards(3)) {
+            assertFalse(deck.reshuffleIfNeeded(3));
+            deck.dealOrdinal();
+        }
+        
+        assertTrue(deck.reshuffleIfNeeded(3));
+        assertEquals(52, deck.remaining());
+    }
+    
+    @Test
+    void emptyShoeRefusesToDeal() {
+        Deck deck = new Deck(new ShoeConfig(1, 0.75), 5);
+        for (int i = 0; i < 52; i++) {
+            deck.dealOrdinal();
+        }
+        
+        assertThrows(IllegalStateException.class, deck::dealOrdinal);
+    }
+}
@@ -0,0 +1,59 @@
+package network;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a resent command is answered from the log, never applied twice
+ * 
+ * @author Group 12
+ */
+class CommandLogTest {
+    
+    @Test
+    void newCommandHasNoPreviousResult() {
+        CommandLog log = new CommandLog();
+        
+        assertNull(log.previous("amy", 1));
+        assertEquals(0, log.highest("amy"));
+    }
+    
+    @Test
+    void resentCommandGetsTheSameResult() {
+        CommandLog log = new CommandLog();
+        CommandResult ack = CommandResult.ack(1);
+        CommandResult nack = CommandResult.nack(2, "Not your turn");
+        log.record("amy", ack);
+        log.record("amy", nack);
+        
+        assertSame(ack, log.previous("amy", 1));
+        assertSame(nack, log.previous("amy", 2));
+        assertNull(log.previous("amy", 3));
+        assertNull(log.previous("bob", 1));
+        assertEquals(2, log.highest("amy"));
+    }
+    
+    @Test
+    void commandsOlderThanWhatIsRememberedAreStale() {
+        CommandLog log = new CommandLog();
+        for (long sequence = 1; sequence <= 100; sequence++) {
+            log.record("amy", CommandResult.ack(sequence));
+        }
+        
+        CommandResult stale = log.previous("amy", 1);
+        assertFalse(stale.isAccepted());
+        assertEquals("Stale command", stale.error());
+        assertTrue(log.previous("amy", 100).isAccepted());
+    }
+    
+    @Test
+    void forgetStartsThePlayerOver() {
+        CommandLog log = new CommandLog();
+        log.record("amy", CommandResult.ack(5));
+        log.forget("amy");
+        
+        assertNull(log.previous("amy", 5));
+        assertEquals(0, log.highest("amy"));
+    }
+}
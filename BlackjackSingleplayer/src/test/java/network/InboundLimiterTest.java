@@ -0,0 +1,91 @@
+package network;
+
+import command.Command;
+import command.HitCommand;
+import command.SetBetCommand;
+import model.GameEngine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the per-connection token buckets and flood detection
+ * 
+ * @author Group 12
+ */
+class InboundLimiterTest {
+    
+    private static int allowedFrames(InboundLimiter limiter, int attempts) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (limiter.allowFrame()) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+    
+    @Test
+    void burstOfTwoSecondsIsAllowedThenFramesAreOverTheLimit() {
+        InboundLimiter limiter = new InboundLimiter();
+        int burst = 2 * InboundLimiter.FRAMES_PER_SECOND;
+        
+        int allowed = allowedFrames(limiter, burst + 20);
+        // A few tokens may refill while the loop runs
+        assertTrue(allowed >= burst && allowed < burst + 5, "allowed " + allowed);
+        assertTrue(limiter.isOverLimit());
+        assertFalse(limiter.isFlooding());
+    }
+    
+    @Test
+    void clientThatKeepsFloodingIsFlagged() {
+        InboundLimiter limiter = new InboundLimiter();
+        allowedFrames(limiter, 2 * InboundLimiter.FRAMES_PER_SECOND + 2 * InboundLimiter.MAX_DROPPED);
+        
+        assertTrue(limiter.isFlooding());
+    }
+    
+    @Test
+    void eachCommandTypeHasItsOwnBucket() {
+        InboundLimiter limiter = new InboundLimiter();
+        Command bet = new SetBetCommand("amy", 10);
+        int burst = 2 * InboundLimiter.COMMANDS_PER_SECOND;
+        for (int i = 0; i < burst; i++) {
+            assertTrue(limiter.allowCommand(bet));
+        }
+        
+        assertFalse(limiter.allowCommand(bet));
+        assertTrue(limiter.allowCommand(new HitCommand("amy")));
+    }
+    
+    @Test
+    void commandWithoutABucketIsOnlyLimitedPerFrame() {
+        InboundLimiter limiter = new InboundLimiter();
+        Command other = new Command() {
+            @Override
+            public void execute(GameEngine engine) {
+            }
+            
+            @Override
+            public String getPlayerId() {
+                return "amy";
+            }
+        };
+        for (int i = 0; i < 10 * InboundLimiter.FRAMES_PER_SECOND; i++) {
+            assertTrue(limiter.allowCommand(other));
+        }
+        // And it took nothing from the frame bucket
+        assertEquals(2 * InboundLimiter.FRAMES_PER_SECOND,
+            allowedFrames(limiter, 2 * InboundLimiter.FRAMES_PER_SECOND));
+    }
+    
+    @Test
+    void commandsHandledBeforeAResumeAreReplays() {
+        InboundLimiter limiter = new InboundLimiter();
+        limiter.setReplayedThrough(5);
+        
+        assertTrue(limiter.isReplay(1));
+        assertTrue(limiter.isReplay(5));
+        assertFalse(limiter.isReplay(6));
+    }
+}
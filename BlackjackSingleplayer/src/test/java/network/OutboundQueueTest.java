@@ -0,0 +1,161 @@
+package network;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the bounded per-client queue and its overflow policies
+ * 
+ * @author Group 12
+ */
+class OutboundQueueTest {
+    private static final int MARK = 8;
+    
+    private static OutboundFrame stateFrame() {
+        GameUpdateMessage delta = new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_DELTA,
+            new StateDelta(1, List.of()));
+        return OutboundFrame.forUpdate(delta, new byte[] {1});
+    }
+    
+    /**
+     * What the host broadcasts after a hit: the events and the delta in one frame
+     */
+    private static OutboundFrame hitFrame() {
+        return OutboundFrame.of(List.of(
+            new GameUpdateMessage(GameUpdateMessage.MessageType.PLAYER_HIT, "amy"),
+            new GameUpdateMessage(GameUpdateMessage.MessageType.TURN_CHANGED, "bob"),
+            new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_DELTA, new StateDelta(1, List.of()))),
+            new byte[] {3});
+    }
+    
+    private static OutboundFrame result() {
+        return OutboundFrame.forUpdate(new GameUpdateMessage(GameUpdateMessage.MessageType.COMMAND_RESULT,
+            CommandResult.ack(1)), new byte[] {4});
+    }
+    
+    private static OutboundFrame snapshot() {
+        StateSnapshot.Table table = new StateSnapshot.Table(List.of(), null, StateSnapshot.Phase.WAITING, "Test", Set.of());
+        return OutboundFrame.forUpdate(new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_SNAPSHOT,
+            new StateSnapshot(1, Map.of(), Map.of(), Map.of(), List.of(), table)), new byte[] {5});
+    }
+    
+    private static OutboundFrame ping() {
+        return OutboundFrame.control(new byte[] {2});
+    }
+    
+    @Test
+    void framesComeOutInOrder() {
+        OutboundQueue queue = new OutboundQueue(OverflowPolicy.DISCONNECT, MARK);
+        OutboundFrame first = stateFrame();
+        OutboundFrame second = ping();
+        queue.offer(first);
+        queue.offer(second);
+        
+        assertSame(first, queue.poll());
+        assertSame(second, queue.poll());
+        assertNull(queue.poll());
+    }
+    
+    @Test
+    void disconnectPolicyOverflowsPastTheMark() {
+        OutboundQueue queue = new OutboundQueue(OverflowPolicy.DISCONNECT, MARK);
+        for (int i = 0; i < MARK; i++) {
+            assertEquals(OutboundQueue.Result.QUEUED, queue.offer(stateFrame()));
+        }
+        
+        assertEquals(OutboundQueue.Result.OVERFLOW, queue.offer(stateFrame()));
+    }
+    
+    @Test
+    void latestStateDropsStateFramesAndKeepsTheRest() {
+        OutboundQueue queue = new OutboundQueue(OverflowPolicy.LATEST_STATE, MARK);
+        OutboundFrame keep = ping();
+        queue.offer(keep);
+        for (int i = 1; i < MARK; i++) {
+            queue.offer(stateFrame());
+        }
+        
+        assertEquals(OutboundQueue.Result.STATE_DROPPED, queue.offer(stateFrame()));
+        assertEquals(MARK, queue.getDroppedFrames());
+        assertSame(keep, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+    
+    @Test
+    void latestStateDropsFloodedBroadcastsInsteadOfOverflowing() {
+        OutboundQueue queue = new OutboundQueue(OverflowPolicy.LATEST_STATE, MARK);
+        OutboundFrame keep = result();
+        queue.offer(hitFrame());
+        queue.offer(keep);
+        for (int i = 2; i < MARK; i++) {
+            assertEquals(OutboundQueue.Result.QUEUED, queue.offer(hitFrame()));
+        }
+        
+        // The host answers STATE_DROPPED with a fresh snapshot for this client
+        assertEquals(OutboundQueue.Result.STATE_DROPPED, queue.offer(hitFrame()));
+        assertEquals(MARK, queue.getDroppedFrames());
+        assertSame(keep, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+    
+    @Test
+    void catchUpSnapshotSurvivesOverflowAndIsRefreshedInPlace() {
+        OutboundQueue queue = new OutboundQueue(OverflowPolicy.LATEST_STATE, MARK);
+        OutboundFrame keep = result();
+        queue.offer(snapshot());
+        queue.offer(hitFrame());
+        queue.offer(keep);
+        for (int i = 3; i < MARK; i++) {
+            queue.offer(hitFrame());
+        }
+        assertEquals(OutboundQueue.Result.STATE_DROPPED, queue.offer(hitFrame()));
+        assertEquals(2, queue.size());
+        
+        // The fresh snapshot takes the old one's place, ahead of the result
+        OutboundFrame fresh = snapshot();
+        queue.offer(hitFrame());
+        assertEquals(OutboundQueue.Result.QUEUED, queue.offer(fresh));
+        assertSame(fresh, queue.poll());
+        assertSame(keep, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+    
+    @Test
+    void onlyFramesMeantForOneClientAreKept() {
+        assertTrue(hitFrame().isSupersedable());
+        assertTrue(stateFrame().isSupersedable());
+        assertTrue(snapshot().isSnapshot());
+        assertFalse(hitFrame().isSnapshot());
+        assertFalse(result().isSupersedable());
+        assertFalse(ping().isSupersedable());
+        assertFalse(OutboundFrame.of(List.of(
+            new GameUpdateMessage(GameUpdateMessage.MessageType.ROUND_ENDED, null),
+            new GameUpdateMessage(GameUpdateMessage.MessageType.HOST_DISCONNECTED, null)),
+            new byte[] {5}).isSupersedable());
+    }
+    
+    @Test
+    void latestStateStillOverflowsWhenNothingCanBeDropped() {
+        OutboundQueue queue = new OutboundQueue(OverflowPolicy.LATEST_STATE, MARK);
+        for (int i = 0; i < MARK; i++) {
+            queue.offer(ping());
+        }
+        
+        assertEquals(OutboundQueue.Result.OVERFLOW, queue.offer(ping()));
+    }
+    
+    @Test
+    void closedQueueWakesTheWriterAndTakesNoMore() throws InterruptedException {
+        OutboundQueue queue = new OutboundQueue(OverflowPolicy.DISCONNECT, MARK);
+        queue.offer(stateFrame());
+        queue.close();
+        
+        assertNull(queue.take());
+        queue.offer(stateFrame());
+        assertTrue(queue.isEmpty());
+    }
+}
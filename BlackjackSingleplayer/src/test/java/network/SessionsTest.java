@@ -0,0 +1,87 @@
+package network;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks session tokens and the replay of missed broadcasts
+ * 
+ * @author Group 12
+ */
+class SessionsTest {
+    
+    private static List<OutboundFrame> record(Sessions sessions, int count) {
+        List<OutboundFrame> frames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            OutboundFrame frame = OutboundFrame.control(new byte[] {(byte) i});
+            sessions.record(frame);
+            frames.add(frame);
+        }
+        return frames;
+    }
+    
+    @Test
+    void sinceReturnsExactlyTheMissedFrames() {
+        Sessions sessions = new Sessions();
+        List<OutboundFrame> frames = record(sessions, 10);
+        
+        assertEquals(10, sessions.lastSequence());
+        assertEquals(frames.subList(4, 10), sessions.since(4));
+        assertEquals(frames, sessions.since(0));
+        assertEquals(List.of(), sessions.since(10));
+    }
+    
+    @Test
+    void sinceNeedsASnapshotOnceFramesAreNoLongerKept() {
+        Sessions sessions = new Sessions();
+        List<OutboundFrame> frames = record(sessions, Sessions.HISTORY_FRAMES + 5);
+        
+        assertNull(sessions.since(0));
+        assertNull(sessions.since(3));
+        // The oldest kept frame is number 6, so a client that saw 5 can still catch up
+        assertEquals(frames.subList(5, frames.size()), sessions.since(5));
+    }
+    
+    @Test
+    void sinceRejectsASequenceFromTheFuture() {
+        Sessions sessions = new Sessions();
+        record(sessions, 3);
+        
+        assertNull(sessions.since(4));
+    }
+    
+    @Test
+    void onlyTheIssuedTokenResumesAHeldSeat() {
+        Sessions sessions = new Sessions();
+        ClientPeer first = new ClientPeer("amy");
+        SessionInfo info = sessions.open(first);
+        assertTrue(sessions.hold(first));
+        assertTrue(sessions.isHeld("amy"));
+        assertTrue(sessions.hasHeld());
+        
+        ClientPeer impostor = new ClientPeer("amy");
+        assertNull(sessions.resume(impostor, "not-the-token"));
+        assertTrue(sessions.isHeld("amy"));
+        
+        ClientPeer second = new ClientPeer("amy");
+        assertNotNull(sessions.resume(second, info.token()));
+        assertFalse(sessions.isHeld("amy"));
+        assertSame(second, sessions.clientOf("amy"));
+        assertEquals(0, sessions.getHeldCount());
+    }
+    
+    @Test
+    void staleConnectionCannotHoldASeatItLost() {
+        Sessions sessions = new Sessions();
+        ClientPeer first = new ClientPeer("amy");
+        SessionInfo info = sessions.open(first);
+        sessions.hold(first);
+        sessions.resume(new ClientPeer("amy"), info.token());
+        
+        assertFalse(sessions.hold(first));
+        assertEquals(0, sessions.getHeldCount());
+    }
+}
@@ -0,0 +1,79 @@
+package network;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a failing task never takes the table down with it, and that
+ * callers fail fast once the loop cannot run their task
+ * 
+ * @author Group 12
+ */
+class TableEventLoopTest {
+    
+    @Test
+    void loopOutlivesTasksThatThrow() {
+        TableEventLoop loop = new TableEventLoop("test-loop");
+        loop.execute(() -> {
+            throw new IllegalStateException("runtime");
+        });
+        loop.execute(() -> {
+            throw new AssertionError("an error that is not the VM's");
+        });
+        
+        assertEquals(42, loop.call(() -> 42));
+        assertThrows(IllegalArgumentException.class, () -> loop.call(() -> {
+            throw new IllegalArgumentException("rethrown to the caller");
+        }));
+        loop.shutdown();
+    }
+    
+    @Test
+    void callAfterShutdownFailsInsteadOfWaiting() {
+        TableEventLoop loop = new TableEventLoop("test-loop");
+        loop.shutdown();
+        loop.awaitTermination(1000);
+        
+        assertFalse(loop.execute(() -> { }));
+        assertThrows(IllegalStateException.class, () -> loop.call(() -> 1));
+    }
+    
+    @Test
+    void vmErrorStopsTheLoopAndFailsWaitingCallers() throws Exception {
+        TableEventLoop loop = new TableEventLoop("test-loop");
+        CountDownLatch release = new CountDownLatch(1);
+        loop.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        loop.execute(() -> {
+            throw new StackOverflowError();
+        });
+        
+        CompletableFuture<Integer> waiting = new CompletableFuture<>();
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                waiting.complete(loop.call(() -> 1));
+            } catch (Throwable t) {
+                waiting.completeExceptionally(t);
+            }
+        });
+        // Queued behind the failing task before it runs
+        while (caller.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertFalse(loop.execute(() -> { }));
+    }
+}
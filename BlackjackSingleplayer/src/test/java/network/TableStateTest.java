@@ -0,0 +1,118 @@
+package network;
+
+import java.util.List;
+import java.util.Set;
+import model.GameEngine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a client applying the host's deltas ends up with the engine's state
+ * 
+ * @author Group 12
+ */
+class TableStateTest {
+    private static final StateSnapshot.Table TABLE =
+        new StateSnapshot.Table(List.of(), null, StateSnapshot.Phase.WAITING, "Test", Set.of());
+    
+    private final GameEngine engine = new GameEngine();
+    private final TableState shadow = new TableState();
+    private final TableState client = new TableState();
+    
+    private void replicate() {
+        StateDelta delta = shadow.diff(engine);
+        if (delta != null) {
+            assertTrue(client.apply(new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_DELTA, delta)));
+        }
+        assertEquals(engine.getCurrentHands(), client.getPlayerHands());
+        assertEquals(engine.getPlayerBalances(), client.getPlayerBalances());
+        assertEquals(engine.getPlayerBets(), client.getPlayerBets());
+        assertEquals(engine.getDealerHand(), client.getDealerHand());
+        assertEquals(shadow.getSequence(), client.getSequence());
+    }
+    
+    @Test
+    void deltasKeepAClientInStepThroughARound() {
+        client.load(shadow.snapshot(TABLE));
+        engine.addPlayer("amy", 1000);
+        engine.addPlayer("bob", 1000);
+        replicate();
+        
+        engine.startRound();
+        engine.processBet("amy", 10);
+        replicate();
+        engine.processBet("bob", 25);
+        engine.dealCards();
+        replicate();
+        
+        while (engine.getCurrentPlayer() != null && !engine.allPlayersFinished()) {
+            engine.processStand(engine.getCurrentPlayer());
+            replicate();
+        }
+        engine.playDealerTurn();
+        engine.determineResults();
+        replicate();
+        
+        engine.removePlayer("bob");
+        replicate();
+        assertFalse(client.getPlayerHands().containsKey("bob"));
+        
+        // A new round replaces the hands rather than appending to them
+        engine.startRound();
+        replicate();
+        assertTrue(client.getHand("amy").isEmpty());
+    }
+    
+    @Test
+    void unchangedEngineProducesNoDelta() {
+        engine.addPlayer("amy", 1000);
+        shadow.diff(engine);
+        
+        assertNull(shadow.diff(engine));
+    }
+    
+    @Test
+    void snapshotBringsALateClientUpToDate() {
+        engine.addPlayer("amy", 1000);
+        engine.startRound();
+        engine.processBet("amy", 10);
+        engine.dealCards();
+        shadow.diff(engine);
+        
+        TableState late = new TableState();
+        late.load(shadow.snapshot(TABLE));
+        assertEquals(engine.getCurrentHands(), late.getPlayerHands());
+        assertEquals(engine.getDealerHand(), late.getDealerHand());
+        assertEquals(shadow.getSequence(), late.getSequence());
+    }
+    
+    @Test
+    void missedDeltaAsksForASnapshotOnce() {
+        client.load(shadow.snapshot(TABLE));
+        engine.addPlayer("amy", 1000);
+        shadow.diff(engine);
+        engine.addPlayer("bob", 1000);
+        StateDelta afterGap = shadow.diff(engine);
+        
+        GameUpdateMessage message = new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_DELTA, afterGap);
+        assertFalse(client.apply(message));
+        assertFalse(client.isSynced());
+        // Further deltas wait quietly for the snapshot
+        assertTrue(client.apply(message));
+        
+        client.load(shadow.snapshot(TABLE));
+        assertTrue(client.isSynced());
+        assertEquals(engine.getPlayerBalances(), client.getPlayerBalances());
+    }
+    
+    @Test
+    void deltaAlreadyCoveredBySnapshotIsIgnored() {
+        engine.addPlayer("amy", 1000);
+        StateDelta old = shadow.diff(engine);
+        client.load(shadow.snapshot(TABLE));
+        
+        assertTrue(client.apply(new GameUpdateMessage(GameUpdateMessage.MessageType.STATE_DELTA, old)));
+        assertEquals(engine.getPlayerBalances(), client.getPlayerBalances());
+    }
+}
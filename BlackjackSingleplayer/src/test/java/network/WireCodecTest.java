@@ -0,0 +1,166 @@
+package network;
+
+import command.HitCommand;
+import command.SetBetCommand;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import model.Card;
+import model.GameResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that every update survives the wire and that malformed frames are
+ * refused with an IOException
+ * 
+ * @author Group 12
+ */
+class WireCodecTest {
+    private static final List<PlayerInfo> PLAYERS = List.of(new PlayerInfo("amy", "Amy"), new PlayerInfo("bob", "Bob"));
+    private static final Card ACE = Card.fromOrdinal(0);
+    private static final Card KING = Card.fromOrdinal(51);
+    
+    private final WireCodec host = new WireCodec();
+    
+    /**
+     * One update of each type; the switch is exhaustive, so a new
+     * MessageType does not compile until it has a sample here
+     */
+    private static GameUpdateMessage sample(GameUpdateMessage.MessageType type) {
+        Object data = switch (type) {
+            case PLAYER_JOINED -> new PlayerInfo("cat", "Cat");
+            case PLAYERS_LIST -> PLAYERS;
+            case PLAYER_LEFT, BET_PLACED, PLAYER_HIT, PLAYER_STAND, TURN_CHANGED -> "bob";
+            case ROUND_STARTED -> null;
+            case CARD_DEALT -> KING;
+            case DEALER_TURN -> List.of(ACE, KING);
+            case ROUND_ENDED -> Map.of("amy", GameResult.PLAYER_BLACKJACK, "bob", GameResult.DEALER_WIN);
+            case STATE_SNAPSHOT -> new StateSnapshot(7, Map.of("amy", List.of(ACE, KING), "bob", List.of()),
+                Map.of("amy", 990, "bob", -5), Map.of("amy", 10, "bob", 0), List.of(KING),
+                new StateSnapshot.Table(PLAYERS, "amy", StateSnapshot.Phase.PLAYING, "Classic", Set.of("bob")));
+            case STATE_DELTA -> new StateDelta(8, List.of(
+                new StateDelta.Change(StateDelta.Kind.CARDS_ADDED, "amy", List.of(ACE), 0),
+                new StateDelta.Change(StateDelta.Kind.BALANCE, "bob", List.of(), -20),
+                new StateDelta.Change(StateDelta.Kind.DEALER_ADDED, null, List.of(KING), 0)));
+            case COMMAND_RESULT -> CommandResult.nack(3, "Not your turn");
+            case SESSION -> new SessionInfo("token", true, 10_000);
+            case GAME_STATE_UPDATE, SPECTATOR_MODE, HOST_DISCONNECTED, STRATEGY_CHANGED -> "text";
+        };
+        return new GameUpdateMessage(type, data);
+    }
+    
+    /**
+     * A client codec that has seen the roster, as it would have after the welcome
+     */
+    private WireCodec client() throws IOException {
+        WireCodec client = new WireCodec();
+        client.decodeUpdate(host.encodeUpdate(new GameUpdateMessage(GameUpdateMessage.MessageType.PLAYERS_LIST, PLAYERS)));
+        return client;
+    }
+    
+    /**
+     * PlayerInfo and StateSnapshot have no equals, so compare what they carry
+     */
+    private static Object comparable(Object data) {
+        if (data instanceof PlayerInfo player) {
+            return List.of(player.getUserId(), player.getDisplayName());
+        }
+        if (data instanceof List<?> list) {
+            return list.stream().map(WireCodecTest::comparable).toList();
+        }
+        if (data instanceof StateSnapshot snapshot) {
+            StateSnapshot.Table table = snapshot.getTable();
+            return Arrays.asList(snapshot.getSequence(), snapshot.getPlayerHands(), snapshot.getPlayerBalances(),
+                snapshot.getPlayerBets(), snapshot.getDealerHand(), comparable(table.players()), table.currentTurn(),
+                table.phase(), table.strategy(), table.spectators());
+        }
+        if (data instanceof StateDelta delta) {
+            return List.of(delta.getSequence(), delta.getChanges());
+        }
+        return data;
+    }
+    
+    @Test
+    void everyUpdateTypeRoundTrips() throws IOException {
+        for (GameUpdateMessage.MessageType type : GameUpdateMessage.MessageType.values()) {
+            GameUpdateMessage sent = sample(type);
+            GameUpdateMessage received = client().decodeUpdate(host.encodeUpdate(sent));
+            
+            assertEquals(type, received.getType());
+            assertEquals(comparable(sent.getData()), comparable(received.getData()), type.name());
+        }
+    }
+    
+    @Test
+    void batchRoundTripsInOrder() throws IOException {
+        List<GameUpdateMessage.MessageType> types = List.of(GameUpdateMessage.MessageType.PLAYER_HIT,
+            GameUpdateMessage.MessageType.STATE_DELTA, GameUpdateMessage.MessageType.TURN_CHANGED);
+        byte[] batch = WireCodec.encodeBatch(42, types.stream().map(type -> host.encodeUpdate(sample(type))).toList());
+        
+        assertEquals(42, WireCodec.frameSequence(batch));
+        assertEquals(types, client().decodeUpdates(batch).stream().map(GameUpdateMessage::getType).toList());
+    }
+    
+    @Test
+    void everyTruncatedUpdateIsRefused() throws IOException {
+        for (GameUpdateMessage.MessageType type : GameUpdateMessage.MessageType.values()) {
+            byte[] payload = host.encodeUpdate(sample(type));
+            // Two bytes is the header alone, which is a whole ROUND_STARTED
+            for (int length = 2; length < payload.length; length++) {
+                byte[] truncated = Arrays.copyOf(payload, length);
+                WireCodec client = client();
+                assertThrows(IOException.class, () -> client.decodeUpdate(truncated), type + " cut to " + length);
+            }
+        }
+    }
+    
+    @Test
+    void negativeAndOversizedCountsAreRefused() throws IOException {
+        // Varints for -1 and for Integer.MAX_VALUE
+        byte[] negative = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        byte[] huge = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        for (byte[] count : List.of(negative, huge)) {
+            for (GameUpdateMessage.MessageType type : List.of(GameUpdateMessage.MessageType.PLAYERS_LIST,
+                    GameUpdateMessage.MessageType.DEALER_TURN, GameUpdateMessage.MessageType.ROUND_ENDED)) {
+                byte[] payload = frame(WireCodec.codeOf(type), count);
+                assertThrows(IOException.class, () -> client().decodeUpdate(payload), type.name());
+            }
+            // Snapshot and delta counts follow a sequence number
+            for (GameUpdateMessage.MessageType type : List.of(GameUpdateMessage.MessageType.STATE_SNAPSHOT,
+                    GameUpdateMessage.MessageType.STATE_DELTA)) {
+                byte[] payload = frame(WireCodec.codeOf(type), new byte[] {1}, count);
+                assertThrows(IOException.class, () -> client().decodeUpdate(payload), type.name());
+            }
+            byte[] batch = frame(WireCodec.BATCH, new byte[] {0}, count);
+            assertThrows(IOException.class, () -> client().decodeUpdates(batch));
+        }
+    }
+    
+    @Test
+    void commandsAndHandshakeRoundTrip() throws IOException {
+        WireCodec.Hello hello = WireCodec.decodeHello(WireCodec.encodeHello("amy", "Amy", "token", 12));
+        assertEquals(new WireCodec.Hello("amy", "Amy", "token", 12), hello);
+        
+        WireCodec.CommandRequest bet = WireCodec.decodeCommand(
+            WireCodec.encodeCommand(new SetBetCommand("amy", 25), 9), "amy");
+        assertEquals(9, bet.sequence());
+        assertEquals(25, ((SetBetCommand) bet.command()).getBetAmount());
+        
+        byte[] hit = WireCodec.encodeCommand(new HitCommand("amy"), 300);
+        assertThrows(IOException.class, () -> WireCodec.decodeCommand(Arrays.copyOf(hit, hit.length - 1), "amy"));
+    }
+    
+    private static byte[] frame(int code, byte[]... parts) {
+        byte[] payload = {(byte) WireCodec.VERSION, (byte) code};
+        for (byte[] part : parts) {
+            int start = payload.length;
+            payload = Arrays.copyOf(payload, start + part.length);
+            System.arraycopy(part, 0, payload, start, part.length);
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,170 @@
+package strategy;
+
+import model.Rank;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the exact dealer outcomes against published figures and against
+ * a plain enumeration with no memo
+ * 
+ * @author Group 12
+ */
+class DealerOutcomeCalculatorTest {
+    private static final double EPSILON = 1e-9;
+    
+    /**
+     * Undealt cards per value class for a shoe of this many decks, less the up-card
+     */
+    private static int[] shoeWithout(int decks, Rank upCard) {
+        int[] composition = new int[Rank.VALUE_CLASSES];
+        for (int i = 0; i < Rank.VALUE_CLASSES - 1; i++) {
+            composition[i] = 4 * decks;
+        }
+        composition[Rank.VALUE_CLASSES - 1] = 16 * decks;
+        composition[upCard.valueClass()]--;
+        return composition;
+    }
+    
+    @Test
+    void eightDecksSixUpMatchesPublishedBustRates() {
+        int[] composition = shoeWithout(8, Rank.SIX);
+        
+        assertEquals(0.4229, DealerOutcomeCalculator.calculate(Rank.SIX, composition, false, true).bustProbability(), 5e-5);
+        assertEquals(0.4393, DealerOutcomeCalculator.calculate(Rank.SIX, composition, true, true).bustProbability(), 5e-5);
+    }
+    
+    @Test
+    void outcomesSumToOne() {
+        for (Rank upCard : new Rank[] {Rank.ACE, Rank.TWO, Rank.SIX, Rank.TEN}) {
+            for (boolean peeks : new boolean[] {false, true}) {
+                double[] outcome = DealerOutcomeCalculator.calculate(upCard, shoeWithout(2, upCard), true, peeks).toArray();
+                double sum = 0;
+                for (double p : outcome) {
+                    sum += p;
+                }
+                assertEquals(1.0, sum, EPSILON, upCard + " peeks=" + peeks);
+            }
+        }
+    }
+    
+    @Test
+    void peekingRulesOutANaturalWithAnAceUp() {
+        int[] composition = shoeWithout(8, Rank.ACE);
+        DealerOutcome peeked = DealerOutcomeCalculator.calculate(Rank.ACE, composition, false, true);
+        DealerOutcome open = DealerOutcomeCalculator.calculate(Rank.ACE, composition, false, false);
+        
+        assertTrue(peeked.isConditionedOnNoBlackjack());
+        assertEquals(0.0, peeked.blackjackProbability(), EPSILON);
+        // Without the peek a natural is just the chance of a ten in the hole
+        assertEquals(128.0 / 415, open.blackjackProbability(), EPSILON);
+    }
+    
+    @Test
+    void memoizedRecursionMatchesPlainEnumeration() {
+        for (Rank upCard : new Rank[] {Rank.ACE, Rank.TWO, Rank.SIX, Rank.NINE}) {
+            for (boolean hitsSoft17 : new boolean[] {false, true}) {
+                int[] composition = shoeWithout(1, upCard);
+                double[] expected = new double[DealerOutcome.OUTCOMES];
+                int hard = upCard.valueClass() + 1;
+                enumerate(composition, hard, upCard == Rank.ACE ? 1 : 0, 1, 1.0, hitsSoft17, expected);
+                
+                double[] actual = DealerOutcomeCalculator.calculate(upCard, composition, hitsSoft17, false).toArray();
+                assertArrayEquals(expected, actual, EPSILON, upCard + " H17=" + hitsSoft17);
+            }
+        }
+    }
+    
+    /**
+     * Every draw sequence, one card at a time, adding each final outcome's probability
+     */
+    private static void enumerate(int[] counts, int hard, int aces, int cards, double p, boolean hitsSoft17,
+                                  double[] outcomes) {
+        boolean soft = aces > 0 && hard + 10 <= 21;
+        int best = soft ? hard + 10 : hard;
+        if (cards == 2 && best == 21) {
+            outcomes[DealerOutcome.BLACKJACK] += p;
+            return;
+        }
+        if (best > 21) {
+            outcomes[DealerOutcome.BUST] += p;
+            return;
+        }
+        if (best > 17 || (best == 17 && !(soft && hitsSoft17))) {
+            outcomes[best - 17] += p;
+            return;
+        }
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] == 0) continue;
+            double draw = p * counts[c] / total;
+            counts[c]--;
+            enumerate(counts, hard + c + 1, aces + (c == 0 ? 1 : 0), cards + 1, draw, hitsSoft17, outcomes);
+            counts[c]++;
+        }
+    }
+    
+    @Test
+    void compositionKeyPacksEveryClassSeparately() {
+        int[] composition = shoeWithout(8, Rank.SIX);
+        long key = DealerOutcomeCalculator.compositionKey(composition);
+        for (int i = 0; i < Rank.VALUE_CLASSES; i++) {
+            int[] changed = composition.clone();
+            changed[i]--;
+            assertNotEquals(key, DealerOutcomeCalculator.compositionKey(changed), "class " + i);
+        }
+        
+        int[] full = new int[Rank.VALUE_CLASSES];
+        java.util.Arrays.fill(full, 63);
+        full[Rank.VALUE_CLASSES - 1] = 255;
+        assertEquals((1L << 62) - 1, DealerOutcomeCalculator.compositionKey(full));
+    }
+    
+    @Test
+    void compositionKeyRejectsCountsThatDoNotFit() {
+        int[] tooManyAces = shoeWithout(1, Rank.SIX);
+        tooManyAces[0] = 64;
+        assertThrows(IllegalArgumentException.class, () -> DealerOutcomeCalculator.compositionKey(tooManyAces));
+        
+        int[] negative = shoeWithout(1, Rank.SIX);
+        negative[3] = -1;
+        assertThrows(IllegalArgumentException.class, () -> DealerOutcomeCalculator.compositionKey(negative));
+        
+        assertThrows(IllegalArgumentException.class, () -> DealerOutcomeCalculator.compositionKey(new int[9]));
+    }
+    
+    @Test
+    void repeatedQueryIsServedFromTheCache() {
+        int[] composition = shoeWithout(3, Rank.FIVE);
+        DealerOutcome first = DealerOutcomeCalculator.calculate(Rank.FIVE, composition, false, true);
+        
+        assertSame(first, DealerOutcomeCalculator.calculate(Rank.FIVE, composition, false, true));
+        assertNotSame(first, DealerOutcomeCalculator.calculate(Rank.FIVE, composition, true, true));
+    }
+    
+    @Test
+    void cacheStaysBounded() {
+        // Distinct tiny compositions, each cheap to calculate, until the cache has had to clear
+        int[] composition = new int[Rank.VALUE_CLASSES];
+        composition[Rank.VALUE_CLASSES - 1] = 4;
+        int queries = 0;
+        int largest = 0;
+        for (int n = 0; queries <= 100_000; n++) {
+            int rest = n;
+            for (int i = 0; i < Rank.VALUE_CLASSES - 1; i++) {
+                composition[i] = rest % 4;
+                rest /= 4;
+            }
+            DealerOutcomeCalculator.calculate(Rank.TEN, composition, false, false);
+            queries++;
+            largest = Math.max(largest, DealerOutcomeCalculator.getCacheSize());
+        }
+        
+        assertTrue(largest <= 100_000, "cache grew to " + largest);
+        assertTrue(DealerOutcomeCalculator.getCacheSize() < queries);
+    }
+}
@@ -1,5 +1,6 @@
 const express = require('express');
 const cors = require('cors');
+const crypto = require('crypto');
 
 const app = express();
 
@@ -8,7 +9,7 @@ app.use(cors());
 app.use(express.json());
 
 // In-memory storage
-const games = new Map(); // gameCode -> { sessionId, hostId, hostDisplayName, address, port, playerCount, createdAt }
+const games = new Map(); // gameCode -> { sessionId, hostId, hostToken, hostDisplayName, address, port, playerCount, createdAt }
 const MAX_PLAYERS = 4;
 
 // Generate 6-character game code
@@ -21,6 +22,19 @@ function generateGameCode() {
     return code;
 }
 
+// Secret handed to the host at register time; hostId is listed publicly, so it proves nothing
+function generateHostToken() {
+    return crypto.randomBytes(16).toString('hex');
+}
+
+// True if the request carries the token the game was registered with
+function isGameHost(game, hostToken) {
+    if (typeof hostToken !== 'string' || hostToken.length !== game.hostToken.length) {
+        return false;
+    }
+    return crypto.timingSafeEqual(Buffer.from(hostToken), Buffer.from(game.hostToken));
+}
+
 // No WebSocket - P2P handles all gameplay communication
 
 // REST API Endpoints
@@ -36,11 +50,13 @@ app.post('/api/games/register', (req, res) => {
     }
     
     const sessionId = `game_${Date.now()}`;
+    const hostToken = generateHostToken();
     const displayName = hostDisplayName || hostId; // Fallback to hostId if no display name
     
     games.set(gameCode.toUpperCase(), {
         sessionId,
         hostId,
+        hostToken,
         hostDisplayName: displayName,
         address,
         port,
@@ -53,7 +69,8 @@ app.post('/api/games/register', (req, res) => {
     res.json({
         success: true,
         gameCode: gameCode.toUpperCase(),
-        sessionId
+        sessionId,
+        hostToken
     });
 });
 
@@ -169,6 +186,40 @@ app.post('/api/games/:gameCode/leave', (req, res) => {
     });
 });
 
+// Update a game's connection address (host learned its public IP after registering)
+// Only the registering host may move a game, or anyone could point its players elsewhere
+app.put('/api/games/:gameCode/address', (req, res) => {
+    const { gameCode } = req.params;
+    const { hostToken, address, port } = req.body;
+    const game = games.get(gameCode.toUpperCase());
+    
+    if (!game) {
+        return res.status(404).json({ error: 'Game not found' });
+    }
+    
+    if (!hostToken) {
+        return res.status(401).json({ error: 'hostToken required' });
+    }
+    
+    if (!isGameHost(game, hostToken)) {
+        console.log(`[API] Rejected address update for ${gameCode}: wrong hostToken`);
+        return res.status(403).json({ error: 'Only the host can update this game' });
+    }
+    
+    if (!address || !port) {
+        return res.status(400).json({ error: 'address and port required' });
+    }
+    
+    game.address = address;
+    game.port = port;
+    console.log(`[API] Address updated for ${gameCode}: ${address}:${port}`);
+    
+    res.json({
+        success: true,
+        connectionString: `${address}:${port}`
+    });
+});
+
 // Unregister a game (when host closes)
 app.delete('/api/games/:gameCode', (req, res) => {
     const { gameCode } = req.params;